@@ -4,18 +4,18 @@ import com.pathfinder.api.GraphTraversalService;
 import com.pathfinder.internal.GraphDAO;
 import com.pathfinder.internal.GraphDAOStub;
 import com.pathfinder.internal.GraphTraversalServiceImpl;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class PathfinderApplicationContext {
 
-    private GraphDAO graphDAO() {
-        return new GraphDAOStub();
-    }
-
+    /**
+     * Routes on the graph provided by the application, if any, and on the stub graph otherwise.
+     */
     @Bean
-    public GraphTraversalService graphTraversalService() {
-        return new GraphTraversalServiceImpl(graphDAO());
+    public GraphTraversalService graphTraversalService(ObjectProvider<GraphDAO> graphDAO) {
+        return new GraphTraversalServiceImpl(graphDAO.getIfAvailable(GraphDAOStub::new));
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,9 @@
 package com.pathfinder.internal;
 
-import java.util.List;
-
 public interface GraphDAO {
-	List<String> listAllNodes();
-	String getTransitEdge(String from, String to);
+
+	/**
+	 * @return the graph of all scheduled departures
+	 */
+	TransitGraph transitGraph();
 }
@@ -1,26 +1,66 @@
 package com.pathfinder.internal;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
 
+/**
+ * Stub graph with a synthetic timetable. A handful of port rotations
+ * are sailed in both directions every other day, starting today,
+ * so that there is always something to route on.
+ */
 public class GraphDAOStub implements GraphDAO{
 
-  private static final Random random = new Random();
+  private static final int SAILING_INTERVAL_DAYS = 2;
+  private static final int TIMETABLE_DAYS = 60;
+  private static final Duration PORT_STAY = Duration.ofHours(6);
 
-  public List<String> listAllNodes() {
-    return new ArrayList<String>(List.of(
-      "CNHKG", "AUMEL", "SESTO", "FIHEL", "USCHI", "JNTKO", "DEHAM", "CNSHA", "NLRTM", "SEGOT", "CNHGH", "USNYC", "USDAL"
-    ));
+  private static final Map<String, List<String>> ROTATIONS = Map.of(
+    "0100S", List.of("CNHKG", "CNHGH", "JNTKO", "AUMEL", "USNYC"),
+    "0200T", List.of("USNYC", "USCHI", "USDAL"),
+    "0300A", List.of("USDAL", "DEHAM", "SEGOT", "SESTO", "FIHEL"),
+    "0301S", List.of("USDAL", "FIHEL"),
+    "0400S", List.of("FIHEL", "NLRTM", "CNSHA", "CNHKG")
+  );
+
+  private LocalDate timetableDate;
+  private TransitGraph timetable;
+
+  public synchronized TransitGraph transitGraph() {
+    final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    if (!today.equals(timetableDate)) {
+      timetable = timetableStartingAt(today.atStartOfDay(ZoneOffset.UTC).toInstant());
+      timetableDate = today;
+    }
+    return timetable;
   }
 
-  public String getTransitEdge(String from, String to) {
-    final int i = random.nextInt(5);
-    if (i == 0) return "0100S";
-    if (i == 1) return "0200T";
-    if (i == 2) return "0300A";
-    if (i == 3) return "0301S";
-    return "0400S";
+  private static TransitGraph timetableStartingAt(Instant start) {
+    final TransitGraph.Builder timetable = TransitGraph.builder();
+    ROTATIONS.forEach((voyageNumber, ports) -> {
+      final List<String> reversed = new ArrayList<>(ports);
+      Collections.reverse(reversed);
+      for (List<String> rotation : List.of(ports, reversed)) {
+        for (int day = 0; day < TIMETABLE_DAYS; day += SAILING_INTERVAL_DAYS) {
+          Instant departure = start.plus(Duration.ofDays(day)).plus(Duration.ofHours(Math.floorMod(voyageNumber.hashCode(), 24)));
+          for (int i = 0; i < rotation.size() - 1; i++) {
+            final String from = rotation.get(i);
+            final String to = rotation.get(i + 1);
+            final Instant arrival = departure.plus(sailingTime(from, to));
+            timetable.addDeparture(voyageNumber, from, to, departure.getEpochSecond(), arrival.getEpochSecond());
+            departure = arrival.plus(PORT_STAY);
+          }
+        }
+      }
+    });
+    return timetable.build();
   }
-  
+
+  private static Duration sailingTime(String from, String to) {
+    // Symmetric, so that a hop takes equally long in both directions
+    return Duration.ofHours(24 + Math.floorMod(from.hashCode() ^ to.hashCode(), 48));
+  }
+
 }
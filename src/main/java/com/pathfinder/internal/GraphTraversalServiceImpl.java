@@ -3,64 +3,227 @@ package com.pathfinder.internal;
 import com.pathfinder.api.GraphTraversalService;
 import com.pathfinder.api.TransitEdge;
 import com.pathfinder.api.TransitPath;
+import java.time.Clock;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 
+/**
+ * Earliest-arrival search over the scheduled departures in the graph.
+ * <p>
+ * This is a time-dependent Dijkstra search: labels, each being a node reached
+ * at some point in time along some path, are settled in order of arrival time.
+ * Every node is settled at most once per requested candidate, which yields the
+ * k best loopless paths in order of arrival. Labels that cannot make the deadline
+ * are never created, so no candidate is wasted.
+ * <p>
+ * The search works on node and departure indexes of the {@link TransitGraph};
+ * transit paths are only created for the candidates found.
+ * <p>
+ * Supported limitations:
+ * <ul>
+ *   <li>DEADLINE - latest arrival at the destination, as an ISO-8601 instant</li>
+ *   <li>VIA - node that the paths must pass through</li>
+ * </ul>
+ * A search that is interrupted returns the candidates found so far.
+ */
 public class GraphTraversalServiceImpl implements GraphTraversalService {
 
-  private GraphDAO dao;
-  private Random random;
-  private static final long ONE_MIN_MS = 1000 * 60;
-  private static final long ONE_DAY_MS = ONE_MIN_MS * 60 * 24;
+  private static final String DEADLINE = "DEADLINE";
+  private static final String VIA = "VIA";
+  private static final int MAX_CANDIDATES = 5;
+
+  private final GraphDAO dao;
+  private final Clock clock;
 
   public GraphTraversalServiceImpl(GraphDAO dao) {
+    this(dao, Clock.systemUTC());
+  }
+
+  public GraphTraversalServiceImpl(GraphDAO dao, Clock clock) {
     this.dao = dao;
-    this.random = new Random();
+    this.clock = clock;
   }
 
   public List<TransitPath> findShortestPath(
       final String originNode, final String destinationNode, final Properties limitations) {
-    List<String> allVertices = dao.listAllNodes();
-    allVertices.remove(originNode);
-    allVertices.remove(destinationNode);
-
-    int candidateCount = getRandomNumberOfCandidates();
-    List<TransitPath> candidates = new ArrayList<>(candidateCount);
-
-    for (int i = 0; i < candidateCount; i++) {
-      allVertices = getRandomChunkOfNodes(allVertices);
-      List<TransitEdge> transitEdges = new ArrayList<>(allVertices.size() - 1);
-      String fromNode = originNode;
-      Instant date = Instant.now();
-
-      for (int j = 0; j <= allVertices.size(); ++j) {
-        Instant fromDate = nextDate(date);
-        Instant toDate = nextDate(fromDate);
-        String toNode = (j >= allVertices.size() ? destinationNode : allVertices.get(j));
-        transitEdges.add(
-            new TransitEdge(
-                dao.getTransitEdge(fromNode, toNode), fromNode, toNode, fromDate, toDate));
-        fromNode = toNode;
-        date = nextDate(toDate);
+    final long deadline = deadline(limitations);
+    final TransitGraph graph = dao.transitGraph();
+    final int origin = graph.nodeId(originNode);
+    final int destination = graph.nodeId(destinationNode);
+    final String viaNode = limitations == null ? null : limitations.getProperty(VIA);
+    final int via = viaNode == null ? origin : graph.nodeId(viaNode);
+    final List<TransitPath> candidates = new ArrayList<>(MAX_CANDIDATES);
+    if (origin < 0 || destination < 0 || via < 0 || origin == destination) {
+      return candidates;
+    }
+
+    final Search search = new Search(graph);
+    // Nodes are settled separately before and after passing the via node
+    final int[] timesSettled = new int[graph.nodeCount() * 2];
+    final int[] connectionUsedBy = new int[graph.connectionCount()];
+    search.add(origin, epochSecondsCeiling(clock.instant()), -1, -1, origin == via);
+
+    int polls = 0;
+    while (!search.isEmpty() && candidates.size() < MAX_CANDIDATES) {
+      if ((++polls & 0x3ff) == 0 && Thread.currentThread().isInterrupted()) {
+        break;
+      }
+      final int label = search.poll();
+      final int node = search.node(label);
+      final boolean passedVia = search.passedVia(label);
+      if (++timesSettled[node * 2 + (passedVia ? 1 : 0)] > MAX_CANDIDATES) {
+        continue;
+      }
+      if (node == destination) {
+        if (passedVia) {
+          candidates.add(search.toTransitPath(label));
+        }
+        continue;
+      }
+      // Departures are first in, first out per connection, so only the first
+      // departure of each connection can lead to an earliest arrival.
+      final int end = graph.endOfDepartures(node);
+      for (int departure = graph.firstDepartureNotBefore(node, search.arrival(label)); departure < end; departure++) {
+        if (graph.departureTime(departure) > deadline) {
+          break;
+        }
+        final int connection = graph.connection(departure);
+        if (graph.arrivalTime(departure) > deadline || connectionUsedBy[connection] == label + 1) {
+          continue;
+        }
+        connectionUsedBy[connection] = label + 1;
+        final int target = graph.target(departure);
+        if (!search.visits(label, target)) {
+          search.add(target, graph.arrivalTime(departure), departure, label, passedVia || target == via);
+        }
       }
-      candidates.add(new TransitPath(transitEdges));
     }
     return candidates;
   }
 
-  private Instant nextDate(Instant date) {
-    return date.plus(1, ChronoUnit.DAYS).plus((random.nextInt(1000) - 500), ChronoUnit.MINUTES);
+  private static long epochSecondsCeiling(Instant instant) {
+    return instant.getNano() == 0 ? instant.getEpochSecond() : instant.getEpochSecond() + 1;
   }
 
-  private int getRandomNumberOfCandidates() {
-    return 3 + random.nextInt(3);
+  private static long deadline(final Properties limitations) {
+    final String deadline = limitations == null ? null : limitations.getProperty(DEADLINE);
+    return deadline == null ? Long.MAX_VALUE : Instant.parse(deadline).getEpochSecond();
   }
 
-  private List<String> getRandomChunkOfNodes(List<String> allNodes) {
-    Collections.shuffle(allNodes);
-    final int total = allNodes.size();
-    final int chunk = total > 4 ? 1 + random.nextInt(5) : total;
-    return allNodes.subList(0, chunk);
+  /**
+   * Labels in parallel arrays, with a binary heap of label indexes
+   * ordered by arrival time and then by number of edges.
+   */
+  private static final class Search {
+    private final TransitGraph graph;
+    private int[] nodes = new int[256];
+    private long[] arrivals = new long[256];
+    private int[] departures = new int[256];
+    private int[] previous = new int[256];
+    private int[] edgeCounts = new int[256];
+    private boolean[] passedVia = new boolean[256];
+    private int size;
+    private int[] heap = new int[256];
+    private int heapSize;
+
+    Search(TransitGraph graph) {
+      this.graph = graph;
+    }
+
+    int node(int label) {
+      return nodes[label];
+    }
+
+    long arrival(int label) {
+      return arrivals[label];
+    }
+
+    boolean passedVia(int label) {
+      return passedVia[label];
+    }
+
+    boolean isEmpty() {
+      return heapSize == 0;
+    }
+
+    void add(int node, long arrival, int departure, int previousLabel, boolean viaPassed) {
+      if (size == nodes.length) {
+        final int capacity = size * 2;
+        nodes = Arrays.copyOf(nodes, capacity);
+        arrivals = Arrays.copyOf(arrivals, capacity);
+        departures = Arrays.copyOf(departures, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        edgeCounts = Arrays.copyOf(edgeCounts, capacity);
+        passedVia = Arrays.copyOf(passedVia, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+      }
+      final int label = size++;
+      nodes[label] = node;
+      arrivals[label] = arrival;
+      departures[label] = departure;
+      previous[label] = previousLabel;
+      edgeCounts[label] = previousLabel < 0 ? 0 : edgeCounts[previousLabel] + 1;
+      passedVia[label] = viaPassed;
+
+      int position = heapSize++;
+      while (position > 0) {
+        final int parent = (position - 1) >>> 1;
+        if (!before(label, heap[parent])) {
+          break;
+        }
+        heap[position] = heap[parent];
+        position = parent;
+      }
+      heap[position] = label;
+    }
+
+    int poll() {
+      final int first = heap[0];
+      final int last = heap[--heapSize];
+      int position = 0;
+      while (true) {
+        int child = 2 * position + 1;
+        if (child >= heapSize) {
+          break;
+        }
+        if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+          child++;
+        }
+        if (!before(heap[child], last)) {
+          break;
+        }
+        heap[position] = heap[child];
+        position = child;
+      }
+      heap[position] = last;
+      return first;
+    }
+
+    boolean visits(int label, int node) {
+      for (int l = label; l >= 0; l = previous[l]) {
+        if (nodes[l] == node) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    TransitPath toTransitPath(int label) {
+      final TransitEdge[] edges = new TransitEdge[edgeCounts[label]];
+      for (int l = label; previous[l] >= 0; l = previous[l]) {
+        edges[edgeCounts[l] - 1] = graph.transitEdge(departures[l]);
+      }
+      return new TransitPath(Arrays.asList(edges));
+    }
+
+    private boolean before(int label, int other) {
+      if (arrivals[label] != arrivals[other]) {
+        return arrivals[label] < arrivals[other];
+      }
+      if (edgeCounts[label] != edgeCounts[other]) {
+        return edgeCounts[label] < edgeCounts[other];
+      }
+      return label < other;
+    }
   }
 }
@@ -0,0 +1,259 @@
+package com.pathfinder.internal;
+
+import com.pathfinder.api.TransitEdge;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable transit graph, stored as compressed sparse rows.
+ * <p>
+ * Nodes and edges (voyages) are interned to int ids. The departures from node
+ * {@code n} occupy the index range {@code [offsets[n], offsets[n + 1])} of the
+ * departure arrays, in order of departure time, with times as epoch seconds.
+ * Departures of the same edge to the same target node share a connection id,
+ * which is unique among the departures of a node.
+ * <p>
+ * Nothing but primitive arrays is kept per departure; {@link TransitEdge}s
+ * are only created for the paths that are handed out.
+ */
+public final class TransitGraph {
+
+  private final Map<String, Integer> nodeIds;
+  private final String[] nodes;
+  private final String[] edges;
+  private final int[] offsets;
+  private final int[] targets;
+  private final int[] edgeIds;
+  private final int[] connections;
+  private final long[] departureTimes;
+  private final long[] arrivalTimes;
+  private final int connectionCount;
+
+  private TransitGraph(Map<String, Integer> nodeIds, String[] nodes, String[] edges, int[] offsets, int[] targets,
+                       int[] edgeIds, int[] connections, long[] departureTimes, long[] arrivalTimes, int connectionCount) {
+    this.nodeIds = nodeIds;
+    this.nodes = nodes;
+    this.edges = edges;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.edgeIds = edgeIds;
+    this.connections = connections;
+    this.departureTimes = departureTimes;
+    this.arrivalTimes = arrivalTimes;
+    this.connectionCount = connectionCount;
+  }
+
+  /**
+   * @param node node name
+   * @return The node id, or -1 if the node is not in the graph.
+   */
+  public int nodeId(String node) {
+    return nodeIds.getOrDefault(node, -1);
+  }
+
+  public String nodeName(int node) {
+    return nodes[node];
+  }
+
+  public int nodeCount() {
+    return nodes.length;
+  }
+
+  public int departureCount() {
+    return targets.length;
+  }
+
+  /**
+   * @return The upper bound (exclusive) of connection ids at any node.
+   */
+  public int connectionCount() {
+    return connectionCount;
+  }
+
+  /**
+   * @param node node id
+   * @param epochSecond point in time
+   * @return Index of the first departure from the node at or after the given time.
+   */
+  public int firstDepartureNotBefore(int node, long epochSecond) {
+    int low = offsets[node];
+    int high = offsets[node + 1];
+    while (low < high) {
+      final int middle = (low + high) >>> 1;
+      if (departureTimes[middle] < epochSecond) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * @param node node id
+   * @return Index just past the last departure from the node.
+   */
+  public int endOfDepartures(int node) {
+    return offsets[node + 1];
+  }
+
+  public int target(int departure) {
+    return targets[departure];
+  }
+
+  public int connection(int departure) {
+    return connections[departure];
+  }
+
+  public long departureTime(int departure) {
+    return departureTimes[departure];
+  }
+
+  public long arrivalTime(int departure) {
+    return arrivalTimes[departure];
+  }
+
+  /**
+   * @param departure departure index
+   * @return The departure as a transit edge.
+   */
+  public TransitEdge transitEdge(int departure) {
+    int from = Arrays.binarySearch(offsets, departure);
+    if (from < 0) {
+      from = -from - 2;
+    } else {
+      // Skip nodes without departures, which share the offset
+      while (offsets[from + 1] == departure) {
+        from++;
+      }
+    }
+    return new TransitEdge(
+      edges[edgeIds[departure]],
+      nodes[from],
+      nodes[targets[departure]],
+      Instant.ofEpochSecond(departureTimes[departure]),
+      Instant.ofEpochSecond(arrivalTimes[departure])
+    );
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Collects departures, in any order, into a {@link TransitGraph}.
+   */
+  public static final class Builder {
+
+    private final Map<String, Integer> nodeIds = new HashMap<>();
+    private final Map<String, Integer> edgeIds = new HashMap<>();
+    private int[] from = new int[64];
+    private int[] to = new int[64];
+    private int[] edge = new int[64];
+    private long[] departureTimes = new long[64];
+    private long[] arrivalTimes = new long[64];
+    private int size;
+
+    private Builder() {
+    }
+
+    public Builder addDeparture(String edgeName, String fromNode, String toNode, long departureEpochSecond, long arrivalEpochSecond) {
+      if (size == from.length) {
+        final int capacity = size * 2;
+        from = Arrays.copyOf(from, capacity);
+        to = Arrays.copyOf(to, capacity);
+        edge = Arrays.copyOf(edge, capacity);
+        departureTimes = Arrays.copyOf(departureTimes, capacity);
+        arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+      }
+      from[size] = intern(nodeIds, fromNode);
+      to[size] = intern(nodeIds, toNode);
+      edge[size] = intern(edgeIds, edgeName);
+      departureTimes[size] = departureEpochSecond;
+      arrivalTimes[size] = arrivalEpochSecond;
+      size++;
+      return this;
+    }
+
+    public TransitGraph build() {
+      final int nodeCount = nodeIds.size();
+      final int[] offsets = new int[nodeCount + 1];
+      for (int i = 0; i < size; i++) {
+        offsets[from[i] + 1]++;
+      }
+      for (int node = 0; node < nodeCount; node++) {
+        offsets[node + 1] += offsets[node];
+      }
+
+      // Counting sort on departure node, then sort each node's departures on time
+      final int[] order = new int[size];
+      final int[] next = Arrays.copyOf(offsets, nodeCount);
+      for (int i = 0; i < size; i++) {
+        order[next[from[i]]++] = i;
+      }
+      final int[] buffer = new int[size];
+      for (int node = 0; node < nodeCount; node++) {
+        sortByTime(order, buffer, offsets[node], offsets[node + 1]);
+      }
+
+      final int[] targets = new int[size];
+      final int[] edges = new int[size];
+      final int[] connections = new int[size];
+      final long[] departures = new long[size];
+      final long[] arrivals = new long[size];
+      final Map<Long, Integer> nodeConnections = new HashMap<>();
+      int connectionCount = 0;
+      for (int node = 0; node < nodeCount; node++) {
+        nodeConnections.clear();
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+          final int departure = order[i];
+          targets[i] = to[departure];
+          edges[i] = edge[departure];
+          departures[i] = departureTimes[departure];
+          arrivals[i] = arrivalTimes[departure];
+          final long connectionKey = ((long) edge[departure] << 32) | to[departure];
+          connections[i] = nodeConnections.computeIfAbsent(connectionKey, key -> nodeConnections.size());
+        }
+        connectionCount = Math.max(connectionCount, nodeConnections.size());
+      }
+
+      return new TransitGraph(Map.copyOf(nodeIds), names(nodeIds), names(edgeIds),
+        offsets, targets, edges, connections, departures, arrivals, connectionCount);
+    }
+
+    private void sortByTime(int[] order, int[] buffer, int start, int end) {
+      if (end - start < 2) {
+        return;
+      }
+      final int middle = (start + end) >>> 1;
+      sortByTime(order, buffer, start, middle);
+      sortByTime(order, buffer, middle, end);
+      if (departureTimes[order[middle - 1]] <= departureTimes[order[middle]]) {
+        return;
+      }
+      System.arraycopy(order, start, buffer, start, end - start);
+      int left = start;
+      int right = middle;
+      for (int i = start; i < end; i++) {
+        if (right >= end || (left < middle && departureTimes[buffer[left]] <= departureTimes[buffer[right]])) {
+          order[i] = buffer[left++];
+        } else {
+          order[i] = buffer[right++];
+        }
+      }
+    }
+
+    private static int intern(Map<String, Integer> ids, String name) {
+      return ids.computeIfAbsent(name, key -> ids.size());
+    }
+
+    private static String[] names(Map<String, Integer> ids) {
+      final String[] names = new String[ids.size()];
+      ids.forEach((name, id) -> names[id] = name);
+      return names;
+    }
+  }
+}
@@ -4,6 +4,8 @@ import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
+import java.util.List;
+
 /**
  * This interface provides a way to let other parts
  * of the system know about events that have occurred.
@@ -41,4 +43,11 @@ public interface ApplicationEvents {
    */
   void receivedHandlingEventRegistrationAttempt(HandlingEventRegistrationAttempt attempt);
 
+  /**
+   * A number of handling event registration attempts are received together.
+   *
+   * @param attempts handling event registration attempts
+   */
+  void receivedHandlingEventRegistrationAttempts(List<HandlingEventRegistrationAttempt> attempts);
+
 }
@@ -22,6 +22,16 @@ public interface BookingService {
    */
   TrackingId bookNewCargo(UnLocode origin, UnLocode destination, Instant arrivalDeadline);
 
+  /**
+   * Registers a number of new cargos together, not yet routed.
+   * A request that can't be turned into a cargo is rejected
+   * without affecting the others.
+   *
+   * @param requests cargos to book
+   * @return One result per request, in the same order.
+   */
+  List<CargoBookingResult> bookNewCargos(List<CargoBookingRequest> requests);
+
   /**
    * Requests a list of itineraries describing possible routes for this cargo.
    *
@@ -0,0 +1,33 @@
+package se.citerus.dddsample.application;
+
+import se.citerus.dddsample.domain.model.location.UnLocode;
+
+import java.time.Instant;
+
+/**
+ * A cargo to be booked, as part of a bulk booking.
+ */
+public final class CargoBookingRequest {
+
+  private final UnLocode origin;
+  private final UnLocode destination;
+  private final Instant arrivalDeadline;
+
+  public CargoBookingRequest(final UnLocode origin, final UnLocode destination, final Instant arrivalDeadline) {
+    this.origin = origin;
+    this.destination = destination;
+    this.arrivalDeadline = arrivalDeadline;
+  }
+
+  public UnLocode origin() {
+    return origin;
+  }
+
+  public UnLocode destination() {
+    return destination;
+  }
+
+  public Instant arrivalDeadline() {
+    return arrivalDeadline;
+  }
+}
@@ -0,0 +1,50 @@
+package se.citerus.dddsample.application;
+
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+/**
+ * The outcome of booking a cargo as part of a bulk booking:
+ * either the tracking id of the booked cargo, or the reason why it was not booked.
+ */
+public final class CargoBookingResult {
+
+  private final CargoBookingRequest request;
+  private final TrackingId trackingId;
+  private final String error;
+
+  private CargoBookingResult(final CargoBookingRequest request, final TrackingId trackingId, final String error) {
+    this.request = request;
+    this.trackingId = trackingId;
+    this.error = error;
+  }
+
+  public static CargoBookingResult booked(final CargoBookingRequest request, final TrackingId trackingId) {
+    return new CargoBookingResult(request, trackingId, null);
+  }
+
+  public static CargoBookingResult rejected(final CargoBookingRequest request, final String error) {
+    return new CargoBookingResult(request, null, error);
+  }
+
+  public CargoBookingRequest request() {
+    return request;
+  }
+
+  /**
+   * @return Tracking id of the booked cargo, or null if the cargo was not booked.
+   */
+  public TrackingId trackingId() {
+    return trackingId;
+  }
+
+  /**
+   * @return Why the cargo was not booked, or null if it was booked.
+   */
+  public String error() {
+    return error;
+  }
+
+  public boolean isBooked() {
+    return trackingId != null;
+  }
+}
@@ -16,4 +16,17 @@ public interface CargoInspectionService {
    */
   void inspectCargo(TrackingId trackingId);
 
+  /**
+   * Inspect cargo, and call back when it has been inspected. An implementation
+   * may defer the inspection, in which case it calls back once an inspection that
+   * started after this request has completed.
+   *
+   * @param trackingId cargo tracking id
+   * @param inspected called when the cargo has been inspected
+   */
+  default void inspectCargo(TrackingId trackingId, Runnable inspected) {
+    inspectCargo(trackingId);
+    inspected.run();
+  }
+
 }
@@ -0,0 +1,30 @@
+package se.citerus.dddsample.application;
+
+import se.citerus.dddsample.domain.model.cargo.Cargo;
+
+import java.util.List;
+
+/**
+ * Keeps the read model that cargo tracking is served from up to date.
+ * <p/>
+ * It is called within the transaction that changes the cargo.
+ */
+public interface CargoTrackingViewUpdater {
+
+  /**
+   * The delivery or the routing of a cargo has changed.
+   *
+   * @param cargo cargo
+   */
+  void update(Cargo cargo);
+
+  /**
+   * A number of cargos have been booked, and have not been handled yet.
+   *
+   * @param cargos new cargos
+   */
+  default void booked(List<Cargo> cargos) {
+    cargos.forEach(this::update);
+  }
+
+}
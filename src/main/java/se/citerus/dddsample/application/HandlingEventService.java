@@ -5,8 +5,10 @@ import se.citerus.dddsample.domain.model.handling.CannotCreateHandlingEventExcep
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.domain.model.location.UnLocode;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
 import java.time.Instant;
+import java.util.List;
 
 
 /**
@@ -33,4 +35,15 @@ public interface HandlingEventService {
                              UnLocode unLocode,
                              HandlingEvent.Type type) throws CannotCreateHandlingEventException;
 
+  /**
+   * Registers a number of handling events together, and notifies interested
+   * parties that the cargos have been handled once they are registered.
+   * An attempt that can't be turned into a handling event is rejected
+   * without affecting the others.
+   *
+   * @param attempts handling event registration attempts
+   * @return The rejected attempts, with the reason for each.
+   */
+  List<RejectedRegistrationAttempt> registerHandlingEvents(List<HandlingEventRegistrationAttempt> attempts);
+
 }
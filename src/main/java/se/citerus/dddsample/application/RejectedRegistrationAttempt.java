@@ -0,0 +1,27 @@
+package se.citerus.dddsample.application;
+
+import se.citerus.dddsample.domain.model.handling.CannotCreateHandlingEventException;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+/**
+ * A handling event registration attempt that could not be registered,
+ * and the reason why.
+ */
+public final class RejectedRegistrationAttempt {
+
+  private final HandlingEventRegistrationAttempt attempt;
+  private final CannotCreateHandlingEventException reason;
+
+  public RejectedRegistrationAttempt(final HandlingEventRegistrationAttempt attempt, final CannotCreateHandlingEventException reason) {
+    this.attempt = attempt;
+    this.reason = reason;
+  }
+
+  public HandlingEventRegistrationAttempt attempt() {
+    return attempt;
+  }
+
+  public CannotCreateHandlingEventException reason() {
+    return reason;
+  }
+}
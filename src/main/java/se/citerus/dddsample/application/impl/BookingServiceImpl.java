@@ -4,6 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
 import se.citerus.dddsample.application.BookingService;
+import se.citerus.dddsample.application.CargoBookingRequest;
+import se.citerus.dddsample.application.CargoBookingResult;
+import se.citerus.dddsample.application.CargoTrackingViewUpdater;
 import se.citerus.dddsample.domain.model.cargo.*;
 import se.citerus.dddsample.domain.model.location.Location;
 import se.citerus.dddsample.domain.model.location.LocationRepository;
@@ -12,8 +15,11 @@ import se.citerus.dddsample.domain.service.RoutingService;
 
 import java.lang.invoke.MethodHandles;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class BookingServiceImpl implements BookingService {
 
@@ -21,16 +27,19 @@ public class BookingServiceImpl implements BookingService {
   private final LocationRepository locationRepository;
   private final RoutingService routingService;
   private final CargoFactory cargoFactory;
+  private final CargoTrackingViewUpdater cargoTrackingViewUpdater;
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   public BookingServiceImpl(final CargoRepository cargoRepository,
                             final LocationRepository locationRepository,
                             final RoutingService routingService,
-                            final CargoFactory cargoFactory) {
+                            final CargoFactory cargoFactory,
+                            final CargoTrackingViewUpdater cargoTrackingViewUpdater) {
     this.cargoRepository = cargoRepository;
     this.locationRepository = locationRepository;
     this.routingService = routingService;
     this.cargoFactory = cargoFactory;
+    this.cargoTrackingViewUpdater = cargoTrackingViewUpdater;
   }
 
   @Override
@@ -41,11 +50,64 @@ public class BookingServiceImpl implements BookingService {
     Cargo cargo = cargoFactory.createCargo(originUnLocode, destinationUnLocode, arrivalDeadline);
 
     cargoRepository.store(cargo);
+    cargoTrackingViewUpdater.update(cargo);
     logger.info("Booked new cargo with tracking id {}", cargo.trackingId().idString());
 
     return cargo.trackingId();
   }
 
+  @Override
+  @Transactional
+  public List<CargoBookingResult> bookNewCargos(final List<CargoBookingRequest> requests) {
+    /* The origins and destinations of all requests are looked up together */
+    final Set<UnLocode> unLocodes = new HashSet<>();
+    for (CargoBookingRequest request : requests) {
+      unLocodes.add(request.origin());
+      unLocodes.add(request.destination());
+    }
+    unLocodes.remove(null);
+    final CargoFactory.Batch batch = cargoFactory.batch(unLocodes);
+
+    final List<Cargo> cargos = new ArrayList<>(requests.size());
+    final List<CargoBookingResult> results = new ArrayList<>(requests.size());
+    for (CargoBookingRequest request : requests) {
+      final String rejection = rejection(request, batch);
+      if (rejection != null) {
+        results.add(CargoBookingResult.rejected(request, rejection));
+        continue;
+      }
+      try {
+        final Cargo cargo = batch.createCargo(request.origin(), request.destination(), request.arrivalDeadline());
+        cargos.add(cargo);
+        results.add(CargoBookingResult.booked(request, cargo.trackingId()));
+      } catch (IllegalArgumentException e) {
+        results.add(CargoBookingResult.rejected(request, e.getMessage()));
+      }
+    }
+
+    cargoRepository.storeAll(cargos);
+    cargoTrackingViewUpdater.booked(cargos);
+
+    logger.info("Booked {} new cargos, rejected {}", cargos.size(), requests.size() - cargos.size());
+    return results;
+  }
+
+  /**
+   * @return Why the request can't be booked, or null if the cargo can be created.
+   */
+  private static String rejection(final CargoBookingRequest request, final CargoFactory.Batch batch) {
+    if (request.origin() == null || request.destination() == null || request.arrivalDeadline() == null) {
+      return "Origin, destination and arrival deadline are required";
+    }
+    if (!batch.isKnownLocation(request.origin())) {
+      return "Unknown origin " + request.origin().idString();
+    }
+    if (!batch.isKnownLocation(request.destination())) {
+      return "Unknown destination " + request.destination().idString();
+    }
+    return null;
+  }
+
   @Override
   @Transactional
   public List<Itinerary> requestPossibleRoutesForCargo(final TrackingId trackingId) {
@@ -68,6 +130,7 @@ public class BookingServiceImpl implements BookingService {
 
     cargo.assignToRoute(itinerary);
     cargoRepository.store(cargo);
+    cargoTrackingViewUpdater.update(cargo);
 
     logger.info("Assigned cargo {} to new route", trackingId);
   }
@@ -84,6 +147,7 @@ public class BookingServiceImpl implements BookingService {
     cargo.specifyNewRoute(routeSpecification);
 
     cargoRepository.store(cargo);
+    cargoTrackingViewUpdater.update(cargo);
     logger.info("Changed destination for cargo {} to {}", trackingId, routeSpecification.destination());
   }
 
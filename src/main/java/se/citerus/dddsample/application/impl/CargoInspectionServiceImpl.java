@@ -6,9 +6,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
 import se.citerus.dddsample.application.ApplicationEvents;
 import se.citerus.dddsample.application.CargoInspectionService;
+import se.citerus.dddsample.application.CargoTrackingViewUpdater;
 import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.cargo.CargoRepository;
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
 import se.citerus.dddsample.domain.model.handling.HandlingHistory;
 
@@ -19,14 +21,17 @@ public class CargoInspectionServiceImpl implements CargoInspectionService {
   private final ApplicationEvents applicationEvents;
   private final CargoRepository cargoRepository;
   private final HandlingEventRepository handlingEventRepository;
+  private final CargoTrackingViewUpdater cargoTrackingViewUpdater;
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   public CargoInspectionServiceImpl(final ApplicationEvents applicationEvents,
                                     final CargoRepository cargoRepository,
-                                    final HandlingEventRepository handlingEventRepository) {
+                                    final HandlingEventRepository handlingEventRepository,
+                                    final CargoTrackingViewUpdater cargoTrackingViewUpdater) {
     this.applicationEvents = applicationEvents;
     this.cargoRepository = cargoRepository;
     this.handlingEventRepository = handlingEventRepository;
+    this.cargoTrackingViewUpdater = cargoTrackingViewUpdater;
   }
 
   @Override
@@ -40,9 +45,13 @@ public class CargoInspectionServiceImpl implements CargoInspectionService {
       return;
     }
 
-    final HandlingHistory handlingHistory = handlingEventRepository.lookupHandlingHistoryOfCargo(trackingId);
-
-    cargo.deriveDeliveryProgress(handlingHistory);
+    final HandlingEvent lastEvent = handlingEventRepository.lookupMostRecentlyCompletedEventOfCargo(trackingId);
+    if (lastEvent != null) {
+      // Only the latest event is needed, unless it doesn't follow the cargo's current delivery
+      cargo.deriveDeliveryProgress(lastEvent, () -> handlingEventRepository.lookupHandlingHistoryOfCargo(trackingId));
+    } else {
+      cargo.deriveDeliveryProgress(HandlingHistory.EMPTY);
+    }
 
     if (cargo.delivery().isMisdirected()) {
       applicationEvents.cargoWasMisdirected(cargo);
@@ -53,5 +62,6 @@ public class CargoInspectionServiceImpl implements CargoInspectionService {
     }
 
     cargoRepository.store(cargo);
+    cargoTrackingViewUpdater.update(cargo);
   }
 }
@@ -0,0 +1,166 @@
+package se.citerus.dddsample.application.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import se.citerus.dddsample.application.CargoInspectionService;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cargo inspection service that inspects each cargo at most once per window.
+ * <p>
+ * The first request to inspect a cargo schedules an inspection at the end of
+ * the window, and further requests for that cargo within the window are covered
+ * by it. A request that arrives while the cargo is being inspected schedules one
+ * more inspection after it, so the last handling event is always inspected,
+ * and a cargo is never inspected by two threads at once.
+ * <p>
+ * This keeps the order of the requests for each cargo, as far as inspections are
+ * concerned: inspections of a cargo run one after the other, each one reads the
+ * whole handling history of the cargo, and the last inspection starts after the
+ * last request. Requests for different cargos are inspected in parallel, and in
+ * no particular order.
+ * <p>
+ * Scheduled inspections are only held in memory, and are performed when the service is
+ * shut down. A request made with a callback is called back once the inspection that covers
+ * it has completed, failed or not, so the caller can hold on to the request until then,
+ * for instance by acknowledging the message that asked for it only in the callback.
+ */
+public class CoalescingCargoInspectionService implements CargoInspectionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private enum State { SCHEDULED, RUNNING, RUNNING_AND_SCHEDULED }
+
+  /**
+   * The inspection state of a cargo, only read and changed while computing its map entry.
+   */
+  private static final class Inspection {
+    State state = State.SCHEDULED;
+    List<Runnable> scheduledCallbacks = new ArrayList<>();
+  }
+
+  private final CargoInspectionService cargoInspectionService;
+  private final Duration window;
+  private final ScheduledExecutorService scheduler;
+  private final ConcurrentMap<TrackingId, Inspection> inspectionsByCargo = new ConcurrentHashMap<>();
+  private final AtomicLong inspections = new AtomicLong();
+  private final AtomicLong savedInspections = new AtomicLong();
+
+  /**
+   * @param cargoInspectionService inspects the cargos
+   * @param window how long requests to inspect a cargo are collected
+   * @param threads number of cargos that can be inspected at once, should be at least
+   *                the number of threads that request inspections
+   */
+  public CoalescingCargoInspectionService(final CargoInspectionService cargoInspectionService, final Duration window, final int threads) {
+    this.cargoInspectionService = cargoInspectionService;
+    this.window = window;
+    final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cargo-inspection-");
+    threadFactory.setDaemon(true);
+    this.scheduler = Executors.newScheduledThreadPool(threads, threadFactory);
+  }
+
+  @Override
+  public void inspectCargo(final TrackingId trackingId) {
+    inspectCargo(trackingId, () -> { });
+  }
+
+  @Override
+  public void inspectCargo(final TrackingId trackingId, final Runnable inspected) {
+    final boolean[] first = new boolean[1];
+    inspectionsByCargo.compute(trackingId, (id, current) -> {
+      final Inspection inspection = current == null ? new Inspection() : current;
+      if (current == null) {
+        first[0] = true;
+      } else if (current.state == State.RUNNING) {
+        current.state = State.RUNNING_AND_SCHEDULED;
+      } else {
+        savedInspections.incrementAndGet();
+      }
+      inspection.scheduledCallbacks.add(inspected);
+      return inspection;
+    });
+    if (first[0]) {
+      schedule(trackingId);
+    }
+  }
+
+  private void schedule(final TrackingId trackingId) {
+    try {
+      scheduler.schedule(() -> inspect(trackingId), window.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // Shutting down, so there is no window to wait for
+      inspect(trackingId);
+    }
+  }
+
+  private void inspect(final TrackingId trackingId) {
+    final List<Runnable> callbacks = new ArrayList<>();
+    inspectionsByCargo.computeIfPresent(trackingId, (id, inspection) -> {
+      inspection.state = State.RUNNING;
+      callbacks.addAll(inspection.scheduledCallbacks);
+      inspection.scheduledCallbacks = new ArrayList<>();
+      return inspection;
+    });
+    try {
+      inspections.incrementAndGet();
+      cargoInspectionService.inspectCargo(trackingId);
+    } catch (Exception e) {
+      logger.error("Error inspecting cargo {}", trackingId, e);
+    } finally {
+      final Inspection next = inspectionsByCargo.computeIfPresent(trackingId, (id, inspection) -> {
+        if (inspection.state == State.RUNNING_AND_SCHEDULED) {
+          inspection.state = State.SCHEDULED;
+          return inspection;
+        }
+        return null;
+      });
+      if (next != null) {
+        schedule(trackingId);
+      }
+      callBack(trackingId, callbacks);
+    }
+  }
+
+  private static void callBack(final TrackingId trackingId, final List<Runnable> callbacks) {
+    for (Runnable callback : callbacks) {
+      try {
+        callback.run();
+      } catch (Exception e) {
+        logger.error("Error calling back after inspecting cargo {}", trackingId, e);
+      }
+    }
+  }
+
+  /**
+   * @return number of cargo inspections performed
+   */
+  public long inspectionCount() {
+    return inspections.get();
+  }
+
+  /**
+   * @return number of requested inspections that were covered by another inspection
+   */
+  public long savedInspectionCount() {
+    return savedInspections.get();
+  }
+
+  /**
+   * Performs the inspections already scheduled, and stops.
+   */
+  public void shutdown() throws InterruptedException {
+    scheduler.shutdown();
+    if (!scheduler.awaitTermination(window.toMillis() + 5000, TimeUnit.MILLISECONDS)) {
+      logger.warn("Cargo inspections still running at shutdown");
+    }
+  }
+}
@@ -3,8 +3,11 @@ package se.citerus.dddsample.application.impl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import se.citerus.dddsample.application.ApplicationEvents;
 import se.citerus.dddsample.application.HandlingEventService;
+import se.citerus.dddsample.application.RejectedRegistrationAttempt;
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
 import se.citerus.dddsample.domain.model.handling.CannotCreateHandlingEventException;
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
@@ -12,9 +15,17 @@ import se.citerus.dddsample.domain.model.handling.HandlingEventFactory;
 import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
 import se.citerus.dddsample.domain.model.location.UnLocode;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
 import java.lang.invoke.MethodHandles;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class HandlingEventServiceImpl implements HandlingEventService {
 
@@ -58,4 +69,50 @@ public class HandlingEventServiceImpl implements HandlingEventService {
     logger.info("Registered handling event: {}", event);
   }
 
+  @Override
+  @Transactional
+  public List<RejectedRegistrationAttempt> registerHandlingEvents(final List<HandlingEventRegistrationAttempt> attempts) {
+    final Instant registrationTime = Instant.now();
+    /* The cargos, voyages and locations of all attempts are looked up together */
+    final HandlingEventFactory.Batch batch = handlingEventFactory.batch(
+      distinct(attempts, HandlingEventRegistrationAttempt::getTrackingId),
+      distinct(attempts, HandlingEventRegistrationAttempt::getVoyageNumber),
+      distinct(attempts, HandlingEventRegistrationAttempt::getUnLocode)
+    );
+
+    final List<HandlingEvent> events = new ArrayList<>(attempts.size());
+    final List<RejectedRegistrationAttempt> rejected = new ArrayList<>();
+    for (HandlingEventRegistrationAttempt attempt : attempts) {
+      try {
+        events.add(batch.createHandlingEvent(registrationTime, attempt.getCompletionTime(), attempt.getTrackingId(),
+          attempt.getVoyageNumber(), attempt.getUnLocode(), attempt.getType()));
+      } catch (CannotCreateHandlingEventException e) {
+        rejected.add(new RejectedRegistrationAttempt(attempt, e));
+      }
+    }
+
+    handlingEventRepository.storeAll(events);
+
+    /* The cargos are inspected asynchronously, so they are only
+       announced once the handling events are committed. */
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCommit() {
+          events.forEach(applicationEvents::cargoWasHandled);
+        }
+      });
+    } else {
+      events.forEach(applicationEvents::cargoWasHandled);
+    }
+
+    logger.info("Registered {} handling events, rejected {}", events.size(), rejected.size());
+    return rejected;
+  }
+
+  private static <T> Set<T> distinct(final List<HandlingEventRegistrationAttempt> attempts,
+                                     final Function<HandlingEventRegistrationAttempt, T> key) {
+    return attempts.stream().map(key).filter(Objects::nonNull).collect(Collectors.toCollection(HashSet::new));
+  }
+
 }
@@ -0,0 +1,55 @@
+package se.citerus.dddsample.application.tracking;
+
+import java.time.Instant;
+
+/**
+ * Identifies a version of the tracking view of a cargo, so that clients
+ * polling for it can be told that nothing has changed without the view
+ * being loaded.
+ */
+public final class CargoTrackingVersion {
+
+    private final Instant calculatedAt;
+    private final int handlingEventCount;
+
+    /**
+     * @param calculatedAt when the delivery of the cargo was last calculated
+     * @param handlingEventCount number of handling events of the cargo
+     */
+    public CargoTrackingVersion(Instant calculatedAt, int handlingEventCount) {
+        this.calculatedAt = calculatedAt;
+        this.handlingEventCount = handlingEventCount;
+    }
+
+    /**
+     * @return Entity tag of this version, without quotes.
+     */
+    public String eTag() {
+        return Long.toHexString(calculatedAt.toEpochMilli()) + "-" + handlingEventCount;
+    }
+
+    /**
+     * @return When this version was calculated, in milliseconds since the epoch.
+     */
+    public long lastModified() {
+        return calculatedAt.toEpochMilli();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CargoTrackingVersion that = (CargoTrackingVersion) o;
+        return handlingEventCount == that.handlingEventCount && calculatedAt.equals(that.calculatedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * calculatedAt.hashCode() + handlingEventCount;
+    }
+
+    @Override
+    public String toString() {
+        return eTag();
+    }
+}
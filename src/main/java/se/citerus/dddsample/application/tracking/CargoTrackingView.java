@@ -0,0 +1,241 @@
+package se.citerus.dddsample.application.tracking;
+
+import se.citerus.dddsample.domain.model.cargo.Cargo;
+import se.citerus.dddsample.domain.model.cargo.Delivery;
+import se.citerus.dddsample.domain.model.cargo.HandlingActivity;
+import se.citerus.dddsample.domain.model.cargo.Itinerary;
+import se.citerus.dddsample.domain.model.cargo.TransportStatus;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+
+import javax.persistence.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Denormalized view of a cargo, as shown when tracking it.
+ * <p>
+ * The view is rewritten whenever the delivery or the routing of the cargo changes,
+ * so that tracking a cargo only takes a lookup on its tracking id.
+ */
+@Entity(name = "CargoTrackingView")
+@Table(name = "CargoTrackingView")
+public class CargoTrackingView {
+
+  @Id
+  @Column(name = "tracking_id")
+  public String trackingId;
+
+  @Column
+  public String origin;
+
+  @Column
+  public String destination;
+
+  @Enumerated(value = EnumType.STRING)
+  @Column(name = "transport_status")
+  public TransportStatus transportStatus;
+
+  @Column(name = "last_known_location")
+  public String lastKnownLocation;
+
+  @Column(name = "current_voyage")
+  public String currentVoyage;
+
+  @Column
+  public Instant eta;
+
+  @Column
+  public boolean misdirected;
+
+  @Enumerated(value = EnumType.STRING)
+  @Column(name = "next_activity_type")
+  public HandlingEvent.Type nextActivityType;
+
+  @Column(name = "next_activity_location")
+  public String nextActivityLocation;
+
+  @Column(name = "next_activity_voyage")
+  public String nextActivityVoyage;
+
+  @Column(name = "calculated_at")
+  public Instant calculatedAt;
+
+  @Column(name = "handling_event_count")
+  public int handlingEventCount;
+
+  @ElementCollection
+  @CollectionTable(name = "CargoTrackingViewEvent", joinColumns = @JoinColumn(name = "tracking_id"))
+  @OrderColumn(name = "event_index")
+  public List<Event> events;
+
+  /**
+   * @param cargo cargo
+   * @param handlingEvents the handling history of the cargo, ordered by completion time
+   * @return The tracking view of the cargo.
+   */
+  public static CargoTrackingView of(Cargo cargo, List<HandlingEventProjection> handlingEvents) {
+    final CargoTrackingView view = new CargoTrackingView();
+    final Delivery delivery = cargo.delivery();
+    view.trackingId = cargo.trackingId().idString();
+    view.origin = cargo.origin().name();
+    view.destination = cargo.routeSpecification().destination().name();
+    view.transportStatus = delivery.transportStatus();
+    view.lastKnownLocation = delivery.lastKnownLocation().name();
+    view.currentVoyage = delivery.currentVoyage().voyageNumber().idString();
+    view.eta = delivery.estimatedTimeOfArrival();
+    view.misdirected = delivery.isMisdirected();
+    view.calculatedAt = delivery.calculatedAt();
+    view.handlingEventCount = handlingEvents.size();
+
+    final HandlingActivity activity = delivery.nextExpectedActivity();
+    if (activity != null) {
+      view.nextActivityType = activity.type();
+      view.nextActivityLocation = activity.location().name();
+      view.nextActivityVoyage = activity.voyage() == null ? null : activity.voyage().voyageNumber().idString();
+    }
+
+    final Itinerary itinerary = cargo.itinerary();
+    view.events = new ArrayList<>(handlingEvents.size());
+    for (HandlingEventProjection handlingEvent : handlingEvents) {
+      view.events.add(new Event(handlingEvent, handlingEvent.isExpectedBy(itinerary)));
+    }
+    return view;
+  }
+
+  public String trackingId() {
+    return trackingId;
+  }
+
+  public String origin() {
+    return origin;
+  }
+
+  public String destination() {
+    return destination;
+  }
+
+  public TransportStatus transportStatus() {
+    return transportStatus;
+  }
+
+  /**
+   * @return Name of the last known location of the cargo.
+   */
+  public String lastKnownLocation() {
+    return lastKnownLocation;
+  }
+
+  /**
+   * @return Voyage number of the current voyage, or empty string if the cargo is not on board a carrier.
+   */
+  public String currentVoyage() {
+    return currentVoyage;
+  }
+
+  /**
+   * @return Estimated time of arrival, or null if not known.
+   */
+  public Instant eta() {
+    return eta;
+  }
+
+  public boolean isMisdirected() {
+    return misdirected;
+  }
+
+  /**
+   * @return Type of the next expected handling activity, or null if there is none.
+   */
+  public HandlingEvent.Type nextActivityType() {
+    return nextActivityType;
+  }
+
+  public String nextActivityLocation() {
+    return nextActivityLocation;
+  }
+
+  public String nextActivityVoyage() {
+    return nextActivityVoyage;
+  }
+
+  /**
+   * @return The version of this view.
+   */
+  public CargoTrackingVersion version() {
+    return new CargoTrackingVersion(calculatedAt, handlingEventCount);
+  }
+
+  /**
+   * @return Handling events, ordered by completion time.
+   */
+  public List<Event> events() {
+    return Collections.unmodifiableList(events);
+  }
+
+  /**
+   * A handling event of the tracked cargo.
+   */
+  @Embeddable
+  public static class Event {
+
+    @Enumerated(value = EnumType.STRING)
+    @Column(name = "event_type")
+    public HandlingEvent.Type type;
+
+    @Column(name = "completion_time")
+    public Instant completionTime;
+
+    @Column
+    public String location;
+
+    @Column(name = "voyage_number")
+    public String voyageNumber;
+
+    @Column
+    public boolean expected;
+
+    Event(HandlingEventProjection handlingEvent, boolean expected) {
+      this.type = handlingEvent.type();
+      this.completionTime = handlingEvent.completionTime();
+      this.location = handlingEvent.locationName();
+      this.voyageNumber = handlingEvent.voyageNumber();
+      this.expected = expected;
+    }
+
+    public HandlingEvent.Type type() {
+      return type;
+    }
+
+    public Instant completionTime() {
+      return completionTime;
+    }
+
+    public String location() {
+      return location;
+    }
+
+    /**
+     * @return Voyage number, or empty string if the event is not on a voyage.
+     */
+    public String voyageNumber() {
+      return voyageNumber;
+    }
+
+    /**
+     * @return True if the event was expected, according to the cargo's itinerary.
+     */
+    public boolean isExpected() {
+      return expected;
+    }
+
+    protected Event() {
+      // Needed by Hibernate
+    }
+  }
+
+  protected CargoTrackingView() {
+    // Needed by Hibernate
+  }
+}
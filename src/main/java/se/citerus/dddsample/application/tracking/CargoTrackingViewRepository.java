@@ -0,0 +1,53 @@
+package se.citerus.dddsample.application.tracking;
+
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository of cargo tracking views.
+ */
+public interface CargoTrackingViewRepository {
+
+    /**
+     * @param trackingId cargo tracking id
+     * @return The tracking view of this cargo, or null if none has been stored.
+     */
+    CargoTrackingView find(TrackingId trackingId);
+
+    /**
+     * Finds a number of tracking views at once.
+     *
+     * @param trackingIds cargo tracking ids
+     * @return The tracking views that have been stored, in no particular order.
+     */
+    List<CargoTrackingView> find(Collection<TrackingId> trackingIds);
+
+    /**
+     * @param trackingId cargo tracking id
+     * @return The version of the tracking view of this cargo, or null if none has been stored.
+     */
+    CargoTrackingVersion findVersion(TrackingId trackingId);
+
+    /**
+     * Stores a tracking view, replacing the previous view of the same cargo.
+     *
+     * @param view tracking view
+     */
+    void store(CargoTrackingView view);
+
+    /**
+     * Stores the tracking views of new cargos, without looking for stored views first.
+     *
+     * @param views tracking views of cargos that have none
+     */
+    void storeAllNew(List<CargoTrackingView> views);
+
+    /**
+     * @param limit maximum number of tracking ids to find
+     * @return Tracking ids of cargos that have no tracking view, ordered by tracking id.
+     */
+    List<TrackingId> findCargosWithoutView(int limit);
+
+}
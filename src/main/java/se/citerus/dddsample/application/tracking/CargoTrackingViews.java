@@ -0,0 +1,131 @@
+package se.citerus.dddsample.application.tracking;
+
+import org.springframework.transaction.annotation.Transactional;
+import se.citerus.dddsample.application.CargoTrackingViewUpdater;
+import se.citerus.dddsample.domain.model.cargo.Cargo;
+import se.citerus.dddsample.domain.model.cargo.CargoRepository;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the tracking views of cargos as they change, and serves them for tracking.
+ * <p>
+ * Views are written when cargos are booked, routed or inspected, and tracking only reads them.
+ * A cargo that has no view yet is assembled from the cargo and its handling history instead,
+ * but its view is not stored by the lookup.
+ */
+public class CargoTrackingViews implements CargoTrackingViewUpdater {
+
+    private final CargoRepository cargoRepository;
+    private final HandlingEventProjectionRepository handlingEventProjectionRepository;
+    private final CargoTrackingViewRepository cargoTrackingViewRepository;
+
+    public CargoTrackingViews(CargoRepository cargoRepository,
+                              HandlingEventProjectionRepository handlingEventProjectionRepository,
+                              CargoTrackingViewRepository cargoTrackingViewRepository) {
+        this.cargoRepository = cargoRepository;
+        this.handlingEventProjectionRepository = handlingEventProjectionRepository;
+        this.cargoTrackingViewRepository = cargoTrackingViewRepository;
+    }
+
+    /**
+     * @param trackingId cargo tracking id
+     * @return The tracking view of the cargo, or null if there is no such cargo.
+     */
+    public CargoTrackingView find(TrackingId trackingId) {
+        final CargoTrackingView view = cargoTrackingViewRepository.find(trackingId);
+        if (view != null) {
+            return view;
+        }
+
+        final Cargo cargo = cargoRepository.find(trackingId);
+        return cargo == null ? null : assemble(cargo);
+    }
+
+    /**
+     * Finds the tracking views of a number of cargos at once, with a fixed number of queries.
+     *
+     * @param trackingIds cargo tracking ids
+     * @return The tracking views of the cargos that exist, by tracking id.
+     */
+    public Map<TrackingId, CargoTrackingView> find(Collection<TrackingId> trackingIds) {
+        final Map<TrackingId, CargoTrackingView> views = new HashMap<>();
+        for (CargoTrackingView view : cargoTrackingViewRepository.find(trackingIds)) {
+            views.put(new TrackingId(view.trackingId()), view);
+        }
+
+        final List<TrackingId> missing = trackingIds.stream()
+                .filter(trackingId -> !views.containsKey(trackingId))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            for (CargoTrackingView view : assemble(missing)) {
+                views.put(new TrackingId(view.trackingId()), view);
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Looks up the version of the stored tracking view of a cargo, without loading the view.
+     *
+     * @param trackingId cargo tracking id
+     * @return The version of the tracking view of the cargo, or null if no view has been stored,
+     *         in which case {@link #find(TrackingId)} assembles the view from the cargo.
+     */
+    public CargoTrackingVersion findVersion(TrackingId trackingId) {
+        return cargoTrackingViewRepository.findVersion(trackingId);
+    }
+
+    /**
+     * Stores the tracking views of cargos that have none, such as cargos stored
+     * before there were tracking views, a page of cargos at a time.
+     *
+     * @param pageSize maximum number of views to store
+     * @return The number of views stored. Fewer than pageSize means that every cargo has a view.
+     */
+    @Transactional
+    public int storeMissingViews(int pageSize) {
+        final List<CargoTrackingView> views = assemble(cargoTrackingViewRepository.findCargosWithoutView(pageSize));
+        cargoTrackingViewRepository.storeAllNew(views);
+        return views.size();
+    }
+
+    @Override
+    public void update(Cargo cargo) {
+        cargoTrackingViewRepository.store(assemble(cargo));
+    }
+
+    /**
+     * New cargos have no handling history and no views yet, so their views are
+     * inserted together without any lookups.
+     */
+    @Override
+    public void booked(List<Cargo> cargos) {
+        cargoTrackingViewRepository.storeAllNew(cargos.stream()
+                .map(cargo -> CargoTrackingView.of(cargo, Collections.emptyList()))
+                .collect(Collectors.toList()));
+    }
+
+    private List<CargoTrackingView> assemble(List<TrackingId> trackingIds) {
+        if (trackingIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Cargo> cargos = cargoRepository.find(trackingIds);
+        final Map<TrackingId, List<HandlingEventProjection>> histories =
+                handlingEventProjectionRepository.lookupHandlingHistoriesOfCargos(cargos.stream().map(Cargo::trackingId).collect(Collectors.toList()));
+        return cargos.stream()
+                .map(cargo -> CargoTrackingView.of(cargo, histories.getOrDefault(cargo.trackingId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    private CargoTrackingView assemble(Cargo cargo) {
+        return CargoTrackingView.of(cargo, handlingEventProjectionRepository.lookupHandlingHistoryOfCargo(cargo.trackingId()));
+    }
+}
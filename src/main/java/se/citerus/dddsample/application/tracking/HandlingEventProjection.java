@@ -0,0 +1,77 @@
+package se.citerus.dddsample.application.tracking;
+
+import se.citerus.dddsample.domain.model.cargo.Itinerary;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+
+import java.time.Instant;
+
+/**
+ * The parts of a handling event that are shown when tracking a cargo,
+ * read straight from the database instead of loading the handling event
+ * together with its location, voyage and cargo.
+ */
+public final class HandlingEventProjection {
+
+    private final String trackingId;
+    private final HandlingEvent.Type type;
+    private final Instant completionTime;
+    private final String locationName;
+    private final String unLocode;
+    private final String voyageNumber;
+
+    /**
+     * @param trackingId tracking id of the handled cargo
+     * @param voyageNumber voyage number, or null if the event is not on a voyage
+     */
+    public HandlingEventProjection(String trackingId, HandlingEvent.Type type, Instant completionTime, String locationName, String unLocode, String voyageNumber) {
+        this.trackingId = trackingId;
+        this.type = type;
+        this.completionTime = completionTime;
+        this.locationName = locationName;
+        this.unLocode = unLocode;
+        this.voyageNumber = voyageNumber == null ? "" : voyageNumber;
+    }
+
+    public static HandlingEventProjection of(HandlingEvent handlingEvent) {
+        return new HandlingEventProjection(
+                handlingEvent.cargo().trackingId().idString(),
+                handlingEvent.type(),
+                handlingEvent.completionTime(),
+                handlingEvent.location().name(),
+                handlingEvent.location().unLocode().idString(),
+                handlingEvent.voyage().voyageNumber().idString());
+    }
+
+    public String trackingId() {
+        return trackingId;
+    }
+
+    public HandlingEvent.Type type() {
+        return type;
+    }
+
+    public Instant completionTime() {
+        return completionTime;
+    }
+
+    public String locationName() {
+        return locationName;
+    }
+
+    /**
+     * @return Voyage number, or empty string if the event is not on a voyage.
+     */
+    public String voyageNumber() {
+        return voyageNumber;
+    }
+
+    /**
+     * @param itinerary itinerary
+     * @return True if the event was expected, according to the itinerary.
+     */
+    public boolean isExpectedBy(Itinerary itinerary) {
+        return itinerary.isExpected(type, new UnLocode(unLocode), new VoyageNumber(voyageNumber));
+    }
+}
@@ -0,0 +1,28 @@
+package se.citerus.dddsample.application.tracking;
+
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read model of the handling history of a cargo, for tracking.
+ */
+public interface HandlingEventProjectionRepository {
+
+    /**
+     * @param trackingId cargo tracking id
+     * @return The distinct handling events of this cargo (no duplicate registrations), ordered by completion time
+     */
+    List<HandlingEventProjection> lookupHandlingHistoryOfCargo(TrackingId trackingId);
+
+    /**
+     * Looks up the handling histories of a number of cargos at once.
+     *
+     * @param trackingIds cargo tracking ids
+     * @return The distinct handling events of each cargo, ordered by completion time. Cargos without events are left out.
+     */
+    Map<TrackingId, List<HandlingEventProjection>> lookupHandlingHistoriesOfCargos(Collection<TrackingId> trackingIds);
+
+}
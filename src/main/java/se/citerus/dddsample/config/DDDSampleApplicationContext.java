@@ -1,34 +1,58 @@
 package se.citerus.dddsample.config;
 
 import com.pathfinder.api.GraphTraversalService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.transaction.PlatformTransactionManager;
 import se.citerus.dddsample.application.ApplicationEvents;
 import se.citerus.dddsample.application.BookingService;
 import se.citerus.dddsample.application.CargoInspectionService;
+import se.citerus.dddsample.application.CargoTrackingViewUpdater;
 import se.citerus.dddsample.application.HandlingEventService;
 import se.citerus.dddsample.application.impl.BookingServiceImpl;
 import se.citerus.dddsample.application.impl.CargoInspectionServiceImpl;
+import se.citerus.dddsample.application.impl.CoalescingCargoInspectionService;
 import se.citerus.dddsample.application.impl.HandlingEventServiceImpl;
+import se.citerus.dddsample.application.tracking.CargoTrackingViewRepository;
+import se.citerus.dddsample.application.tracking.CargoTrackingViews;
+import se.citerus.dddsample.application.tracking.HandlingEventProjectionRepository;
 import se.citerus.dddsample.domain.model.cargo.CargoFactory;
 import se.citerus.dddsample.domain.model.cargo.CargoRepository;
 import se.citerus.dddsample.domain.model.handling.HandlingEventFactory;
 import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
 import se.citerus.dddsample.domain.model.location.LocationRepository;
+import se.citerus.dddsample.domain.model.location.UnLocode;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 import se.citerus.dddsample.domain.service.RoutingService;
 import se.citerus.dddsample.infrastructure.messaging.jms.InfrastructureMessagingJmsConfig;
+import se.citerus.dddsample.infrastructure.persistence.cache.InfrastructurePersistenceCacheConfig;
+import se.citerus.dddsample.infrastructure.routing.CachingRoutingService;
 import se.citerus.dddsample.infrastructure.routing.ExternalRoutingService;
+import se.citerus.dddsample.infrastructure.routing.InfrastructureRoutingConfig;
+import se.citerus.dddsample.infrastructure.routing.ScheduleVersion;
 import se.citerus.dddsample.infrastructure.sampledata.SampleDataGenerator;
 import se.citerus.dddsample.interfaces.InterfacesApplicationContext;
 
 import javax.persistence.EntityManager;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 @Configuration
-@Import({InterfacesApplicationContext.class, InfrastructureMessagingJmsConfig.class})
+@Import({InterfacesApplicationContext.class, InfrastructureMessagingJmsConfig.class, InfrastructurePersistenceCacheConfig.class,
+        InfrastructureRoutingConfig.class})
 public class DDDSampleApplicationContext {
 
     @Autowired
@@ -61,13 +85,47 @@ public class DDDSampleApplicationContext {
     }
 
     @Bean
-    public BookingService bookingService(CargoFactory cargoFactory) {
-        return new BookingServiceImpl(cargoRepository, locationRepository, routingService, cargoFactory);
+    public CargoTrackingViews cargoTrackingViews(HandlingEventProjectionRepository handlingEventProjectionRepository,
+                                                 CargoTrackingViewRepository cargoTrackingViewRepository) {
+        return new CargoTrackingViews(cargoRepository, handlingEventProjectionRepository, cargoTrackingViewRepository);
     }
 
+    /**
+     * Stores the tracking views of cargos that have none, such as the sample cargos and cargos
+     * stored before there were tracking views, before the node starts serving and consuming.
+     */
     @Bean
-    public CargoInspectionService cargoInspectionService() {
-        return new CargoInspectionServiceImpl(applicationEvents, cargoRepository, handlingEventRepository);
+    public SmartInitializingSingleton cargoTrackingViewBackfill(CargoTrackingViews cargoTrackingViews,
+                                                                @Value("${tracking.backfillPageSize}") int pageSize) {
+        return () -> {
+            while (true) {
+                try {
+                    if (cargoTrackingViews.storeMissingViews(pageSize) < pageSize) {
+                        return;
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    // Another node stored some of the views of the page, which the next page leaves out
+                }
+            }
+        };
+    }
+
+    @Bean
+    public BookingService bookingService(CargoFactory cargoFactory, CargoTrackingViewUpdater cargoTrackingViewUpdater) {
+        return new BookingServiceImpl(cargoRepository, locationRepository, routingService, cargoFactory, cargoTrackingViewUpdater);
+    }
+
+    @Bean
+    public CargoInspectionService cargoInspectionServiceImpl(CargoTrackingViewUpdater cargoTrackingViewUpdater) {
+        return new CargoInspectionServiceImpl(applicationEvents, cargoRepository, handlingEventRepository, cargoTrackingViewUpdater);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public CoalescingCargoInspectionService cargoInspectionService(@Qualifier("cargoInspectionServiceImpl") CargoInspectionService cargoInspectionServiceImpl,
+                                                                   @Value("${inspection.coalescingWindowMillis}") long coalescingWindowMillis,
+                                                                   @Value("${jms.cargoHandledConsumers}") int threads) {
+        return new CoalescingCargoInspectionService(cargoInspectionServiceImpl, Duration.ofMillis(coalescingWindowMillis), threads);
     }
 
     @Bean
@@ -80,9 +138,24 @@ public class DDDSampleApplicationContext {
         return new HandlingEventFactory(cargoRepository, voyageRepository, locationRepository);
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService routeSearchExecutor(@Value("${routing.searchThreads}") int searchThreads) {
+        return Executors.newFixedThreadPool(searchThreads, new CustomizableThreadFactory("route-search-"));
+    }
+
     @Bean
-    public RoutingService routingService() {
-        return new ExternalRoutingService(graphTraversalService, locationRepository, voyageRepository);
+    public RoutingService routingService(ExecutorService routeSearchExecutor,
+                                         @Value("${routing.viaPorts}") String[] viaPorts,
+                                         @Value("${routing.latencyBudgetMillis}") long latencyBudgetMillis,
+                                         ScheduleVersion scheduleVersion,
+                                         @Value("${routing.cache.maxEntries}") int cacheMaxEntries,
+                                         @Value("${routing.cache.timeToLiveSeconds}") long cacheTimeToLiveSeconds,
+                                         @Value("${routing.cache.deadlineWindowHours}") long cacheDeadlineWindowHours) {
+        List<UnLocode> viaUnLocodes = Arrays.stream(viaPorts).map(String::trim).filter(port -> !port.isEmpty()).map(UnLocode::new).collect(Collectors.toList());
+        RoutingService externalRoutingService = new ExternalRoutingService(graphTraversalService, locationRepository, voyageRepository,
+                routeSearchExecutor, viaUnLocodes, Duration.ofMillis(latencyBudgetMillis));
+        return new CachingRoutingService(externalRoutingService, scheduleVersion, Clock.systemUTC(), cacheMaxEntries,
+                Duration.ofSeconds(cacheTimeToLiveSeconds), Duration.ofHours(cacheDeadlineWindowHours));
     }
 
     @Bean
@@ -1,12 +1,14 @@
 package se.citerus.dddsample.domain.model.cargo;
 
 import org.apache.commons.lang3.Validate;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.domain.model.handling.HandlingHistory;
 import se.citerus.dddsample.domain.model.location.Location;
 import se.citerus.dddsample.domain.shared.Entity;
 
 import javax.persistence.*;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * A Cargo. This is the central class in the domain model,
@@ -49,7 +51,8 @@ import java.util.List;
 public class Cargo implements Entity<Cargo> {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cargo_seq")
+  @SequenceGenerator(name = "cargo_seq", sequenceName = "cargo_seq", allocationSize = 50)
   public long id;
 
   @Column(name = "tracking_id", unique = true)
@@ -185,6 +188,22 @@ public class Cargo implements Entity<Cargo> {
     this.delivery = Delivery.derivedFrom(routeSpecification(), itinerary(), handlingHistory.filterOnCargo(new TrackingId(this.trackingId)));
   }
 
+  /**
+   * Updates the delivery progress with the most recent handling of this cargo,
+   * without going through the complete handling history unless the event
+   * does not follow the last event that the current delivery is based on.
+   *
+   * @param handlingEvent the latest handling event of this cargo
+   * @param handlingHistory handling history, looked up only if needed
+   * @see #deriveDeliveryProgress(HandlingHistory)
+   */
+  public void deriveDeliveryProgress(final HandlingEvent handlingEvent, final Supplier<HandlingHistory> handlingHistory) {
+    Validate.isTrue(handlingEvent.cargo().sameIdentityAs(this), "Handling event is for another cargo");
+
+    this.delivery = delivery.updateOnHandling(routeSpecification(), itinerary(), handlingEvent,
+      () -> handlingHistory.get().filterOnCargo(new TrackingId(this.trackingId)));
+  }
+
   @Override
   public boolean sameIdentityAs(final Cargo other) {
     return other != null && trackingId.equals(other.trackingId);
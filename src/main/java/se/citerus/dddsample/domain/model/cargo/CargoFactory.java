@@ -5,6 +5,9 @@ import se.citerus.dddsample.domain.model.location.LocationRepository;
 import se.citerus.dddsample.domain.model.location.UnLocode;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 
 public class CargoFactory {
@@ -24,4 +27,56 @@ public class CargoFactory {
 
         return new Cargo(trackingId, routeSpecification);
     }
+
+    /**
+     * Looks up the origins and destinations for a number of cargos at once.
+     *
+     * @param unLocodes UN locodes of the origins and destinations
+     * @return A factory for cargos that go between the given locations.
+     */
+    public Batch batch(Collection<UnLocode> unLocodes) {
+        return new Batch(locationRepository.find(unLocodes).stream()
+                .collect(Collectors.toMap(Location::unLocode, location -> location)));
+    }
+
+    /**
+     * Creates cargos between locations that have already been looked up.
+     */
+    public final class Batch {
+
+        private final Map<UnLocode, Location> locations;
+
+        private Batch(Map<UnLocode, Location> locations) {
+            this.locations = locations;
+        }
+
+        /**
+         * @see CargoFactory#createCargo(UnLocode, UnLocode, Instant)
+         * @throws IllegalArgumentException if the origin or destination is not a known location,
+         *                                  or if the route specification is not valid
+         */
+        public Cargo createCargo(UnLocode originUnLoCode, UnLocode destinationUnLoCode, Instant arrivalDeadline) {
+            final Location origin = findLocation(originUnLoCode);
+            final Location destination = findLocation(destinationUnLoCode);
+            final RouteSpecification routeSpecification = new RouteSpecification(origin, destination, arrivalDeadline);
+
+            return new Cargo(cargoRepository.nextTrackingId(), routeSpecification);
+        }
+
+        /**
+         * @param unLocode UN locode
+         * @return True if cargos can be created to and from the location.
+         */
+        public boolean isKnownLocation(UnLocode unLocode) {
+            return locations.containsKey(unLocode);
+        }
+
+        private Location findLocation(UnLocode unLocode) {
+            final Location location = locations.get(unLocode);
+            if (location == null) {
+                throw new IllegalArgumentException("Unknown location " + unLocode);
+            }
+            return location;
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package se.citerus.dddsample.domain.model.cargo;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CargoRepository {
 
@@ -12,6 +14,14 @@ public interface CargoRepository {
    */
   Cargo find(TrackingId trackingId);
 
+  /**
+   * Finds a number of cargos at once.
+   *
+   * @param trackingIds Ids
+   * @return The cargos found, in no particular order.
+   */
+  List<Cargo> find(Collection<TrackingId> trackingIds);
+
   /**
    * Finds all cargo.
    *
@@ -19,6 +29,32 @@ public interface CargoRepository {
    */
   List<Cargo> getAll();
 
+  /**
+   * Finds a page of cargos, ordered by tracking id.
+   * <p>
+   * A page starts after the last tracking id of the previous page rather than at an offset,
+   * so finding a page costs the same no matter how far into the list it is.
+   *
+   * @param after tracking id of the last cargo on the previous page, or {@code null} for the first page
+   * @param pageSize maximum number of cargos on the page
+   * @return The cargos on the page. Fewer than pageSize cargos means that this is the last page.
+   */
+  List<Cargo> findPage(TrackingId after, int pageSize);
+
+  /**
+   * Streams all cargos, ordered by tracking id, loading one page of cargos at a time.
+   * <p>
+   * The cargos of a page are let go of when the next page is loaded, and when the stream
+   * is closed, so only one page at a time is held however many cargos there are.
+   * Changes made to streamed cargos are not stored. That includes cargos the caller
+   * had already loaded in the same unit of work, so store any changes to them before
+   * streaming, or stream in a unit of work of its own.
+   *
+   * @param pageSize number of cargos to load at a time
+   * @return All cargo, in a stream that must be closed.
+   */
+  Stream<Cargo> streamAll(int pageSize);
+
   /**
    * Saves given cargo.
    *
@@ -26,6 +62,13 @@ public interface CargoRepository {
    */
   void store(Cargo cargo);
 
+  /**
+   * Stores a number of (new) cargos together.
+   *
+   * @param cargos cargos to save
+   */
+  void storeAll(List<Cargo> cargos);
+
   /**
    * @return A unique, generated tracking Id.
    */
@@ -13,6 +13,7 @@ import javax.persistence.*;
 import java.time.Instant;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import static se.citerus.dddsample.domain.model.cargo.RoutingStatus.*;
 import static se.citerus.dddsample.domain.model.cargo.TransportStatus.*;
@@ -96,6 +97,36 @@ public class Delivery implements ValueObject<Delivery> {
     return new Delivery(lastEvent, itinerary, routeSpecification);
   }
 
+  /**
+   * Creates a new delivery snapshot when the cargo has been handled once more,
+   * given that this snapshot reflects the handling history before that event.
+   * <p/>
+   * An event completed after the last event of this snapshot becomes the last event,
+   * which only takes a pass over the itinerary. An event that is not the most recently
+   * completed one, or that was completed at the same time as the last event,
+   * falls back to deriving the delivery from the complete handling history.
+   *
+   * @param routeSpecification route specification
+   * @param itinerary itinerary
+   * @param handlingEvent the new handling event
+   * @param handlingHistory handling history, including the new event, in case it is needed
+   * @return An up to date delivery.
+   */
+  Delivery updateOnHandling(RouteSpecification routeSpecification, Itinerary itinerary,
+                            HandlingEvent handlingEvent, Supplier<HandlingHistory> handlingHistory) {
+    Validate.notNull(routeSpecification, "Route specification is required");
+    Validate.notNull(handlingEvent, "Handling event is required");
+
+    if (lastEvent == null || handlingEvent.completionTime().isAfter(lastEvent.completionTime())) {
+      return new Delivery(handlingEvent, itinerary, routeSpecification);
+    }
+    if (handlingEvent.sameEventAs(lastEvent)) {
+      return new Delivery(lastEvent, itinerary, routeSpecification);
+    }
+
+    return derivedFrom(routeSpecification, itinerary, handlingHistory.get());
+  }
+
   /**
    * Internal constructor.
    *
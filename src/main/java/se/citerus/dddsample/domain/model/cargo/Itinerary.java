@@ -3,6 +3,8 @@ package se.citerus.dddsample.domain.model.cargo;
 import org.apache.commons.lang3.Validate;
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.domain.model.location.Location;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.domain.shared.ValueObject;
 
 import java.time.Instant;
@@ -48,40 +50,53 @@ public class Itinerary implements ValueObject<Itinerary> {
    * @return <code>true</code> if the event is expected
    */
   public boolean isExpected(final HandlingEvent event) {
+    return isExpected(event.type(), event.location().unLocode(), event.voyage().voyageNumber());
+  }
+
+  /**
+   * Test if handling of the given type, at the given location and on the given voyage,
+   * is expected when executing this itinerary.
+   *
+   * @param type type of handling
+   * @param location where the cargo is handled
+   * @param voyageNumber voyage the cargo is handled on, if any
+   * @return <code>true</code> if the handling is expected
+   */
+  public boolean isExpected(final HandlingEvent.Type type, final UnLocode location, final VoyageNumber voyageNumber) {
     if (legs.isEmpty()) {
       return true;
     }
 
-    if (event.type() == HandlingEvent.Type.RECEIVE) {
+    if (type == HandlingEvent.Type.RECEIVE) {
       //Check that the first leg's origin is the event's location
       final Leg leg = legs.get(0);
-      return (leg.loadLocation().equals(event.location()));
+      return (leg.loadLocation().unLocode().equals(location));
     }
 
-    if (event.type() == HandlingEvent.Type.LOAD) {
+    if (type == HandlingEvent.Type.LOAD) {
       //Check that the there is one leg with same load location and voyage
       for (Leg leg : legs) {
-        if (leg.loadLocation().sameIdentityAs(event.location()) &&
-            leg.voyage().sameIdentityAs(event.voyage()))
+        if (leg.loadLocation().unLocode().sameValueAs(location) &&
+            leg.voyage().voyageNumber().sameValueAs(voyageNumber))
           return true;
       }
       return false;
     }
 
-    if (event.type() == HandlingEvent.Type.UNLOAD) {
+    if (type == HandlingEvent.Type.UNLOAD) {
       //Check that the there is one leg with same unload location and voyage
       for (Leg leg : legs) {
-        if (leg.unloadLocation().equals(event.location()) &&
-            leg.voyage().equals(event.voyage()))
+        if (leg.unloadLocation().unLocode().equals(location) &&
+            leg.voyage().voyageNumber().equals(voyageNumber))
           return true;
       }
       return false;
     }
 
-    if (event.type() == HandlingEvent.Type.CLAIM) {
+    if (type == HandlingEvent.Type.CLAIM) {
       //Check that the last leg's destination is from the event's location
       final Leg leg = lastLeg();
-      return (leg.unloadLocation().equals(event.location()));
+      return (leg.unloadLocation().unLocode().equals(location));
     }
 
     //HandlingEvent.Type.CUSTOMS;
@@ -18,7 +18,8 @@ import java.time.Instant;
 public class Leg implements ValueObject<Leg> {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leg_seq")
+  @SequenceGenerator(name = "leg_seq", sequenceName = "leg_seq", allocationSize = 50)
   public long id;
 
   @ManyToOne
@@ -22,6 +22,27 @@ public final class TrackingId implements ValueObject<TrackingId> {
     this.id = id;
   }
 
+  /**
+   * A tracking id in a handling report is letters, digits and dashes.
+   *
+   * @param text text containing the tracking id
+   * @param start index of the first character of the tracking id
+   * @param end index after the last character of the tracking id
+   * @return True if the characters are a valid tracking id.
+   */
+  public static boolean isValid(final CharSequence text, final int start, final int end) {
+    if (end <= start) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      final char c = text.charAt(i);
+      if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * @return String representation of this tracking id.
    */
@@ -34,7 +34,8 @@ import java.util.Objects;
 public final class HandlingEvent implements DomainEvent<HandlingEvent> {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "handling_event_seq")
+  @SequenceGenerator(name = "handling_event_seq", sequenceName = "handling_event_seq", allocationSize = 50)
   public long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
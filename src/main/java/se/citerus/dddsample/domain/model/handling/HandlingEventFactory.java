@@ -11,6 +11,10 @@ import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 /**
@@ -44,9 +48,32 @@ public class HandlingEventFactory {
    */
   public HandlingEvent createHandlingEvent(Instant registrationTime, Instant completionTime, TrackingId trackingId, VoyageNumber voyageNumber, UnLocode unlocode, HandlingEvent.Type type)
     throws CannotCreateHandlingEventException {
-    final Cargo cargo = findCargo(trackingId);
-    final Voyage voyage = findVoyage(voyageNumber);
-    final Location location = findLocation(unlocode);
+    return createHandlingEvent(registrationTime, completionTime, trackingId, voyageNumber, unlocode, type,
+      cargoRepository::find, voyageRepository::find, locationRepository::find);
+  }
+
+  /**
+   * Looks up the cargos, voyages and locations for a number of handling events at once.
+   *
+   * @param trackingIds   cargo tracking ids
+   * @param voyageNumbers voyage numbers
+   * @param unlocodes     United Nations Location Codes
+   * @return A factory for handling events that refer to the given cargos, voyages and locations.
+   */
+  public Batch batch(Collection<TrackingId> trackingIds, Collection<VoyageNumber> voyageNumbers, Collection<UnLocode> unlocodes) {
+    return new Batch(
+      cargoRepository.find(trackingIds).stream().collect(Collectors.toMap(Cargo::trackingId, cargo -> cargo)),
+      voyageRepository.find(voyageNumbers).stream().collect(Collectors.toMap(Voyage::voyageNumber, voyage -> voyage)),
+      locationRepository.find(unlocodes).stream().collect(Collectors.toMap(Location::unLocode, location -> location))
+    );
+  }
+
+  private static HandlingEvent createHandlingEvent(Instant registrationTime, Instant completionTime, TrackingId trackingId, VoyageNumber voyageNumber, UnLocode unlocode, HandlingEvent.Type type,
+                                                   Function<TrackingId, Cargo> cargos, Function<VoyageNumber, Voyage> voyages, Function<UnLocode, Location> locations)
+    throws CannotCreateHandlingEventException {
+    final Cargo cargo = findCargo(trackingId, cargos);
+    final Voyage voyage = findVoyage(voyageNumber, voyages);
+    final Location location = findLocation(unlocode, locations);
 
     try {
       if (voyage == null) {
@@ -59,18 +86,18 @@ public class HandlingEventFactory {
     }
   }
 
-  private Cargo findCargo(TrackingId trackingId) throws UnknownCargoException {
-    final Cargo cargo = cargoRepository.find(trackingId);
+  private static Cargo findCargo(TrackingId trackingId, Function<TrackingId, Cargo> cargos) throws UnknownCargoException {
+    final Cargo cargo = cargos.apply(trackingId);
     if (cargo == null) throw new UnknownCargoException(trackingId);
     return cargo;
   }
 
-  private Voyage findVoyage(VoyageNumber voyageNumber) throws UnknownVoyageException {
+  private static Voyage findVoyage(VoyageNumber voyageNumber, Function<VoyageNumber, Voyage> voyages) throws UnknownVoyageException {
     if (voyageNumber == null) {
       return null;
     }
 
-    final Voyage voyage = voyageRepository.find(voyageNumber);
+    final Voyage voyage = voyages.apply(voyageNumber);
     if (voyage == null) {
       throw new UnknownVoyageException(voyageNumber);
     }
@@ -78,8 +105,8 @@ public class HandlingEventFactory {
     return voyage;
   }
   
-  private Location findLocation(final UnLocode unlocode) throws UnknownLocationException {
-    final Location location = locationRepository.find(unlocode);
+  private static Location findLocation(final UnLocode unlocode, Function<UnLocode, Location> locations) throws UnknownLocationException {
+    final Location location = locations.apply(unlocode);
     if (location == null) {
       throw new UnknownLocationException(unlocode);
     }
@@ -87,4 +114,29 @@ public class HandlingEventFactory {
     return location;
   }
 
+  /**
+   * Creates handling events from cargos, voyages and locations that have already been looked up.
+   */
+  public static final class Batch {
+
+    private final Map<TrackingId, Cargo> cargos;
+    private final Map<VoyageNumber, Voyage> voyages;
+    private final Map<UnLocode, Location> locations;
+
+    private Batch(Map<TrackingId, Cargo> cargos, Map<VoyageNumber, Voyage> voyages, Map<UnLocode, Location> locations) {
+      this.cargos = cargos;
+      this.voyages = voyages;
+      this.locations = locations;
+    }
+
+    /**
+     * @see HandlingEventFactory#createHandlingEvent(Instant, Instant, TrackingId, VoyageNumber, UnLocode, HandlingEvent.Type)
+     */
+    public HandlingEvent createHandlingEvent(Instant registrationTime, Instant completionTime, TrackingId trackingId, VoyageNumber voyageNumber, UnLocode unlocode, HandlingEvent.Type type)
+      throws CannotCreateHandlingEventException {
+      return HandlingEventFactory.createHandlingEvent(registrationTime, completionTime, trackingId, voyageNumber, unlocode, type,
+        cargos::get, voyages::get, locations::get);
+    }
+  }
+
 }
@@ -2,6 +2,8 @@ package se.citerus.dddsample.domain.model.handling;
 
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
 
+import java.util.List;
+
 /**
  * Handling event repository.
  */
@@ -14,6 +16,13 @@ public interface HandlingEventRepository {
    */
   void store(HandlingEvent event);
 
+  /**
+   * Stores a number of (new) handling events together.
+   *
+   * @param events handling events to save
+   */
+  void storeAll(List<HandlingEvent> events);
+
 
   /**
    * @param trackingId cargo tracking id
@@ -21,4 +30,10 @@ public interface HandlingEventRepository {
    */
   HandlingHistory lookupHandlingHistoryOfCargo(TrackingId trackingId);
 
+  /**
+   * @param trackingId cargo tracking id
+   * @return The most recently completed handling event of this cargo, or null if it has not been handled
+   */
+  HandlingEvent lookupMostRecentlyCompletedEventOfCargo(TrackingId trackingId);
+
 }
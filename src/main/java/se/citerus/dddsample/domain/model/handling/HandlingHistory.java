@@ -7,39 +7,40 @@ import se.citerus.dddsample.domain.shared.ValueObject;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import static java.util.Collections.sort;
-
 /**
  * The handling history of a cargo.
  */
 public class HandlingHistory implements ValueObject<HandlingHistory> {
 
-    private final List<HandlingEvent> handlingEvents;
+    private final List<HandlingEvent> distinctEvents;
+
+    /**
+     * Events completed at the same time are ordered by registration time.
+     */
+    private static final Comparator<HandlingEvent> BY_COMPLETION_TIME_COMPARATOR =
+            Comparator.comparing(HandlingEvent::completionTime).thenComparing(HandlingEvent::registrationTime);
 
     public static final HandlingHistory EMPTY = new HandlingHistory(Collections.<HandlingEvent>emptyList());
 
     public HandlingHistory(Collection<HandlingEvent> handlingEvents) {
         Validate.notNull(handlingEvents, "Handling events are required");
 
-        this.handlingEvents = new ArrayList<>(handlingEvents);
+        final List<HandlingEvent> ordered = new ArrayList<>(handlingEvents);
+        ordered.sort(BY_COMPLETION_TIME_COMPARATOR);
+        this.distinctEvents = Collections.unmodifiableList(distinct(ordered));
     }
 
     /**
      * @return A distinct list (no duplicate registrations) of handling events, ordered by completion time.
      */
     public List<HandlingEvent> distinctEventsByCompletionTime() {
-        final List<HandlingEvent> ordered = new ArrayList<>(
-                new HashSet<>(handlingEvents)
-        );
-        sort(ordered, BY_COMPLETION_TIME_COMPARATOR);
-        return Collections.unmodifiableList(ordered);
+        return distinctEvents;
     }
 
     /**
      * @return Most recently completed event, or null if the delivery history is empty.
      */
     public HandlingEvent mostRecentlyCompletedEvent() {
-        final List<HandlingEvent> distinctEvents = distinctEventsByCompletionTime();
         if (distinctEvents.isEmpty()) {
             return null;
         } else {
@@ -53,7 +54,7 @@ public class HandlingHistory implements ValueObject<HandlingHistory> {
      * @return A new handling history with events matching the supplied tracking id.
      */
     public HandlingHistory filterOnCargo(TrackingId trackingId) {
-        List<HandlingEvent> events = handlingEvents.stream()
+        List<HandlingEvent> events = distinctEvents.stream()
                 .filter(he -> he.cargo().trackingId().sameValueAs(trackingId))
                 .collect(Collectors.toList());
         return new HandlingHistory(events);
@@ -61,7 +62,7 @@ public class HandlingHistory implements ValueObject<HandlingHistory> {
 
     @Override
     public boolean sameValueAs(HandlingHistory other) {
-        return other != null && this.handlingEvents.equals(other.handlingEvents);
+        return other != null && this.distinctEvents.equals(other.distinctEvents);
     }
 
     @Override
@@ -75,10 +76,35 @@ public class HandlingHistory implements ValueObject<HandlingHistory> {
 
     @Override
     public int hashCode() {
-        return handlingEvents.hashCode();
+        return distinctEvents.hashCode();
     }
 
-    private static final Comparator<HandlingEvent> BY_COMPLETION_TIME_COMPARATOR =
-            Comparator.comparing(HandlingEvent::completionTime);
+    /**
+     * Keeps the first registration of each event. Registrations of the same event
+     * have the same completion time, so only events completed at the same time
+     * as an event need to be compared to it.
+     */
+    private static List<HandlingEvent> distinct(List<HandlingEvent> ordered) {
+        final List<HandlingEvent> distinct = new ArrayList<>(ordered.size());
+        int completedAtSameTime = 0;
+        for (HandlingEvent event : ordered) {
+            if (!distinct.isEmpty() && !distinct.get(distinct.size() - 1).completionTime().equals(event.completionTime())) {
+                completedAtSameTime = distinct.size();
+            }
+            if (!containsSameEvent(distinct, completedAtSameTime, event)) {
+                distinct.add(event);
+            }
+        }
+        return distinct;
+    }
+
+    private static boolean containsSameEvent(List<HandlingEvent> events, int from, HandlingEvent event) {
+        for (int i = from; i < events.size(); i++) {
+            if (events.get(i).sameEventAs(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
 }
@@ -16,7 +16,8 @@ import javax.persistence.*;
 public final class Location implements Entity<Location> {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "location_seq")
+  @SequenceGenerator(name = "location_seq", sequenceName = "location_seq", allocationSize = 50)
   public long id;
 
   @Column(nullable = false, unique = true, updatable = false)
@@ -1,5 +1,6 @@
 package se.citerus.dddsample.domain.model.location;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface LocationRepository {
@@ -12,6 +13,14 @@ public interface LocationRepository {
    */
   Location find(UnLocode unLocode);
 
+  /**
+   * Finds a number of locations at once.
+   *
+   * @param unLocodes UNLocodes.
+   * @return The locations found, in no particular order.
+   */
+  List<Location> find(Collection<UnLocode> unLocodes);
+
   /**
    * Finds all locations.
    *
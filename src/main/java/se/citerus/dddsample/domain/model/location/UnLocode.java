@@ -3,8 +3,6 @@ package se.citerus.dddsample.domain.model.location;
 import org.apache.commons.lang3.Validate;
 import se.citerus.dddsample.domain.shared.ValueObject;
 
-import java.util.regex.Pattern;
-
 /**
  * United nations location code.
  * <p/>
@@ -15,10 +13,6 @@ public final class UnLocode implements ValueObject<UnLocode> {
 
   private String unlocode;
 
-  // Country code is exactly two letters.
-  // Location code is usually three letters, but may contain the numbers 2-9 as well
-  private static final Pattern VALID_PATTERN = Pattern.compile("[a-zA-Z]{2}[a-zA-Z2-9]{3}");
-
   /**
    * Constructor.
    *
@@ -26,12 +20,36 @@ public final class UnLocode implements ValueObject<UnLocode> {
    */
   public UnLocode(final String countryAndLocation) {
     Validate.notNull(countryAndLocation, "Country and location may not be null");
-    Validate.isTrue(VALID_PATTERN.matcher(countryAndLocation).matches(),
-      countryAndLocation + " is not a valid UN/LOCODE (does not match pattern)");
+    if (!isValid(countryAndLocation, 0, countryAndLocation.length())) {
+      throw new IllegalArgumentException(countryAndLocation + " is not a valid UN/LOCODE (does not match pattern)");
+    }
 
     this.unlocode = countryAndLocation.toUpperCase();
   }
 
+  /**
+   * Country code is exactly two letters.
+   * Location code is usually three letters, but may contain the numbers 2-9 as well.
+   *
+   * @param text text containing the code
+   * @param start index of the first character of the code
+   * @param end index after the last character of the code
+   * @return True if the characters are a valid UN/LOCODE.
+   */
+  public static boolean isValid(final CharSequence text, final int start, final int end) {
+    if (end - start != 5) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      final char c = text.charAt(i);
+      final boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+      if (!letter && (i - start < 2 || c < '2' || c > '9')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * @return country code and location code concatenated, always upper case.
    */
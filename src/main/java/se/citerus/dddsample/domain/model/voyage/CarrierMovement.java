@@ -18,7 +18,8 @@ import java.time.Instant;
 public final class CarrierMovement implements ValueObject<CarrierMovement> {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carrier_movement_seq")
+  @SequenceGenerator(name = "carrier_movement_seq", sequenceName = "carrier_movement_seq", allocationSize = 50)
   public long id;
 
   @ManyToOne(fetch = FetchType.EAGER)
@@ -17,7 +17,8 @@ import java.util.List;
 public class Voyage implements Entity<Voyage> {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "voyage_seq")
+  @SequenceGenerator(name = "voyage_seq", sequenceName = "voyage_seq", allocationSize = 50)
   public long id;
 
   @Column(name = "voyage_number", unique = true)
@@ -1,5 +1,8 @@
 package se.citerus.dddsample.domain.model.voyage;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface VoyageRepository {
 
   /**
@@ -10,5 +13,20 @@ public interface VoyageRepository {
    */
   Voyage find(VoyageNumber voyageNumber);
 
+  /**
+   * Finds a number of voyages at once.
+   *
+   * @param voyageNumbers voyage numbers
+   * @return The voyages found, in no particular order.
+   */
+  List<Voyage> find(Collection<VoyageNumber> voyageNumbers);
+
+  /**
+   * Finds all voyages, with their schedules.
+   *
+   * @return All voyages.
+   */
+  List<Voyage> getAll();
+
   void store(Voyage voyage);
 }
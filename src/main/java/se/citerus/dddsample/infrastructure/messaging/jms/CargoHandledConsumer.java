@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import se.citerus.dddsample.application.CargoInspectionService;
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
 
+import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageListener;
 import javax.jms.TextMessage;
@@ -16,6 +17,11 @@ import java.lang.invoke.MethodHandles;
  *
  * This is a programmatic hook into the JMS infrastructure to
  * make cargo inspection message-driven.
+ *
+ * The message is acknowledged on its own once the cargo has been inspected, which may
+ * be some time after the message was consumed, so the session must acknowledge messages
+ * individually. A message that is not acknowledged because the node stops before the
+ * inspection is redelivered, so every handled cargo is inspected at least once.
  */
 public class CargoHandledConsumer implements MessageListener {
 
@@ -32,9 +38,19 @@ public class CargoHandledConsumer implements MessageListener {
       final TextMessage textMessage = (TextMessage) message;
       final String trackingidString = textMessage.getText();
       
-      cargoInspectionService.inspectCargo(new TrackingId(trackingidString));
+      cargoInspectionService.inspectCargo(new TrackingId(trackingidString), () -> acknowledge(message));
     } catch (Exception e) {
       logger.error("Error consuming CargoHandled message", e);
+      acknowledge(message);
+    }
+  }
+
+  private static void acknowledge(final Message message) {
+    try {
+      message.acknowledge();
+    } catch (JMSException e) {
+      // Closed session, the message will be redelivered
+      logger.warn("Could not acknowledge CargoHandled message", e);
     }
   }
 }
@@ -0,0 +1,41 @@
+package se.citerus.dddsample.infrastructure.messaging.jms;
+
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+/**
+ * Spreads cargos over a fixed number of JMS message groups.
+ * <p/>
+ * The broker delivers all messages of a group to one consumer at a time, in order,
+ * so the messages of one cargo are consumed in the order they were sent,
+ * while the messages of cargos in other groups are consumed in parallel.
+ * Cargos share groups, rather than each cargo having a group of its own,
+ * so that attempts for many cargos can be sent in a few messages,
+ * and so that the broker only has a few groups to keep track of.
+ */
+final class CargoMessageGroups {
+
+  static final String GROUP_ID_PROPERTY = "JMSXGroupID";
+
+  private final String[] groupIds;
+
+  /**
+   * @param groups number of message groups, should be at least the number of consumers
+   */
+  CargoMessageGroups(final int groups) {
+    if (groups < 1) {
+      throw new IllegalArgumentException("There must be at least one message group");
+    }
+    groupIds = new String[groups];
+    for (int i = 0; i < groups; i++) {
+      groupIds[i] = "cargo-" + i;
+    }
+  }
+
+  /**
+   * @param trackingId tracking id of a cargo
+   * @return The id of the message group of the cargo.
+   */
+  String groupOf(final TrackingId trackingId) {
+    return groupIds[Math.floorMod(trackingId.idString().hashCode(), groupIds.length)];
+  }
+}
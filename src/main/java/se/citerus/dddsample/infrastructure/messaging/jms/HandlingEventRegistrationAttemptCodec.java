@@ -0,0 +1,235 @@
+package se.citerus.dddsample.infrastructure.messaging.jms;
+
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes handling event registration attempts as the body of a bytes message.
+ * <p/>
+ * The layout is big-endian:
+ * <pre>
+ * byte     version, currently 1
+ * int      number of attempts
+ * for each attempt:
+ *   long   registration time, seconds since the epoch
+ *   int    registration time, nanosecond of the second
+ *   long   completion time, seconds since the epoch
+ *   int    completion time, nanosecond of the second
+ *   byte   handling event type, see {@link #TYPES}
+ *   byte*5 UN/LOCODE, ASCII
+ *   short  tracking id length, followed by the tracking id in UTF-8
+ *   short  voyage number length, or -1 if there is no voyage, followed by the voyage number in UTF-8
+ * </pre>
+ * A change to the layout must come with a new version, and decoding
+ * of the previous version must be kept until no such messages are left on the queue.
+ */
+final class HandlingEventRegistrationAttemptCodec {
+
+  static final byte VERSION = 1;
+
+  /**
+   * The handling event types, indexed by their code on the wire.
+   * New types must be added at the end.
+   */
+  private static final HandlingEvent.Type[] TYPES = {
+    HandlingEvent.Type.LOAD,
+    HandlingEvent.Type.UNLOAD,
+    HandlingEvent.Type.RECEIVE,
+    HandlingEvent.Type.CLAIM,
+    HandlingEvent.Type.CUSTOMS
+  };
+
+  private static final int HEADER_SIZE = 1 + 4;
+  private static final int FIXED_ATTEMPT_SIZE = 8 + 4 + 8 + 4 + 1 + 5 + 2 + 2;
+  private static final int UNLOCODE_LENGTH = 5;
+  private static final short NO_VOYAGE = -1;
+
+  private HandlingEventRegistrationAttemptCodec() {
+  }
+
+  /**
+   * @param attempts attempts to encode
+   * @return The encoded attempts.
+   */
+  static byte[] encode(final List<HandlingEventRegistrationAttempt> attempts) {
+    final Encoder encoder = new Encoder(HEADER_SIZE + attempts.size() * (FIXED_ATTEMPT_SIZE + 16));
+    encoder.putByte(VERSION);
+    encoder.putInt(attempts.size());
+    for (HandlingEventRegistrationAttempt attempt : attempts) {
+      encoder.putInstant(attempt.getRegistrationTime());
+      encoder.putInstant(attempt.getCompletionTime());
+      encoder.putByte(typeCode(attempt.getType()));
+      encoder.putAscii(attempt.getUnLocode().idString(), UNLOCODE_LENGTH);
+      encoder.putString(attempt.getTrackingId().idString());
+      encoder.putString(attempt.getVoyageNumber() == null ? null : attempt.getVoyageNumber().idString());
+    }
+    return encoder.toByteArray();
+  }
+
+  /**
+   * @param attempt attempt to encode
+   * @return The encoded attempt.
+   */
+  static byte[] encode(final HandlingEventRegistrationAttempt attempt) {
+    return encode(List.of(attempt));
+  }
+
+  /**
+   * @param bytes encoded attempts
+   * @return The decoded attempts.
+   * @throws IllegalArgumentException if the bytes are not encoded attempts of a known version
+   */
+  static List<HandlingEventRegistrationAttempt> decode(final byte[] bytes) {
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    try {
+      final byte version = buffer.get();
+      if (version != VERSION) {
+        throw new IllegalArgumentException("Unsupported version " + version);
+      }
+      final int count = buffer.getInt();
+      if (count < 0 || count > buffer.remaining() / FIXED_ATTEMPT_SIZE) {
+        throw new IllegalArgumentException("Invalid number of attempts " + count);
+      }
+      final List<HandlingEventRegistrationAttempt> attempts = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        final Instant registrationTime = getInstant(buffer);
+        final Instant completionTime = getInstant(buffer);
+        final HandlingEvent.Type type = type(buffer.get());
+        final UnLocode unLocode = new UnLocode(getString(buffer, UNLOCODE_LENGTH));
+        final TrackingId trackingId = new TrackingId(getString(buffer, buffer.getShort()));
+        final short voyageNumberLength = buffer.getShort();
+        final VoyageNumber voyageNumber = voyageNumberLength == NO_VOYAGE ? null : new VoyageNumber(getString(buffer, voyageNumberLength));
+        attempts.add(new HandlingEventRegistrationAttempt(registrationTime, completionTime, trackingId, voyageNumber, type, unLocode));
+      }
+      if (buffer.hasRemaining()) {
+        throw new IllegalArgumentException(buffer.remaining() + " bytes after the last attempt");
+      }
+      return attempts;
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Truncated message of " + bytes.length + " bytes", e);
+    }
+  }
+
+  private static byte typeCode(final HandlingEvent.Type type) {
+    for (byte code = 0; code < TYPES.length; code++) {
+      if (TYPES[code] == type) {
+        return code;
+      }
+    }
+    throw new IllegalArgumentException("No code for handling event type " + type);
+  }
+
+  private static HandlingEvent.Type type(final byte code) {
+    if (code < 0 || code >= TYPES.length) {
+      throw new IllegalArgumentException("Unknown handling event type code " + code);
+    }
+    return TYPES[code];
+  }
+
+  private static Instant getInstant(final ByteBuffer buffer) {
+    final long epochSecond = buffer.getLong();
+    return Instant.ofEpochSecond(epochSecond, buffer.getInt());
+  }
+
+  private static String getString(final ByteBuffer buffer, final int length) {
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IllegalArgumentException("Invalid string length " + length);
+    }
+    final String string = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return string;
+  }
+
+  /**
+   * A growing big-endian byte array.
+   */
+  private static final class Encoder {
+
+    private byte[] bytes;
+    private int position;
+
+    Encoder(final int capacity) {
+      bytes = new byte[capacity];
+    }
+
+    void putByte(final byte value) {
+      ensureCapacity(1);
+      bytes[position++] = value;
+    }
+
+    void putShort(final int value) {
+      ensureCapacity(2);
+      bytes[position++] = (byte) (value >> 8);
+      bytes[position++] = (byte) value;
+    }
+
+    void putInt(final int value) {
+      ensureCapacity(4);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        bytes[position++] = (byte) (value >> shift);
+      }
+    }
+
+    void putLong(final long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        bytes[position++] = (byte) (value >> shift);
+      }
+    }
+
+    void putInstant(final Instant instant) {
+      putLong(instant.getEpochSecond());
+      putInt(instant.getNano());
+    }
+
+    void putAscii(final String value, final int length) {
+      if (value.length() != length) {
+        throw new IllegalArgumentException(value + " is not " + length + " characters");
+      }
+      ensureCapacity(length);
+      for (int i = 0; i < length; i++) {
+        final char c = value.charAt(i);
+        if (c > 0x7F) {
+          throw new IllegalArgumentException(value + " is not ASCII");
+        }
+        bytes[position++] = (byte) c;
+      }
+    }
+
+    void putString(final String value) {
+      if (value == null) {
+        putShort(NO_VOYAGE);
+        return;
+      }
+      final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      if (utf8.length > Short.MAX_VALUE) {
+        throw new IllegalArgumentException("String of " + utf8.length + " bytes is too long");
+      }
+      putShort(utf8.length);
+      ensureCapacity(utf8.length);
+      System.arraycopy(utf8, 0, bytes, position, utf8.length);
+      position += utf8.length;
+    }
+
+    byte[] toByteArray() {
+      return position == bytes.length ? bytes : Arrays.copyOf(bytes, position);
+    }
+
+    private void ensureCapacity(final int size) {
+      if (position + size > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(position + size, bytes.length * 2));
+      }
+    }
+  }
+}
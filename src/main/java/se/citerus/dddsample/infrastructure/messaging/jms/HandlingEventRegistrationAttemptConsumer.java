@@ -3,17 +3,21 @@ package se.citerus.dddsample.infrastructure.messaging.jms;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import se.citerus.dddsample.application.HandlingEventService;
+import se.citerus.dddsample.application.RejectedRegistrationAttempt;
 import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
+import javax.jms.BytesMessage;
 import javax.jms.Message;
 import javax.jms.MessageListener;
-import javax.jms.ObjectMessage;
 import java.lang.invoke.MethodHandles;
+import java.util.List;
 
 /**
  * Consumes handling event registration attempt messages and delegates to
  * proper registration.
- * 
+ * <p/>
+ * The messages are bytes messages encoded by {@link HandlingEventRegistrationAttemptCodec}.
+ * A message with several attempts registers them together.
  */
 public class HandlingEventRegistrationAttemptConsumer implements MessageListener {
 
@@ -27,15 +31,25 @@ public class HandlingEventRegistrationAttemptConsumer implements MessageListener
   @Override
   public void onMessage(final Message message) {
     try {
-      final ObjectMessage om = (ObjectMessage) message;
-      HandlingEventRegistrationAttempt attempt = (HandlingEventRegistrationAttempt) om.getObject();
-      handlingEventService.registerHandlingEvent(
-        attempt.getCompletionTime(),
-        attempt.getTrackingId(),
-        attempt.getVoyageNumber(),
-        attempt.getUnLocode(),
-        attempt.getType()
-      );
+      final BytesMessage bytesMessage = (BytesMessage) message;
+      final byte[] body = new byte[(int) bytesMessage.getBodyLength()];
+      bytesMessage.readBytes(body);
+      final List<HandlingEventRegistrationAttempt> attempts = HandlingEventRegistrationAttemptCodec.decode(body);
+      if (attempts.size() > 1) {
+        for (RejectedRegistrationAttempt rejected : handlingEventService.registerHandlingEvents(attempts)) {
+          logger.error("Rejected HandlingEventRegistrationAttempt {}", rejected.attempt(), rejected.reason());
+        }
+        return;
+      }
+      for (HandlingEventRegistrationAttempt attempt : attempts) {
+        handlingEventService.registerHandlingEvent(
+          attempt.getCompletionTime(),
+          attempt.getTrackingId(),
+          attempt.getVoyageNumber(),
+          attempt.getUnLocode(),
+          attempt.getType()
+        );
+      }
     } catch (Exception e) {
       logger.error("Error consuming HandlingEventRegistrationAttempt message", e);
     }
@@ -2,21 +2,21 @@ package se.citerus.dddsample.infrastructure.messaging.jms;
 
 import org.apache.activemq.ActiveMQConnection;
 import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQSession;
 import org.apache.activemq.command.ActiveMQDestination;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.annotation.EnableJms;
-import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
 import org.springframework.jms.core.JmsOperations;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
 import se.citerus.dddsample.application.ApplicationEvents;
 import se.citerus.dddsample.application.CargoInspectionService;
 import se.citerus.dddsample.application.HandlingEventService;
 
 import javax.jms.*;
-import java.util.List;
 
 @EnableJms
 @Configuration
@@ -25,18 +25,31 @@ public class InfrastructureMessagingJmsConfig {
     @Value("${brokerUrl}")
     private String brokerUrl;
 
-    @Bean(value = "cargoHandledConsumer", destroyMethod = "close")
-    public MessageConsumer cargoHandledConsumer(Session session, @Qualifier("cargoHandledQueue") Destination destination, CargoInspectionService cargoInspectionService) throws JMSException {
-        MessageConsumer consumer = session.createConsumer(destination);
-        consumer.setMessageListener(new CargoHandledConsumer(cargoInspectionService));
-        return consumer;
+    /*
+     * The handled cargo and registration attempt queues are consumed by several consumers each.
+     * The messages of one cargo are in one message group, see CargoMessageGroups, so they are still
+     * consumed in order. The number of consumers is fixed, as the broker moves the groups of a
+     * consumer that is stopped over to other consumers. The handled cargo consumers hand the cargos
+     * over to the coalescing cargo inspection service, which has a thread for each of them, and
+     * which never inspects a cargo on two threads at once. A handled cargo message is acknowledged
+     * individually once its cargo has been inspected, see CargoHandledConsumer, so the consumer
+     * keeps taking messages meanwhile, and the broker redelivers the messages of a node that stops.
+     */
+
+    @Bean
+    public DefaultMessageListenerContainer cargoHandledListenerContainer(ConnectionFactory jmsConnectionFactory, @Qualifier("cargoHandledQueue") Destination destination,
+                                                                         CargoInspectionService cargoInspectionService,
+                                                                         @Value("${jms.cargoHandledConsumers}") int consumers) {
+        DefaultMessageListenerContainer container = listenerContainer(jmsConnectionFactory, destination, new CargoHandledConsumer(cargoInspectionService), consumers);
+        container.setSessionAcknowledgeMode(ActiveMQSession.INDIVIDUAL_ACKNOWLEDGE);
+        return container;
     }
 
-    @Bean(value = "handlingEventRegistrationAttemptConsumer", destroyMethod = "close")
-    public MessageConsumer handlingEventRegistrationAttemptConsumer(Session session, @Qualifier("handlingEventRegistrationAttemptQueue") Destination destination, HandlingEventService handlingEventService) throws JMSException {
-        MessageConsumer consumer = session.createConsumer(destination);
-        consumer.setMessageListener(new HandlingEventRegistrationAttemptConsumer(handlingEventService));
-        return consumer;
+    @Bean
+    public DefaultMessageListenerContainer handlingEventRegistrationAttemptListenerContainer(ConnectionFactory jmsConnectionFactory, @Qualifier("handlingEventRegistrationAttemptQueue") Destination destination,
+                                                                                             HandlingEventRegistrationAttemptConsumer handlingEventRegistrationAttemptConsumer,
+                                                                                             @Value("${jms.handlingEventRegistrationAttemptConsumers}") int consumers) {
+        return listenerContainer(jmsConnectionFactory, destination, handlingEventRegistrationAttemptConsumer, consumers);
     }
 
     @Bean(value = "misdirectedCargoConsumer", destroyMethod = "close")
@@ -90,19 +103,9 @@ public class InfrastructureMessagingJmsConfig {
         return createQueue("RejectedRegistrationAttemptsQueue");
     }
 
-    @Bean
-    public DefaultJmsListenerContainerFactory listenerContainerFactory(ConnectionFactory jmsConnectionFactory) {
-        DefaultJmsListenerContainerFactory factory = new DefaultJmsListenerContainerFactory();
-        factory.setConnectionFactory(jmsConnectionFactory);
-        factory.setConcurrency("1-1");
-        return factory;
-    }
-
     @Bean
     public ConnectionFactory jmsConnectionFactory() {
-        ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(brokerUrl);
-        factory.setTrustedPackages(List.of("se.citerus.dddsample.interfaces.handling", "se.citerus.dddsample.domain", "java.util"));
-        return factory;
+        return new ActiveMQConnectionFactory(brokerUrl);
     }
 
     @Bean
@@ -125,8 +128,20 @@ public class InfrastructureMessagingJmsConfig {
     @Bean
     public ApplicationEvents applicationEvents(JmsOperations jmsOperations, @Qualifier("cargoHandledQueue") Destination cargoHandledQueue,
                                                @Qualifier("misdirectedCargoQueue") Destination misdirectedCargoQueue, @Qualifier("deliveredCargoQueue") Destination deliveredCargoQueue,
-                                               @Qualifier("rejectedRegistrationAttemptsQueue") Destination rejectedRegistrationAttemptsQueue, @Qualifier("handlingEventRegistrationAttemptQueue") Destination handlingEventRegistrationAttemptQueue) {
-        return new JmsApplicationEventsImpl(jmsOperations, cargoHandledQueue, misdirectedCargoQueue, deliveredCargoQueue, rejectedRegistrationAttemptsQueue, handlingEventRegistrationAttemptQueue);
+                                               @Qualifier("rejectedRegistrationAttemptsQueue") Destination rejectedRegistrationAttemptsQueue, @Qualifier("handlingEventRegistrationAttemptQueue") Destination handlingEventRegistrationAttemptQueue,
+                                               @Value("${jms.messageGroups}") int messageGroups) {
+        return new JmsApplicationEventsImpl(jmsOperations, cargoHandledQueue, misdirectedCargoQueue, deliveredCargoQueue, rejectedRegistrationAttemptsQueue, handlingEventRegistrationAttemptQueue,
+                messageGroups);
+    }
+
+    private DefaultMessageListenerContainer listenerContainer(ConnectionFactory connectionFactory, Destination destination, MessageListener listener, int consumers) {
+        DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setDestination(destination);
+        container.setMessageListener(listener);
+        container.setConcurrentConsumers(consumers);
+        container.setMaxConcurrentConsumers(consumers);
+        return container;
     }
 
     private Destination createQueue(String queueName) {
@@ -8,11 +8,22 @@ import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
+import javax.jms.BytesMessage;
 import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * JMS based implementation.
+ * <p/>
+ * Messages about handled cargos and registration attempts are sent in the message group
+ * of their cargo, so that they are consumed in order for each cargo.
  */
 public final class JmsApplicationEventsImpl implements ApplicationEvents {
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
@@ -23,21 +34,25 @@ public final class JmsApplicationEventsImpl implements ApplicationEvents {
   private final Destination deliveredCargoQueue;
   private final Destination rejectedRegistrationAttemptsQueue; // TODO why is this unused?
   private final Destination handlingEventQueue;
+  private final CargoMessageGroups messageGroups;
 
-  public JmsApplicationEventsImpl(JmsOperations jmsOperations, Destination cargoHandledQueue, Destination misdirectedCargoQueue, Destination deliveredCargoQueue, Destination rejectedRegistrationAttemptsQueue, Destination handlingEventQueue) {
+  public JmsApplicationEventsImpl(JmsOperations jmsOperations, Destination cargoHandledQueue, Destination misdirectedCargoQueue, Destination deliveredCargoQueue, Destination rejectedRegistrationAttemptsQueue, Destination handlingEventQueue,
+                                  int messageGroups) {
     this.jmsOperations = jmsOperations;
     this.cargoHandledQueue = cargoHandledQueue;
     this.misdirectedCargoQueue = misdirectedCargoQueue;
     this.deliveredCargoQueue = deliveredCargoQueue;
     this.rejectedRegistrationAttemptsQueue = rejectedRegistrationAttemptsQueue;
     this.handlingEventQueue = handlingEventQueue;
+    this.messageGroups = new CargoMessageGroups(messageGroups);
   }
 
   @Override
   public void cargoWasHandled(final HandlingEvent event) {
     final Cargo cargo = event.cargo();
     logger.info("Cargo was handled {}", cargo);
-    jmsOperations.send(cargoHandledQueue, session -> session.createTextMessage(cargo.trackingId().idString()));
+    final String group = messageGroups.groupOf(cargo.trackingId());
+    jmsOperations.send(cargoHandledQueue, session -> inGroup(session.createTextMessage(cargo.trackingId().idString()), group));
   }
 
   @Override
@@ -55,6 +70,33 @@ public final class JmsApplicationEventsImpl implements ApplicationEvents {
   @Override
   public void receivedHandlingEventRegistrationAttempt(final HandlingEventRegistrationAttempt attempt) {
     logger.info("Received handling event registration attempt {}", attempt);
-    jmsOperations.send(handlingEventQueue, session -> session.createObjectMessage(attempt));
+    final byte[] body = HandlingEventRegistrationAttemptCodec.encode(attempt);
+    final String group = messageGroups.groupOf(attempt.getTrackingId());
+    jmsOperations.send(handlingEventQueue, session -> inGroup(bytesMessage(session, body), group));
+  }
+
+  @Override
+  public void receivedHandlingEventRegistrationAttempts(final List<HandlingEventRegistrationAttempt> attempts) {
+    logger.info("Received {} handling event registration attempts", attempts.size());
+    // A single message for the attempts of each message group, so they are registered together
+    final Map<String, List<HandlingEventRegistrationAttempt>> groups = new LinkedHashMap<>();
+    for (HandlingEventRegistrationAttempt attempt : attempts) {
+      groups.computeIfAbsent(messageGroups.groupOf(attempt.getTrackingId()), group -> new ArrayList<>()).add(attempt);
+    }
+    groups.forEach((group, groupAttempts) -> {
+      final byte[] body = HandlingEventRegistrationAttemptCodec.encode(groupAttempts);
+      jmsOperations.send(handlingEventQueue, session -> inGroup(bytesMessage(session, body), group));
+    });
+  }
+
+  private static BytesMessage bytesMessage(final Session session, final byte[] body) throws JMSException {
+    final BytesMessage message = session.createBytesMessage();
+    message.writeBytes(body);
+    return message;
+  }
+
+  private static <T extends Message> T inGroup(final T message, final String group) throws JMSException {
+    message.setStringProperty(CargoMessageGroups.GROUP_ID_PROPERTY, group);
+    return message;
   }
 }
@@ -0,0 +1,52 @@
+package se.citerus.dddsample.infrastructure.persistence.cache;
+
+import se.citerus.dddsample.domain.model.location.Location;
+import se.citerus.dddsample.domain.model.location.LocationRepository;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Location repository that keeps the locations found in memory.
+ * Locations practically never change, so they are only
+ * evicted when stored.
+ */
+public class CachingLocationRepository implements LocationRepository {
+
+  private final LocationRepository locationRepository;
+  private final ReferenceDataCache<UnLocode, Location> cache = new ReferenceDataCache<>(Location::unLocode);
+
+  public CachingLocationRepository(LocationRepository locationRepository) {
+    this.locationRepository = locationRepository;
+  }
+
+  /**
+   * Loads all locations into the cache.
+   */
+  public void warm() {
+    cache.putAll(locationRepository.getAll());
+  }
+
+  @Override
+  public Location find(UnLocode unLocode) {
+    return cache.get(unLocode, locationRepository::find);
+  }
+
+  @Override
+  public List<Location> find(Collection<UnLocode> unLocodes) {
+    return cache.getAll(unLocodes, locationRepository::find);
+  }
+
+  @Override
+  public List<Location> getAll() {
+    return locationRepository.getAll();
+  }
+
+  @Override
+  public Location store(Location location) {
+    final Location stored = locationRepository.store(location);
+    cache.evict(location.unLocode());
+    return stored;
+  }
+}
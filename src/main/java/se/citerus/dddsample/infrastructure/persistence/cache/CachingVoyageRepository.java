@@ -0,0 +1,59 @@
+package se.citerus.dddsample.infrastructure.persistence.cache;
+
+import se.citerus.dddsample.domain.model.voyage.Voyage;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
+import se.citerus.dddsample.infrastructure.routing.VoyageScheduleListener;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Voyage repository that keeps the voyages found in memory.
+ * <p>
+ * A voyage is evicted when it is stored, and again when it has been
+ * committed, so that a concurrent read of the old schedule is not kept.
+ * The voyages are expected to be loaded with their schedules.
+ */
+public class CachingVoyageRepository implements VoyageRepository, VoyageScheduleListener {
+
+  private final VoyageRepository voyageRepository;
+  private final ReferenceDataCache<VoyageNumber, Voyage> cache = new ReferenceDataCache<>(Voyage::voyageNumber);
+
+  public CachingVoyageRepository(VoyageRepository voyageRepository) {
+    this.voyageRepository = voyageRepository;
+  }
+
+  /**
+   * Loads all voyages into the cache.
+   */
+  public void warm() {
+    cache.putAll(voyageRepository.getAll());
+  }
+
+  @Override
+  public Voyage find(VoyageNumber voyageNumber) {
+    return cache.get(voyageNumber, voyageRepository::find);
+  }
+
+  @Override
+  public List<Voyage> find(Collection<VoyageNumber> voyageNumbers) {
+    return cache.getAll(voyageNumbers, voyageRepository::find);
+  }
+
+  @Override
+  public List<Voyage> getAll() {
+    return voyageRepository.getAll();
+  }
+
+  @Override
+  public void store(Voyage voyage) {
+    voyageRepository.store(voyage);
+    cache.evict(voyage.voyageNumber());
+  }
+
+  @Override
+  public void voyageStored(Voyage voyage) {
+    cache.evict(voyage.voyageNumber());
+  }
+}
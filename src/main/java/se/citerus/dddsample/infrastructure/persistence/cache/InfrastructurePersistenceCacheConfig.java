@@ -0,0 +1,38 @@
+package se.citerus.dddsample.infrastructure.persistence.cache;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import se.citerus.dddsample.infrastructure.persistence.jpa.LocationRepositoryJPA;
+import se.citerus.dddsample.infrastructure.persistence.jpa.VoyageRepositoryJPA;
+
+@Configuration
+public class InfrastructurePersistenceCacheConfig {
+
+    @Bean
+    @Primary
+    public CachingLocationRepository locationRepository(LocationRepositoryJPA locationRepositoryJPA) {
+        return new CachingLocationRepository(locationRepositoryJPA);
+    }
+
+    /**
+     * Wrapped by the primary voyage repository, which evicts stored voyages again after commit.
+     */
+    @Bean
+    public CachingVoyageRepository cachingVoyageRepository(VoyageRepositoryJPA voyageRepositoryJPA) {
+        return new CachingVoyageRepository(voyageRepositoryJPA);
+    }
+
+    /**
+     * Reference data is loaded once all beans, including the sample data, are in place.
+     */
+    @Bean
+    public SmartInitializingSingleton referenceDataCacheWarmer(CachingLocationRepository locationRepository,
+                                                               CachingVoyageRepository cachingVoyageRepository) {
+        return () -> {
+            locationRepository.warm();
+            cachingVoyageRepository.warm();
+        };
+    }
+}
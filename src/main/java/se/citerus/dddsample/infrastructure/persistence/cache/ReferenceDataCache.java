@@ -0,0 +1,80 @@
+package se.citerus.dddsample.infrastructure.persistence.cache;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of reference data entities, keyed on their identity.
+ * <p>
+ * The same instances are handed out to every caller, across units of work, so
+ * they must be treated as read-only: never mutated, merged or reattached by a caller.
+ * A changed entity is stored through the repository, which evicts it from the cache.
+ * <p>
+ * A value loaded while its key was being evicted is not kept,
+ * so an eviction is never undone by a concurrent read.
+ */
+final class ReferenceDataCache<K, V> {
+
+  private final ConcurrentMap<K, V> entries = new ConcurrentHashMap<>();
+  private final AtomicLong evictions = new AtomicLong();
+  private final Function<V, K> keyOf;
+
+  ReferenceDataCache(Function<V, K> keyOf) {
+    this.keyOf = keyOf;
+  }
+
+  V get(K key, Function<K, V> loader) {
+    final V cached = entries.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    final long evictionsBefore = evictions.get();
+    final V loaded = loader.apply(key);
+    if (loaded != null) {
+      keep(loaded, evictionsBefore);
+    }
+    return loaded;
+  }
+
+  List<V> getAll(Collection<K> keys, Function<Collection<K>, List<V>> loader) {
+    final List<V> found = new ArrayList<>(keys.size());
+    final Set<K> missing = new HashSet<>();
+    for (K key : new HashSet<>(keys)) {
+      final V cached = entries.get(key);
+      if (cached != null) {
+        found.add(cached);
+      } else {
+        missing.add(key);
+      }
+    }
+    if (!missing.isEmpty()) {
+      final long evictionsBefore = evictions.get();
+      for (V loaded : loader.apply(missing)) {
+        keep(loaded, evictionsBefore);
+        found.add(loaded);
+      }
+    }
+    return found;
+  }
+
+  void putAll(List<V> values) {
+    final long evictionsBefore = evictions.get();
+    values.forEach(value -> keep(value, evictionsBefore));
+  }
+
+  void evict(K key) {
+    evictions.incrementAndGet();
+    entries.remove(key);
+  }
+
+  private void keep(V value, long evictionsBefore) {
+    final K key = keyOf.apply(value);
+    entries.putIfAbsent(key, value);
+    if (evictions.get() != evictionsBefore) {
+      entries.remove(key, value);
+    }
+  }
+}
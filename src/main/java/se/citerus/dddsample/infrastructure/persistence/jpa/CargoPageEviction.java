@@ -0,0 +1,18 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import se.citerus.dddsample.domain.model.cargo.Cargo;
+
+import java.util.List;
+
+/**
+ * Repository fragment that evicts pages of streamed cargos from the persistence context,
+ * so that streaming all cargos only holds one page at a time.
+ */
+public interface CargoPageEviction {
+
+  /**
+   * @param cargos cargos that are no longer used, changes to them are not stored
+   */
+  void evict(List<Cargo> cargos);
+
+}
@@ -0,0 +1,38 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import se.citerus.dddsample.domain.model.cargo.Cargo;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Detaches each cargo, which also detaches its itinerary legs, and the last handling event
+ * it was found with. The locations and voyages they refer to are few, and are kept.
+ * Detaching rather than clearing the persistence context leaves any other entities that
+ * the caller has loaded alone.
+ * <p>
+ * A cargo that was already managed before its page was loaded is the same instance the
+ * caller holds, and is detached all the same: its pending changes are not flushed, since
+ * flushing would store changes made to the streamed cargos too.
+ */
+class CargoPageEvictionImpl implements CargoPageEviction {
+
+  private final EntityManager entityManager;
+
+  CargoPageEvictionImpl(final EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public void evict(final List<Cargo> cargos) {
+    for (Cargo cargo : cargos) {
+      final HandlingEvent lastEvent = cargo.delivery().lastEvent;
+      entityManager.detach(cargo);
+      if (lastEvent != null) {
+        entityManager.detach(lastEvent);
+      }
+    }
+  }
+
+}
@@ -1,40 +1,138 @@
 package se.citerus.dddsample.infrastructure.persistence.jpa;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.cargo.CargoRepository;
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
  * Hibernate implementation of CargoRepository.
+ * <p>
+ * Cargos are found together with the locations and voyages of their route specification,
+ * delivery and itinerary legs, which would otherwise be loaded one select at a time.
+ * Tracking ids are generated by {@link TrackingIdSequence}, and streamed pages of cargos
+ * are evicted by {@link CargoPageEviction}.
  */
-public interface CargoRepositoryJPA extends CrudRepository<Cargo, Long>, CargoRepository {
+public interface CargoRepositoryJPA extends CrudRepository<Cargo, Long>, CargoRepository, TrackingIdSequence, CargoPageEviction {
+
+  String SELECT_CARGO_AGGREGATE = "select distinct c from Cargo c " +
+    "left join fetch c.origin " +
+    "left join fetch c.routeSpecification.origin " +
+    "left join fetch c.routeSpecification.destination " +
+    "left join fetch c.delivery.currentVoyage " +
+    "left join fetch c.delivery.lastKnownLocation " +
+    "left join fetch c.delivery.lastEvent e " +
+    "left join fetch e.location " +
+    "left join fetch e.voyage " +
+    "left join fetch c.delivery.nextExpectedActivity.location " +
+    "left join fetch c.delivery.nextExpectedActivity.voyage " +
+    "left join fetch c.itinerary l " +
+    "left join fetch l.voyage " +
+    "left join fetch l.loadLocation " +
+    "left join fetch l.unloadLocation ";
+
+  String NO_SQL_DISTINCT = "hibernate.query.passDistinctThrough";
 
   default Cargo find(TrackingId trackingId) {
     return findByTrackingId(trackingId.idString());
   }
 
-  @Query("select c from Cargo c where c.trackingId = :trackingId")
+  @Query(SELECT_CARGO_AGGREGATE + "where c.trackingId = :trackingId order by l.id")
+  @QueryHints(@QueryHint(name = NO_SQL_DISTINCT, value = "false"))
   Cargo findByTrackingId(String trackingId);
 
+  @Override
+  default List<Cargo> find(final Collection<TrackingId> trackingIds) {
+    if (trackingIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return findByTrackingIds(trackingIds.stream().map(TrackingId::idString).collect(Collectors.toSet()));
+  }
+
+  @Query(SELECT_CARGO_AGGREGATE + "where c.trackingId in :trackingIds order by c.trackingId, l.id")
+  @QueryHints(@QueryHint(name = NO_SQL_DISTINCT, value = "false"))
+  List<Cargo> findByTrackingIds(Collection<String> trackingIds);
+
   default void store(final Cargo cargo) {
     save(cargo);
   }
 
+  default void storeAll(final List<Cargo> cargos) {
+    saveAll(cargos);
+  }
+
   default List<Cargo> getAll() {
     return StreamSupport.stream(findAll().spliterator(), false)
             .collect(Collectors.toList());
   }
 
-  @Query(value = "SELECT UPPER(SUBSTR(CAST(UUID() AS VARCHAR(38)), 0, 9)) AS id FROM (VALUES(0))", nativeQuery = true)
-  String nextTrackingIdString();
+  default List<Cargo> findPage(final TrackingId after, final int pageSize) {
+    // The page is limited on tracking ids alone, since limiting a fetch join of the legs would be done in memory
+    final Pageable page = PageRequest.of(0, pageSize);
+    final List<String> trackingIds = after == null ? findFirstPage(page) : findPageAfter(after.idString(), page);
+    if (trackingIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return findByTrackingIds(trackingIds);
+  }
+
+  @Query("select c.trackingId from Cargo c order by c.trackingId")
+  List<String> findFirstPage(Pageable page);
+
+  @Query("select c.trackingId from Cargo c where c.trackingId > :after order by c.trackingId")
+  List<String> findPageAfter(String after, Pageable page);
+
+  default Stream<Cargo> streamAll(final int pageSize) {
+    class Pages extends Spliterators.AbstractSpliterator<Cargo> {
+      private List<Cargo> cargos = Collections.emptyList();
+      private Iterator<Cargo> page = cargos.iterator();
+      private boolean lastPage;
+
+      Pages() {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+      }
+
+      @Override
+      public boolean tryAdvance(Consumer<? super Cargo> action) {
+        if (!page.hasNext()) {
+          if (lastPage) {
+            return false;
+          }
+          final TrackingId last = cargos.isEmpty() ? null : cargos.get(cargos.size() - 1).trackingId();
+          evictPage();
+          cargos = findPage(last, pageSize);
+          lastPage = cargos.size() < pageSize;
+          if (cargos.isEmpty()) {
+            return false;
+          }
+          page = cargos.iterator();
+        }
+        action.accept(page.next());
+        return true;
+      }
 
-  default TrackingId nextTrackingId() {
-    return new TrackingId(nextTrackingIdString());
+      void evictPage() {
+        evict(cargos);
+        cargos = Collections.emptyList();
+      }
+    }
+    final Pages pages = new Pages();
+    return StreamSupport.stream(pages, false).onClose(pages::evictPage);
   }
 }
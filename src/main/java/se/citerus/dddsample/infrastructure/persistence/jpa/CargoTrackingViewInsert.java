@@ -0,0 +1,19 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import org.springframework.transaction.annotation.Transactional;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+
+import java.util.List;
+
+/**
+ * Repository fragment that inserts tracking views without looking for stored ones.
+ */
+public interface CargoTrackingViewInsert {
+
+  /**
+   * @param views tracking views of new cargos, inserted in JDBC batches
+   */
+  @Transactional
+  void storeAllNew(List<CargoTrackingView> views);
+
+}
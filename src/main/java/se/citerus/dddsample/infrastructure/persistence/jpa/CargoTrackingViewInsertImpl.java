@@ -0,0 +1,26 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * Inserts the views instead of merging them, so that no view is selected first,
+ * and so that a view stored concurrently makes the insert fail rather than
+ * being overwritten.
+ */
+class CargoTrackingViewInsertImpl implements CargoTrackingViewInsert {
+
+  private final EntityManager entityManager;
+
+  CargoTrackingViewInsertImpl(final EntityManager entityManager) {
+    this.entityManager = entityManager;
+  }
+
+  @Override
+  public void storeAllNew(final List<CargoTrackingView> views) {
+    views.forEach(entityManager::persist);
+  }
+
+}
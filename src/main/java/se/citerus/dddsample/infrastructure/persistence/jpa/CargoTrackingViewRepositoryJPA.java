@@ -0,0 +1,61 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import se.citerus.dddsample.application.tracking.CargoTrackingVersion;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.CargoTrackingViewRepository;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate implementation of CargoTrackingViewRepository.
+ * <p>
+ * First views are inserted by {@link CargoTrackingViewInsert}.
+ */
+public interface CargoTrackingViewRepositoryJPA extends CrudRepository<CargoTrackingView, String>, CargoTrackingViewRepository, CargoTrackingViewInsert {
+
+  default CargoTrackingView find(final TrackingId trackingId) {
+    return findByTrackingId(trackingId.idString());
+  }
+
+  @Query("select distinct v from CargoTrackingView v left join fetch v.events where v.trackingId = :trackingId")
+  CargoTrackingView findByTrackingId(String trackingId);
+
+  default List<CargoTrackingView> find(final Collection<TrackingId> trackingIds) {
+    if (trackingIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return findByTrackingIds(trackingIds.stream().map(TrackingId::idString).collect(Collectors.toSet()));
+  }
+
+  @Query("select distinct v from CargoTrackingView v left join fetch v.events where v.trackingId in :trackingIds")
+  List<CargoTrackingView> findByTrackingIds(Collection<String> trackingIds);
+
+  default CargoTrackingVersion findVersion(final TrackingId trackingId) {
+    return findVersionByTrackingId(trackingId.idString());
+  }
+
+  @Query("select new se.citerus.dddsample.application.tracking.CargoTrackingVersion(v.calculatedAt, v.handlingEventCount) " +
+    "from CargoTrackingView v where v.trackingId = :trackingId")
+  CargoTrackingVersion findVersionByTrackingId(String trackingId);
+
+  default void store(final CargoTrackingView view) {
+    save(view);
+  }
+
+  default List<TrackingId> findCargosWithoutView(final int limit) {
+    return findTrackingIdsOfCargosWithoutView(PageRequest.of(0, limit)).stream().map(TrackingId::new).collect(Collectors.toList());
+  }
+
+  @Query("select c.trackingId from Cargo c where not exists " +
+    "(select v.trackingId from CargoTrackingView v where v.trackingId = c.trackingId) order by c.trackingId")
+  List<String> findTrackingIdsOfCargosWithoutView(Pageable page);
+
+}
@@ -0,0 +1,52 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import se.citerus.dddsample.application.tracking.HandlingEventProjection;
+import se.citerus.dddsample.application.tracking.HandlingEventProjectionRepository;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate implementation of HandlingEventProjectionRepository.
+ * <p>
+ * Duplicate registrations are grouped together, and events completed
+ * at the same time are ordered by their first registration, like in
+ * {@link se.citerus.dddsample.domain.model.handling.HandlingHistory}.
+ */
+public interface HandlingEventProjectionRepositoryJPA extends Repository<HandlingEvent, Long>, HandlingEventProjectionRepository {
+
+  default List<HandlingEventProjection> lookupHandlingHistoryOfCargo(final TrackingId trackingId) {
+    return getHandlingEventProjectionsOfCargo(trackingId.idString());
+  }
+
+  @Query("select new se.citerus.dddsample.application.tracking.HandlingEventProjection(c.trackingId, he.type, he.completionTime, l.name, l.unlocode, v.voyageNumber) " +
+    "from HandlingEvent he join he.cargo c join he.location l left join he.voyage v " +
+    "where c.trackingId = :trackingId " +
+    "group by c.trackingId, he.type, he.completionTime, l.name, l.unlocode, v.voyageNumber " +
+    "order by he.completionTime, min(he.registrationTime)")
+  List<HandlingEventProjection> getHandlingEventProjectionsOfCargo(String trackingId);
+
+  default Map<TrackingId, List<HandlingEventProjection>> lookupHandlingHistoriesOfCargos(final Collection<TrackingId> trackingIds) {
+    if (trackingIds.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    return getHandlingEventProjectionsOfCargos(trackingIds.stream().map(TrackingId::idString).collect(Collectors.toSet())).stream()
+      .collect(Collectors.groupingBy(event -> new TrackingId(event.trackingId()), LinkedHashMap::new, Collectors.toList()));
+  }
+
+  @Query("select new se.citerus.dddsample.application.tracking.HandlingEventProjection(c.trackingId, he.type, he.completionTime, l.name, l.unlocode, v.voyageNumber) " +
+    "from HandlingEvent he join he.cargo c join he.location l left join he.voyage v " +
+    "where c.trackingId in :trackingIds " +
+    "group by c.trackingId, he.type, he.completionTime, l.name, l.unlocode, v.voyageNumber " +
+    "order by c.trackingId, he.completionTime, min(he.registrationTime)")
+  List<HandlingEventProjection> getHandlingEventProjectionsOfCargos(Collection<String> trackingIds);
+
+}
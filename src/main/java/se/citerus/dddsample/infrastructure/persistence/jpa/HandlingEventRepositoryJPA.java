@@ -1,5 +1,7 @@
 package se.citerus.dddsample.infrastructure.persistence.jpa;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
@@ -19,6 +21,10 @@ public interface HandlingEventRepositoryJPA extends CrudRepository<HandlingEvent
     save(event);
   }
 
+  default void storeAll(final List<HandlingEvent> events) {
+    saveAll(events);
+  }
+
   default HandlingHistory lookupHandlingHistoryOfCargo(final TrackingId trackingId) {
     return new HandlingHistory(getHandlingHistoryOfCargo(trackingId.idString()));
   }
@@ -26,4 +32,13 @@ public interface HandlingEventRepositoryJPA extends CrudRepository<HandlingEvent
   @Query("select he from HandlingEvent he where he.cargo.trackingId = :trackingId and he.location != NULL")
   List<HandlingEvent> getHandlingHistoryOfCargo(String trackingId);
 
+  default HandlingEvent lookupMostRecentlyCompletedEventOfCargo(final TrackingId trackingId) {
+    final List<HandlingEvent> events = getMostRecentlyCompletedEventsOfCargo(trackingId.idString(), PageRequest.of(0, 1));
+    return events.isEmpty() ? null : events.get(0);
+  }
+
+  @Query("select he from HandlingEvent he where he.cargo.trackingId = :trackingId and he.location != NULL " +
+    "order by he.completionTime desc, he.registrationTime desc")
+  List<HandlingEvent> getMostRecentlyCompletedEventsOfCargo(String trackingId, Pageable pageable);
+
 }
@@ -6,6 +6,8 @@ import se.citerus.dddsample.domain.model.location.Location;
 import se.citerus.dddsample.domain.model.location.LocationRepository;
 import se.citerus.dddsample.domain.model.location.UnLocode;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
@@ -19,6 +21,17 @@ public interface LocationRepositoryJPA extends CrudRepository<Location, Long>, L
   @Query("select loc from Location loc where loc.unlocode = :unlocode")
   Location findByUnLoCode(String unlocode);
 
+  @Override
+  default List<Location> find(final Collection<UnLocode> unLocodes) {
+    if (unLocodes.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return findByUnLoCodes(unLocodes.stream().map(UnLocode::idString).collect(Collectors.toSet()));
+  }
+
+  @Query("select loc from Location loc where loc.unlocode in :unlocodes")
+  List<Location> findByUnLoCodes(Collection<String> unlocodes);
+
   @Override
   default List<Location> getAll() {
     return StreamSupport.stream(findAll().spliterator(), false)
@@ -0,0 +1,25 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import javax.persistence.*;
+
+/**
+ * A block of tracking ids handed out by {@link TrackingIdSequenceImpl}.
+ * <p>
+ * Blocks are never stored. The entity maps the sequence that numbers them, so that
+ * the sequence is part of the schema in any database, and so that Hibernate generates
+ * the next number the way the database supports.
+ */
+@Entity(name = "TrackingIdBlock")
+@Table(name = "TrackingIdBlock")
+class TrackingIdBlock {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tracking_id_block_seq")
+  @SequenceGenerator(name = "tracking_id_block_seq", sequenceName = "tracking_id_block_seq", allocationSize = 1)
+  private long id;
+
+  protected TrackingIdBlock() {
+    // Needed by Hibernate
+  }
+
+}
@@ -0,0 +1,63 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out tracking ids from blocks of consecutive numbers.
+ * <p>
+ * Each number below 2^32 is scrambled by a bijective mix of its bits and written as
+ * eight hexadecimal digits, so distinct numbers give distinct tracking ids, and
+ * consecutive bookings do not get tracking ids that are easy to guess from each other.
+ * <p>
+ * The digits follow a {@link #PREFIX} that is not a hexadecimal digit. Tracking ids
+ * generated before were the first eight hexadecimal digits of a random UUID, so they
+ * can never be equal to one of these.
+ */
+class TrackingIdBlocks {
+
+  static final int BLOCK_SIZE = 1024;
+
+  static final String PREFIX = "T";
+
+  private static final long MAX_BLOCK = (1L << 32) / BLOCK_SIZE;
+
+  private final LongSupplier nextBlock;
+  private long next;
+  private long end;
+
+  /**
+   * @param nextBlock supplies the number of a block that has not been handed out before,
+   *                  counting from zero
+   */
+  TrackingIdBlocks(final LongSupplier nextBlock) {
+    this.nextBlock = nextBlock;
+  }
+
+  synchronized TrackingId next() {
+    if (next == end) {
+      final long block = nextBlock.getAsLong();
+      if (block < 0 || block >= MAX_BLOCK) {
+        throw new IllegalStateException("Tracking id block " + block + " is out of range");
+      }
+      next = block * BLOCK_SIZE;
+      end = next + BLOCK_SIZE;
+    }
+    return new TrackingId(PREFIX + String.format("%08X", scramble((int) next++)));
+  }
+
+  /**
+   * Every step is invertible on 32 bits: xor with a right shift of itself,
+   * and multiplication by an odd constant.
+   */
+  static int scramble(int x) {
+    x ^= x >>> 16;
+    x *= 0x7feb352d;
+    x ^= x >>> 15;
+    x *= 0x846ca68b;
+    x ^= x >>> 16;
+    return x;
+  }
+
+}
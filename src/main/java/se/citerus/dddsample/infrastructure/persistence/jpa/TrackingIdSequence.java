@@ -0,0 +1,18 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import org.springframework.transaction.annotation.Transactional;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+/**
+ * Repository fragment that generates tracking ids in process, from blocks
+ * allocated by a database sequence.
+ */
+public interface TrackingIdSequence {
+
+  /**
+   * @return A unique, generated tracking Id.
+   */
+  @Transactional
+  TrackingId nextTrackingId();
+
+}
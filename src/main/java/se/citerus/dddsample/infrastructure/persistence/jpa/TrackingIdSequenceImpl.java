@@ -0,0 +1,34 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Allocates blocks of tracking ids from the sequence mapped by {@link TrackingIdBlock},
+ * using the identifier generator of that entity, so that no database specific SQL is needed.
+ * <p>
+ * Since every node takes its blocks from the same sequence, the ids are unique across nodes,
+ * while only one tracking id in {@link TrackingIdBlocks#BLOCK_SIZE} takes a database round-trip.
+ */
+class TrackingIdSequenceImpl implements TrackingIdSequence {
+
+  private final TrackingIdBlocks blocks;
+
+  TrackingIdSequenceImpl(final EntityManager entityManager) {
+    final IdentifierGenerator generator = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+      .getIdentifierGenerator(TrackingIdBlock.class.getName());
+    // The sequence starts at one, blocks are counted from zero
+    this.blocks = new TrackingIdBlocks(() -> ((Number) generator
+      .generate(entityManager.unwrap(SharedSessionContractImplementor.class), null)).longValue() - 1);
+  }
+
+  @Override
+  public TrackingId nextTrackingId() {
+    return blocks.next();
+  }
+
+}
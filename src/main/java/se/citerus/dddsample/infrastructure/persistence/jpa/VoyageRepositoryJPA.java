@@ -6,6 +6,11 @@ import se.citerus.dddsample.domain.model.voyage.Voyage;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Hibernate implementation of CarrierMovementRepository.
  */
@@ -15,9 +20,24 @@ public interface VoyageRepositoryJPA extends CrudRepository<Voyage, Long>, Voyag
     return findByVoyageNumber(voyageNumber.idString());
   }
 
-  @Query("select v from Voyage v where v.voyageNumber = :voyageNumber")
+  @Query("select distinct v from Voyage v left join fetch v.carrierMovements where v.voyageNumber = :voyageNumber")
   Voyage findByVoyageNumber(String voyageNumber);
 
+  @Override
+  default List<Voyage> find(final Collection<VoyageNumber> voyageNumbers) {
+    if (voyageNumbers.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return findByVoyageNumbers(voyageNumbers.stream().map(VoyageNumber::idString).collect(Collectors.toSet()));
+  }
+
+  @Query("select distinct v from Voyage v left join fetch v.carrierMovements where v.voyageNumber in :voyageNumbers")
+  List<Voyage> findByVoyageNumbers(Collection<String> voyageNumbers);
+
+  @Override
+  @Query("select distinct v from Voyage v left join fetch v.carrierMovements")
+  List<Voyage> getAll();
+
   @Override
   default void store(Voyage voyage) {
     save(voyage);
@@ -0,0 +1,150 @@
+package se.citerus.dddsample.infrastructure.routing;
+
+import se.citerus.dddsample.domain.model.cargo.Itinerary;
+import se.citerus.dddsample.domain.model.cargo.Leg;
+import se.citerus.dddsample.domain.model.cargo.RouteSpecification;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.service.RoutingService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Routing service that remembers the itineraries found for an origin,
+ * destination and arrival deadline window.
+ * <p>
+ * Routes are fetched for the end of the deadline window and filtered by each
+ * route specification, so every specification in the window can share them.
+ * Cached routes are dropped when they grow old, when the cache is full (least
+ * recently used first) and when the voyage schedules have changed.
+ */
+public class CachingRoutingService implements RoutingService {
+
+  private final RoutingService routingService;
+  private final ScheduleVersion scheduleVersion;
+  private final Clock clock;
+  private final int maxEntries;
+  private final Duration timeToLive;
+  private final long deadlineWindowSeconds;
+  private final Map<Key, Entry> entries;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * @param routingService the routing service to cache
+   * @param scheduleVersion version of the voyage schedules
+   * @param clock clock for expiring routes
+   * @param maxEntries maximum number of cached route searches
+   * @param timeToLive how long routes are kept
+   * @param deadlineWindow arrival deadlines are grouped in windows of this length
+   */
+  public CachingRoutingService(RoutingService routingService, ScheduleVersion scheduleVersion, Clock clock,
+                               int maxEntries, Duration timeToLive, Duration deadlineWindow) {
+    this.routingService = routingService;
+    this.scheduleVersion = scheduleVersion;
+    this.clock = clock;
+    this.maxEntries = maxEntries;
+    this.timeToLive = timeToLive;
+    this.deadlineWindowSeconds = deadlineWindow.getSeconds();
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        return size() > CachingRoutingService.this.maxEntries;
+      }
+    };
+  }
+
+  @Override
+  public List<Itinerary> fetchRoutesForSpecification(RouteSpecification routeSpecification) {
+    final Key key = new Key(routeSpecification.origin().unLocode(), routeSpecification.destination().unLocode(),
+      Math.floorDiv(routeSpecification.arrivalDeadline().getEpochSecond(), deadlineWindowSeconds));
+    final Instant now = clock.instant();
+    final long version = scheduleVersion.current();
+
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+    }
+    if (entry != null && entry.version == version && now.isBefore(entry.expires)) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+      final Instant windowEnd = Instant.ofEpochSecond((key.deadlineWindow + 1) * deadlineWindowSeconds);
+      entry = new Entry(routingService.fetchRoutesForSpecification(
+        new RouteSpecification(routeSpecification.origin(), routeSpecification.destination(), windowEnd)),
+        version, now.plus(timeToLive));
+      synchronized (entries) {
+        entries.put(key, entry);
+      }
+    }
+
+    // Legs are entities, so each caller gets its own
+    return entry.itineraries.stream()
+      .filter(routeSpecification::isSatisfiedBy)
+      .map(CachingRoutingService::copyOf)
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * @return number of route searches answered from the cache
+   */
+  public long hitCount() {
+    return hits.get();
+  }
+
+  /**
+   * @return number of route searches passed on to the routing service
+   */
+  public long missCount() {
+    return misses.get();
+  }
+
+  private static Itinerary copyOf(Itinerary itinerary) {
+    final List<Leg> legs = new ArrayList<>();
+    for (Leg leg : itinerary.legs()) {
+      legs.add(new Leg(leg.voyage(), leg.loadLocation(), leg.unloadLocation(), leg.loadTime(), leg.unloadTime()));
+    }
+    return new Itinerary(legs);
+  }
+
+  private static final class Key {
+    final UnLocode origin;
+    final UnLocode destination;
+    final long deadlineWindow;
+
+    Key(UnLocode origin, UnLocode destination, long deadlineWindow) {
+      this.origin = origin;
+      this.destination = destination;
+      this.deadlineWindow = deadlineWindow;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      final Key other = (Key) o;
+      return deadlineWindow == other.deadlineWindow && origin.equals(other.origin) && destination.equals(other.destination);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(origin, destination, deadlineWindow);
+    }
+  }
+
+  private static final class Entry {
+    final List<Itinerary> itineraries;
+    final long version;
+    final Instant expires;
+
+    Entry(List<Itinerary> itineraries, long version, Instant expires) {
+      this.itineraries = List.copyOf(itineraries);
+      this.version = version;
+      this.expires = expires;
+    }
+  }
+}
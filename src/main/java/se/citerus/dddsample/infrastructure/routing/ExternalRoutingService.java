@@ -11,34 +11,58 @@ import se.citerus.dddsample.domain.model.cargo.RouteSpecification;
 import se.citerus.dddsample.domain.model.location.Location;
 import se.citerus.dddsample.domain.model.location.LocationRepository;
 import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.model.voyage.Voyage;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 import se.citerus.dddsample.domain.service.RoutingService;
 
 import java.lang.invoke.MethodHandles;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Properties;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
  * Our end of the routing service. This is basically a data model
  * translation layer between our domain model and the API put forward
  * by the routing team, which operates in a different context from us.
+ * <p>
+ * Given a search executor, alternative routes via a number of ports are
+ * searched for in parallel with the direct route, and the results that
+ * arrive within the latency budget are merged and ranked by arrival time.
  *
  */
 public class ExternalRoutingService implements RoutingService {
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int MAX_MERGED_CANDIDATES = 10;
+  private static final Comparator<TransitPath> BY_ARRIVAL_AND_LEGS = Comparator
+    .comparing((TransitPath path) -> lastEdge(path).getToDate())
+    .thenComparingInt(path -> path.getTransitEdges().size());
 
   private final GraphTraversalService graphTraversalService;
   private final LocationRepository locationRepository;
   private final VoyageRepository voyageRepository;
+  private final ExecutorService searchExecutor;
+  private final List<UnLocode> viaPorts;
+  private final Duration latencyBudget;
 
   public ExternalRoutingService(GraphTraversalService graphTraversalService, LocationRepository locationRepository, VoyageRepository voyageRepository) {
+    this(graphTraversalService, locationRepository, voyageRepository, null, Collections.emptyList(), Duration.ZERO);
+  }
+
+  /**
+   * @param searchExecutor executes the searches, its size bounds their parallelism
+   * @param viaPorts ports to search for alternative routes via
+   * @param latencyBudget the time to wait for search results
+   */
+  public ExternalRoutingService(GraphTraversalService graphTraversalService, LocationRepository locationRepository, VoyageRepository voyageRepository,
+                                ExecutorService searchExecutor, List<UnLocode> viaPorts, Duration latencyBudget) {
     this.graphTraversalService = graphTraversalService;
     this.locationRepository = locationRepository;
     this.voyageRepository = voyageRepository;
+    this.searchExecutor = searchExecutor;
+    this.viaPorts = List.copyOf(viaPorts);
+    this.latencyBudget = latencyBudget;
   }
 
   public List<Itinerary> fetchRoutesForSpecification(RouteSpecification routeSpecification) {
@@ -52,23 +76,87 @@ public class ExternalRoutingService implements RoutingService {
     limitations.setProperty("DEADLINE", routeSpecification.arrivalDeadline().toString());
 
     final List<TransitPath> transitPaths;
-    transitPaths = graphTraversalService.findShortestPath(
-      origin.unLocode().idString(),
-      destination.unLocode().idString(),
-      limitations
-    );
+    if (searchExecutor == null) {
+      transitPaths = graphTraversalService.findShortestPath(
+        origin.unLocode().idString(),
+        destination.unLocode().idString(),
+        limitations
+      );
+    } else {
+      transitPaths = searchInParallel(origin.unLocode(), destination.unLocode(), limitations);
+    }
 
     /*
      The returned result is then translated back into our domain model.
     */
-    final List<Itinerary> itineraries = transitPaths.stream()
-            .map(this::toItinerary)
+    final List<Itinerary> itineraries = toItineraries(transitPaths).stream()
             .filter(itinerary -> isSatisfyingRouteSpec(itinerary, routeSpecification))
             .collect(Collectors.toList());
 
     return itineraries;
   }
 
+  private List<TransitPath> searchInParallel(final UnLocode origin, final UnLocode destination, final Properties limitations) {
+    final List<Callable<List<TransitPath>>> searches = new ArrayList<>(viaPorts.size() + 1);
+    searches.add(() -> graphTraversalService.findShortestPath(origin.idString(), destination.idString(), limitations));
+    for (UnLocode via : viaPorts) {
+      if (!via.sameValueAs(origin) && !via.sameValueAs(destination)) {
+        final Properties viaLimitations = new Properties();
+        viaLimitations.putAll(limitations);
+        viaLimitations.setProperty("VIA", via.idString());
+        searches.add(() -> graphTraversalService.findShortestPath(origin.idString(), destination.idString(), viaLimitations));
+      }
+    }
+
+    final List<Future<List<TransitPath>>> results;
+    try {
+      results = searchExecutor.invokeAll(searches, latencyBudget.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Collections.emptyList();
+    }
+
+    /*
+     The same path can be found by several searches, so paths are merged on their edges.
+    */
+    final Map<List<String>, TransitPath> merged = new LinkedHashMap<>();
+    int timedOut = 0;
+    for (Future<List<TransitPath>> result : results) {
+      if (result.isCancelled()) {
+        timedOut++;
+        continue;
+      }
+      try {
+        for (TransitPath transitPath : result.get()) {
+          merged.putIfAbsent(edgeKeys(transitPath), transitPath);
+        }
+      } catch (ExecutionException e) {
+        logger.warn("Route search failed", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (timedOut > 0) {
+      logger.info("{} of {} route searches did not finish within {} ms", timedOut, searches.size(), latencyBudget.toMillis());
+    }
+
+    return merged.values().stream()
+      .sorted(BY_ARRIVAL_AND_LEGS)
+      .limit(MAX_MERGED_CANDIDATES)
+      .collect(Collectors.toList());
+  }
+
+  private static List<String> edgeKeys(TransitPath transitPath) {
+    return transitPath.getTransitEdges().stream()
+      .map(edge -> edge.getEdge() + " " + edge.getFromNode() + " " + edge.getToNode() + " " + edge.getFromDate())
+      .collect(Collectors.toList());
+  }
+
+  private static TransitEdge lastEdge(TransitPath transitPath) {
+    final List<TransitEdge> edges = transitPath.getTransitEdges();
+    return edges.get(edges.size() - 1);
+  }
+
   private static boolean isSatisfyingRouteSpec(Itinerary itinerary, RouteSpecification routeSpecification) {
     if (routeSpecification.isSatisfiedBy(itinerary)) {
       return true;
@@ -78,21 +166,42 @@ public class ExternalRoutingService implements RoutingService {
     }
   }
 
-  private Itinerary toItinerary(TransitPath transitPath) {
-    List<Leg> legs = new ArrayList<>(transitPath.getTransitEdges().size());
-    for (TransitEdge edge : transitPath.getTransitEdges()) {
-      legs.add(toLeg(edge));
+  /**
+   * The voyages and locations of all paths are looked up together,
+   * instead of once per leg.
+   */
+  private List<Itinerary> toItineraries(List<TransitPath> transitPaths) {
+    final Set<VoyageNumber> voyageNumbers = new HashSet<>();
+    final Set<UnLocode> unLocodes = new HashSet<>();
+    for (TransitPath transitPath : transitPaths) {
+      for (TransitEdge edge : transitPath.getTransitEdges()) {
+        voyageNumbers.add(new VoyageNumber(edge.getEdge()));
+        unLocodes.add(new UnLocode(edge.getFromNode()));
+        unLocodes.add(new UnLocode(edge.getToNode()));
+      }
     }
-    return new Itinerary(legs);
-  }
+    if (voyageNumbers.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final Map<VoyageNumber, Voyage> voyages = voyageRepository.find(voyageNumbers).stream()
+            .collect(Collectors.toMap(Voyage::voyageNumber, voyage -> voyage));
+    final Map<UnLocode, Location> locations = locationRepository.find(unLocodes).stream()
+            .collect(Collectors.toMap(Location::unLocode, location -> location));
 
-  private Leg toLeg(TransitEdge edge) {
-    return new Leg(
-            voyageRepository.find(new VoyageNumber(edge.getEdge())),
-            locationRepository.find(new UnLocode(edge.getFromNode())),
-            locationRepository.find(new UnLocode(edge.getToNode())),
-            edge.getFromDate(),
-            edge.getToDate()
-    );
+    final List<Itinerary> itineraries = new ArrayList<>(transitPaths.size());
+    for (TransitPath transitPath : transitPaths) {
+      final List<Leg> legs = new ArrayList<>(transitPath.getTransitEdges().size());
+      for (TransitEdge edge : transitPath.getTransitEdges()) {
+        legs.add(new Leg(
+                voyages.get(new VoyageNumber(edge.getEdge())),
+                locations.get(new UnLocode(edge.getFromNode())),
+                locations.get(new UnLocode(edge.getToNode())),
+                edge.getFromDate(),
+                edge.getToDate()
+        ));
+      }
+      itineraries.add(new Itinerary(legs));
+    }
+    return itineraries;
   }
 }
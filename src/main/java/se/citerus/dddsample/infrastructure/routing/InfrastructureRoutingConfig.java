@@ -0,0 +1,53 @@
+package se.citerus.dddsample.infrastructure.routing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
+import se.citerus.dddsample.infrastructure.persistence.cache.CachingVoyageRepository;
+import se.citerus.dddsample.infrastructure.persistence.jpa.VoyageRepositoryJPA;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class InfrastructureRoutingConfig {
+
+    /**
+     * Routing on the stored voyage schedules is opt-in, since the sample voyages
+     * sail in 2008 and 2009. Without it, the pathfinder uses its stub timetable.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "routing.scheduleGraph", havingValue = "true")
+    public VoyageScheduleGraphDAO voyageScheduleGraphDAO(VoyageRepositoryJPA voyageRepositoryJPA, ScheduleVersion scheduleVersion,
+                                                         ExecutorService transitGraphRebuildExecutor) {
+        return new VoyageScheduleGraphDAO(voyageRepositoryJPA, scheduleVersion, transitGraphRebuildExecutor);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "routing.scheduleGraph", havingValue = "true")
+    public ExecutorService transitGraphRebuildExecutor() {
+        return Executors.newSingleThreadExecutor(new CustomizableThreadFactory("transit-graph-rebuild-"));
+    }
+
+    @Bean
+    public ScheduleVersion scheduleVersion() {
+        return new ScheduleVersion();
+    }
+
+    @Bean
+    @Primary
+    public VoyageRepository voyageRepository(CachingVoyageRepository cachingVoyageRepository, ScheduleVersion scheduleVersion,
+                                             ObjectProvider<VoyageScheduleGraphDAO> voyageScheduleGraphDAO) {
+        List<VoyageScheduleListener> listeners = new ArrayList<>();
+        listeners.add(cachingVoyageRepository);
+        listeners.add(scheduleVersion);
+        voyageScheduleGraphDAO.ifAvailable(listeners::add);
+        return new NotifyingVoyageRepository(cachingVoyageRepository, listeners);
+    }
+}
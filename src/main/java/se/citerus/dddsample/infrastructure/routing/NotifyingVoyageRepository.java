@@ -0,0 +1,61 @@
+package se.citerus.dddsample.infrastructure.routing;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.citerus.dddsample.domain.model.voyage.Voyage;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Voyage repository that tells schedule listeners about stored voyages.
+ * Within a transaction, listeners are only told after it has committed.
+ */
+public class NotifyingVoyageRepository implements VoyageRepository {
+
+  private final VoyageRepository voyageRepository;
+  private final List<VoyageScheduleListener> listeners;
+
+  public NotifyingVoyageRepository(VoyageRepository voyageRepository, List<VoyageScheduleListener> listeners) {
+    this.voyageRepository = voyageRepository;
+    this.listeners = List.copyOf(listeners);
+  }
+
+  @Override
+  public Voyage find(VoyageNumber voyageNumber) {
+    return voyageRepository.find(voyageNumber);
+  }
+
+  @Override
+  public List<Voyage> find(Collection<VoyageNumber> voyageNumbers) {
+    return voyageRepository.find(voyageNumbers);
+  }
+
+  @Override
+  public List<Voyage> getAll() {
+    return voyageRepository.getAll();
+  }
+
+  @Override
+  public void store(Voyage voyage) {
+    voyageRepository.store(voyage);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCommit() {
+          notifyListeners(voyage);
+        }
+      });
+    } else {
+      notifyListeners(voyage);
+    }
+  }
+
+  private void notifyListeners(Voyage voyage) {
+    for (VoyageScheduleListener listener : listeners) {
+      listener.voyageStored(voyage);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package se.citerus.dddsample.infrastructure.routing;
+
+import se.citerus.dddsample.domain.model.voyage.Voyage;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts changes to the voyage schedules. Anything derived from
+ * the schedules is stale once the version has moved on.
+ */
+public class ScheduleVersion implements VoyageScheduleListener {
+
+  private final AtomicLong version = new AtomicLong();
+
+  /**
+   * @return the current schedule version
+   */
+  public long current() {
+    return version.get();
+  }
+
+  /**
+   * Moves the version on without a voyage being stored, when something derived from
+   * the schedules has caught up with them, so that what was derived before is stale.
+   */
+  public void advance() {
+    version.incrementAndGet();
+  }
+
+  @Override
+  public void voyageStored(Voyage voyage) {
+    advance();
+  }
+}
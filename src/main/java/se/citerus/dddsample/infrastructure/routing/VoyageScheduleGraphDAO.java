@@ -0,0 +1,153 @@
+package se.citerus.dddsample.infrastructure.routing;
+
+import com.pathfinder.internal.GraphDAO;
+import com.pathfinder.internal.TransitGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.citerus.dddsample.domain.model.voyage.CarrierMovement;
+import se.citerus.dddsample.domain.model.voyage.Voyage;
+import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
+
+import java.lang.invoke.MethodHandles;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * The routing graph, as given by our voyage schedules.
+ * <p>
+ * Every carrier movement is a departure in the graph. All voyages are loaded
+ * the first time the graph is used, and from then on the schedule is updated
+ * one stored voyage at a time, so route queries never have to go to the database.
+ * <p>
+ * When a voyage is stored, the compact graph is rebuilt from the schedules in the
+ * background, and swapped in when it is done. Route queries meanwhile keep using the
+ * previous graph instead of waiting, and voyages stored during a rebuild are taken up
+ * by a single rebuild after it. The schedule version is moved on once the rebuilt graph
+ * is in use, so that routes found on the previous graph are not cached as current.
+ */
+public class VoyageScheduleGraphDAO implements GraphDAO, VoyageScheduleListener {
+
+  private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final VoyageRepository voyageRepository;
+  private final ScheduleVersion scheduleVersion;
+  private final Executor rebuildExecutor;
+  private final Map<String, String> unLocodes = new HashMap<>();
+  private final Map<String, VoyageDepartures> departuresByVoyage = new HashMap<>();
+  private boolean loaded;
+  private boolean rebuildPending;
+  private volatile TransitGraph transitGraph;
+
+  /**
+   * @param voyageRepository voyage repository to load the schedules from
+   * @param scheduleVersion version of the voyage schedules, moved on when a rebuilt graph is in use
+   * @param rebuildExecutor runs the graph rebuilds one at a time, in order
+   */
+  public VoyageScheduleGraphDAO(VoyageRepository voyageRepository, ScheduleVersion scheduleVersion, Executor rebuildExecutor) {
+    this.voyageRepository = voyageRepository;
+    this.scheduleVersion = scheduleVersion;
+    this.rebuildExecutor = rebuildExecutor;
+  }
+
+  @Override
+  public TransitGraph transitGraph() {
+    TransitGraph graph = transitGraph;
+    if (graph == null) {
+      // Nothing to route on before the first graph, so queries wait for it
+      synchronized (this) {
+        if (!loaded) {
+          voyageRepository.getAll().forEach(this::replaceDepartures);
+          loaded = true;
+          transitGraph = builder().build();
+        }
+        graph = transitGraph;
+      }
+    }
+    return graph;
+  }
+
+  @Override
+  public void voyageStored(Voyage voyage) {
+    synchronized (this) {
+      if (!loaded) {
+        // Will be part of the initial load
+        return;
+      }
+      replaceDepartures(voyage);
+      if (rebuildPending) {
+        // Taken up by the rebuild that has not started yet
+        return;
+      }
+      rebuildPending = true;
+    }
+    rebuildExecutor.execute(this::rebuild);
+  }
+
+  private void rebuild() {
+    final TransitGraph.Builder builder;
+    synchronized (this) {
+      rebuildPending = false;
+      builder = builder();
+    }
+    try {
+      transitGraph = builder.build();
+      scheduleVersion.advance();
+    } catch (RuntimeException e) {
+      logger.error("Could not rebuild the transit graph, routing on the previous one", e);
+    }
+  }
+
+  private void replaceDepartures(Voyage voyage) {
+    final VoyageDepartures departures = new VoyageDepartures(voyage.schedule().carrierMovements());
+    if (departures.size() == 0) {
+      departuresByVoyage.remove(voyage.voyageNumber().idString());
+    } else {
+      departuresByVoyage.put(voyage.voyageNumber().idString(), departures);
+    }
+  }
+
+  private TransitGraph.Builder builder() {
+    final TransitGraph.Builder builder = TransitGraph.builder();
+    departuresByVoyage.forEach((voyageNumber, departures) -> {
+      for (int i = 0; i < departures.size(); i++) {
+        builder.addDeparture(voyageNumber, departures.from[i], departures.to[i], departures.departureTimes[i], departures.arrivalTimes[i]);
+      }
+    });
+    return builder;
+  }
+
+  /**
+   * The carrier movements of a voyage, with the UN/LOCODEs shared between voyages.
+   */
+  private final class VoyageDepartures {
+    final String[] from;
+    final String[] to;
+    final long[] departureTimes;
+    final long[] arrivalTimes;
+
+    VoyageDepartures(List<CarrierMovement> carrierMovements) {
+      final int size = carrierMovements.size();
+      from = new String[size];
+      to = new String[size];
+      departureTimes = new long[size];
+      arrivalTimes = new long[size];
+      for (int i = 0; i < size; i++) {
+        final CarrierMovement carrierMovement = carrierMovements.get(i);
+        from[i] = unLocode(carrierMovement.departureLocation().unLocode().idString());
+        to[i] = unLocode(carrierMovement.arrivalLocation().unLocode().idString());
+        departureTimes[i] = carrierMovement.departureTime().getEpochSecond();
+        arrivalTimes[i] = carrierMovement.arrivalTime().getEpochSecond();
+      }
+    }
+
+    int size() {
+      return from.length;
+    }
+
+    private String unLocode(String unLocode) {
+      return unLocodes.computeIfAbsent(unLocode, key -> key);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package se.citerus.dddsample.infrastructure.routing;
+
+import se.citerus.dddsample.domain.model.voyage.Voyage;
+
+/**
+ * Is told about voyages, and thereby schedules, that have been stored.
+ */
+public interface VoyageScheduleListener {
+
+  /**
+   * Called once the voyage has been committed.
+   *
+   * @param voyage the stored voyage
+   */
+  void voyageStored(Voyage voyage);
+
+}
@@ -1,42 +1,39 @@
 package se.citerus.dddsample.interfaces;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.support.ResourceBundleMessageSource;
-import org.springframework.lang.Nullable;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.i18n.FixedLocaleResolver;
 import se.citerus.dddsample.application.ApplicationEvents;
 import se.citerus.dddsample.application.BookingService;
+import se.citerus.dddsample.application.tracking.CargoTrackingViews;
 import se.citerus.dddsample.domain.model.cargo.CargoRepository;
-import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
 import se.citerus.dddsample.domain.model.location.LocationRepository;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 import se.citerus.dddsample.interfaces.booking.facade.BookingServiceFacade;
 import se.citerus.dddsample.interfaces.booking.facade.internal.BookingServiceFacadeImpl;
 import se.citerus.dddsample.interfaces.booking.web.CargoAdminController;
+import se.citerus.dddsample.interfaces.booking.ws.CargoBookingRestService;
 import se.citerus.dddsample.interfaces.handling.file.UploadDirectoryScanner;
 import se.citerus.dddsample.interfaces.tracking.CargoTrackingController;
 import se.citerus.dddsample.interfaces.tracking.TrackCommandValidator;
+import se.citerus.dddsample.interfaces.tracking.ws.CargoBulkTrackingRestService;
 import se.citerus.dddsample.interfaces.tracking.ws.CargoTrackingRestService;
 
 import javax.persistence.EntityManager;
 import java.io.File;
-import java.lang.invoke.MethodHandles;
+import java.time.Duration;
 import java.util.Locale;
 
 @Configuration
 public class InterfacesApplicationContext implements WebMvcConfigurer {
-    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-
     @Value("${uploadDirectory}")
     public String uploadDirectory;
 
@@ -61,13 +58,18 @@ public class InterfacesApplicationContext implements WebMvcConfigurer {
     }
 
     @Bean
-    public CargoTrackingController cargoTrackingController(MessageSource messageSource, CargoRepository cargoRepository, HandlingEventRepository handlingEventRepository) {
-        return new CargoTrackingController(cargoRepository, handlingEventRepository, messageSource);
+    public CargoTrackingController cargoTrackingController(MessageSource messageSource, CargoTrackingViews cargoTrackingViews) {
+        return new CargoTrackingController(cargoTrackingViews, messageSource);
+    }
+
+    @Bean
+    public CargoTrackingRestService cargoTrackingRestService(CargoTrackingViews cargoTrackingViews, MessageSource messageSource) {
+        return new CargoTrackingRestService(cargoTrackingViews, messageSource);
     }
 
     @Bean
-    public CargoTrackingRestService cargoTrackingRestService(CargoRepository cargoRepository, HandlingEventRepository handlingEventRepository, MessageSource messageSource) {
-        return new CargoTrackingRestService(cargoRepository, handlingEventRepository, messageSource);
+    public CargoBulkTrackingRestService cargoBulkTrackingRestService(CargoTrackingViews cargoTrackingViews, MessageSource messageSource) {
+        return new CargoBulkTrackingRestService(cargoTrackingViews, messageSource, Jackson2ObjectMapperBuilder.json().build());
     }
 
     @Bean
@@ -80,16 +82,25 @@ public class InterfacesApplicationContext implements WebMvcConfigurer {
         return new CargoAdminController(bookingServiceFacade);
     }
 
+    @Bean
+    public CargoBookingRestService cargoBookingRestService(BookingServiceFacade bookingServiceFacade) {
+        return new CargoBookingRestService(bookingServiceFacade);
+    }
+
     @Bean
     public BookingServiceFacade bookingServiceFacade(BookingService bookingService, LocationRepository locationRepository, CargoRepository cargoRepository, VoyageRepository voyageRepository) {
         return new BookingServiceFacadeImpl(bookingService, locationRepository, cargoRepository, voyageRepository);
     }
 
-    @Bean
-    public UploadDirectoryScanner uploadDirectoryScanner(ApplicationEvents applicationEvents) {
+    @Bean(destroyMethod = "shutdown")
+    public UploadDirectoryScanner uploadDirectoryScanner(ApplicationEvents applicationEvents,
+                                                         @Value("${upload.parserThreads}") int parserThreads,
+                                                         @Value("${upload.settleMillis}") long settleMillis,
+                                                         @Value("${upload.claimTimeoutSeconds}") long claimTimeoutSeconds) {
         File uploadDirectoryFile = new File(uploadDirectory);
         File parseFailureDirectoryFile = new File(parseFailureDirectory);
-        return new UploadDirectoryScanner(uploadDirectoryFile, parseFailureDirectoryFile, applicationEvents);
+        return new UploadDirectoryScanner(uploadDirectoryFile, parseFailureDirectoryFile, applicationEvents,
+                parserThreads, Duration.ofMillis(settleMillis), Duration.ofSeconds(claimTimeoutSeconds));
     }
 
     @Override
@@ -98,20 +109,4 @@ public class InterfacesApplicationContext implements WebMvcConfigurer {
         openSessionInViewInterceptor.setEntityManagerFactory(entityManager.getEntityManagerFactory());
         registry.addWebRequestInterceptor(openSessionInViewInterceptor);
     }
-
-    @Bean
-    public ThreadPoolTaskScheduler myScheduler(@Nullable UploadDirectoryScanner scanner) {
-        if (scanner == null) {
-            log.info("No UploadDirectoryScannerBean found, skipping creation of scheduler.");
-            return null;
-        }
-        ThreadPoolTaskScheduler threadPoolTaskScheduler
-                = new ThreadPoolTaskScheduler();
-        threadPoolTaskScheduler.setPoolSize(10);
-        threadPoolTaskScheduler.setThreadNamePrefix(
-                "ThreadPoolTaskScheduler");
-        threadPoolTaskScheduler.initialize();
-        threadPoolTaskScheduler.scheduleAtFixedRate(scanner, 5000);
-        return threadPoolTaskScheduler;
-    }
 }
@@ -4,6 +4,8 @@ import java.rmi.RemoteException;
 import java.time.Instant;
 import java.util.List;
 
+import se.citerus.dddsample.interfaces.booking.facade.dto.CargoBookingDTO;
+import se.citerus.dddsample.interfaces.booking.facade.dto.CargoBookingResultDTO;
 import se.citerus.dddsample.interfaces.booking.facade.dto.CargoRoutingDTO;
 import se.citerus.dddsample.interfaces.booking.facade.dto.LocationDTO;
 import se.citerus.dddsample.interfaces.booking.facade.dto.RouteCandidateDTO;
@@ -16,6 +18,12 @@ public interface BookingServiceFacade {
 
   String bookNewCargo(String origin, String destination, Instant arrivalDeadline) throws RemoteException;
 
+  /**
+   * @param bookings cargos to book
+   * @return One result per booking, in the same order.
+   */
+  List<CargoBookingResultDTO> bookNewCargos(List<CargoBookingDTO> bookings) throws RemoteException;
+
   CargoRoutingDTO loadCargoForRouting(String trackingId) throws RemoteException;
 
   void assignCargoToRoute(String trackingId, RouteCandidateDTO route) throws RemoteException;
@@ -26,6 +34,11 @@ public interface BookingServiceFacade {
 
   List<LocationDTO> listShippingLocations() throws RemoteException;
 
-  List<CargoRoutingDTO> listAllCargos() throws RemoteException;
+  /**
+   * @param afterTrackingId tracking id of the last cargo on the previous page, or {@code null} for the first page
+   * @param pageSize maximum number of cargos on the page
+   * @return A page of cargos, ordered by tracking id.
+   */
+  List<CargoRoutingDTO> listCargos(String afterTrackingId, int pageSize) throws RemoteException;
 
 }
@@ -0,0 +1,33 @@
+package se.citerus.dddsample.interfaces.booking.facade.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * DTO for a cargo to be booked.
+ */
+public class CargoBookingDTO implements Serializable {
+
+  private final String origin;
+  private final String destination;
+  private final Instant arrivalDeadline;
+
+  public CargoBookingDTO(String origin, String destination, Instant arrivalDeadline) {
+    this.origin = origin;
+    this.destination = destination;
+    this.arrivalDeadline = arrivalDeadline;
+  }
+
+  public String getOrigin() {
+    return origin;
+  }
+
+  public String getDestination() {
+    return destination;
+  }
+
+  public Instant getArrivalDeadline() {
+    return arrivalDeadline;
+  }
+
+}
@@ -0,0 +1,32 @@
+package se.citerus.dddsample.interfaces.booking.facade.dto;
+
+import java.io.Serializable;
+
+/**
+ * DTO for the outcome of booking a cargo: either a tracking id, or an error.
+ */
+public class CargoBookingResultDTO implements Serializable {
+
+  private final String trackingId;
+  private final String error;
+
+  public CargoBookingResultDTO(String trackingId, String error) {
+    this.trackingId = trackingId;
+    this.error = error;
+  }
+
+  /**
+   * @return Tracking id of the booked cargo, or null if the cargo was not booked.
+   */
+  public String getTrackingId() {
+    return trackingId;
+  }
+
+  /**
+   * @return Why the cargo was not booked, or null if it was booked.
+   */
+  public String getError() {
+    return error;
+  }
+
+}
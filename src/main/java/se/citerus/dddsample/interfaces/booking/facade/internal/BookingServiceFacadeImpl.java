@@ -1,6 +1,8 @@
 package se.citerus.dddsample.interfaces.booking.facade.internal;
 
 import se.citerus.dddsample.application.BookingService;
+import se.citerus.dddsample.application.CargoBookingRequest;
+import se.citerus.dddsample.application.CargoBookingResult;
 import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.cargo.CargoRepository;
 import se.citerus.dddsample.domain.model.cargo.Itinerary;
@@ -10,6 +12,8 @@ import se.citerus.dddsample.domain.model.location.LocationRepository;
 import se.citerus.dddsample.domain.model.location.UnLocode;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 import se.citerus.dddsample.interfaces.booking.facade.BookingServiceFacade;
+import se.citerus.dddsample.interfaces.booking.facade.dto.CargoBookingDTO;
+import se.citerus.dddsample.interfaces.booking.facade.dto.CargoBookingResultDTO;
 import se.citerus.dddsample.interfaces.booking.facade.dto.CargoRoutingDTO;
 import se.citerus.dddsample.interfaces.booking.facade.dto.LocationDTO;
 import se.citerus.dddsample.interfaces.booking.facade.dto.RouteCandidateDTO;
@@ -20,6 +24,7 @@ import se.citerus.dddsample.interfaces.booking.facade.internal.assembler.Locatio
 import java.rmi.RemoteException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -59,6 +64,35 @@ public class BookingServiceFacadeImpl implements BookingServiceFacade {
     return trackingId.idString();
   }
 
+  @Override
+  public List<CargoBookingResultDTO> bookNewCargos(List<CargoBookingDTO> bookings) {
+    final CargoBookingResultDTO[] results = new CargoBookingResultDTO[bookings.size()];
+    final List<CargoBookingRequest> requests = new ArrayList<CargoBookingRequest>(bookings.size());
+    final List<Integer> indexes = new ArrayList<Integer>(bookings.size());
+    for (int i = 0; i < bookings.size(); i++) {
+      final CargoBookingDTO booking = bookings.get(i);
+      try {
+        requests.add(new CargoBookingRequest(
+          new UnLocode(booking.getOrigin()),
+          new UnLocode(booking.getDestination()),
+          booking.getArrivalDeadline()
+        ));
+        indexes.add(i);
+      } catch (IllegalArgumentException | NullPointerException e) {
+        results[i] = new CargoBookingResultDTO(null, e.getMessage());
+      }
+    }
+
+    final List<CargoBookingResult> booked = bookingService.bookNewCargos(requests);
+    for (int i = 0; i < booked.size(); i++) {
+      final CargoBookingResult result = booked.get(i);
+      results[indexes.get(i)] = result.isBooked()
+        ? new CargoBookingResultDTO(result.trackingId().idString(), null)
+        : new CargoBookingResultDTO(null, result.error());
+    }
+    return Arrays.asList(results);
+  }
+
   @Override
   public CargoRoutingDTO loadCargoForRouting(String trackingId) {
     final Cargo cargo = cargoRepository.find(new TrackingId(trackingId));
@@ -80,8 +114,9 @@ public class BookingServiceFacadeImpl implements BookingServiceFacade {
   }
 
   @Override
-  public List<CargoRoutingDTO> listAllCargos() {
-    final List<Cargo> cargoList = cargoRepository.getAll();
+  public List<CargoRoutingDTO> listCargos(String afterTrackingId, int pageSize) {
+    final TrackingId after = afterTrackingId == null || afterTrackingId.isEmpty() ? null : new TrackingId(afterTrackingId);
+    final List<Cargo> cargoList = cargoRepository.findPage(after, pageSize);
     final List<CargoRoutingDTO> dtoList = new ArrayList<CargoRoutingDTO>(cargoList.size());
     final CargoRoutingDTOAssembler assembler = new CargoRoutingDTOAssembler();
     for (Cargo cargo : cargoList) {
@@ -39,6 +39,8 @@ import java.util.Map;
 @RequestMapping("/admin")
 public final class CargoAdminController {
 
+    static final int PAGE_SIZE = 50;
+
     private final BookingServiceFacade bookingServiceFacade;
 
     public CargoAdminController(BookingServiceFacade bookingServiceFacade) {
@@ -78,9 +80,16 @@ public final class CargoAdminController {
 
     @RequestMapping("/list")
     public String list(HttpServletRequest request, HttpServletResponse response, Map<String, Object> model) throws Exception {
-        List<CargoRoutingDTO> cargoList = bookingServiceFacade.listAllCargos();
+        String after = request.getParameter("after");
+        // One cargo more than is shown tells if there is a next page
+        List<CargoRoutingDTO> cargoList = bookingServiceFacade.listCargos(after, PAGE_SIZE + 1);
+        if (cargoList.size() > PAGE_SIZE) {
+            cargoList = cargoList.subList(0, PAGE_SIZE);
+            model.put("nextAfter", cargoList.get(PAGE_SIZE - 1).getTrackingId());
+        }
 
         model.put("cargoList", cargoList);
+        model.put("after", after);
         return "admin/list";
     }
 
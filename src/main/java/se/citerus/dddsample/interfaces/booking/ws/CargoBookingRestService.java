@@ -0,0 +1,40 @@
+package se.citerus.dddsample.interfaces.booking.ws;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import se.citerus.dddsample.interfaces.booking.facade.BookingServiceFacade;
+import se.citerus.dddsample.interfaces.booking.facade.dto.CargoBookingDTO;
+import se.citerus.dddsample.interfaces.booking.facade.dto.CargoBookingResultDTO;
+
+import java.rmi.RemoteException;
+import java.util.List;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Books many cargos in one call.
+ * <p>
+ * The locations of all bookings are looked up together and the cargos are stored
+ * in one transaction. A booking that cannot be made gets an error entry in the response,
+ * instead of failing the whole request.
+ */
+@RestController
+public class CargoBookingRestService {
+
+    private final BookingServiceFacade bookingServiceFacade;
+
+    public CargoBookingRestService(BookingServiceFacade bookingServiceFacade) {
+        this.bookingServiceFacade = bookingServiceFacade;
+    }
+
+    /**
+     * @param bookings cargos to book, as a JSON array of origin, destination and arrival deadline
+     * @return A JSON array with one entry per booking, in the same order:
+     *         either the tracking id of the booked cargo, or an error
+     */
+    @PostMapping(value = "/api/book", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public List<CargoBookingResultDTO> bookCargos(@RequestBody List<CargoBookingDTO> bookings) throws RemoteException {
+        return bookingServiceFacade.bookNewCargos(bookings);
+    }
+}
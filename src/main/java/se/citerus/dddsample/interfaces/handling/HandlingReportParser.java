@@ -7,8 +7,6 @@ import se.citerus.dddsample.domain.model.location.UnLocode;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.interfaces.handling.ws.HandlingReport;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.*;
 import java.time.format.DateTimeParseException;
 import java.util.*;
@@ -19,11 +17,23 @@ import static java.util.stream.Collectors.toList;
 /**
  * Utility methods for parsing various forms of handling report formats.
  * Supports the notification pattern for incremental error reporting.
+ * <p/>
+ * The methods that take a range of a {@link CharSequence} are a fast path for reports
+ * read in bulk: they parse the characters in place, and signal invalid input
+ * with a return value instead of an exception.
  */
 public class HandlingReportParser {
 
   public static final String ISO_8601_FORMAT = "yyyy-MM-dd HH:mm";
-  public static final SimpleDateFormat SIMPLE_DATE_FORMAT = new SimpleDateFormat(ISO_8601_FORMAT);
+
+  /**
+   * Returned by {@link #parseEpochSecond(CharSequence, int, int)} for text that is not a date.
+   */
+  public static final long INVALID_DATE = Long.MIN_VALUE;
+
+  private static final HandlingEvent.Type[] EVENT_TYPES = HandlingEvent.Type.values();
+  private static final String VALID_EVENT_TYPES = Arrays.toString(EVENT_TYPES);
+  private static final int DAYS_0000_TO_1970 = 719528;
 
   public static UnLocode parseUnLocode(final String unlocode) {
     try {
@@ -34,11 +44,10 @@ public class HandlingReportParser {
   }
 
   public static TrackingId parseTrackingId(final String trackingId) {
-    try {
-      return new TrackingId(trackingId);
-    } catch (IllegalArgumentException|NullPointerException e) {
-      throw new IllegalArgumentException("Failed to parse trackingId: " + trackingId, e);
+    if (trackingId == null || !TrackingId.isValid(trackingId, 0, trackingId.length())) {
+      throw new IllegalArgumentException("Failed to parse trackingId: " + trackingId);
     }
+    return new TrackingId(trackingId);
   }
 
   public static VoyageNumber parseVoyageNumber(final String voyageNumber) {
@@ -66,8 +75,128 @@ public class HandlingReportParser {
     try {
       return HandlingEvent.Type.valueOf(eventType);
     } catch (IllegalArgumentException e) {
-      throw new IllegalArgumentException(eventType + " is not a valid handling event type. Valid types are: " + Arrays.toString(HandlingEvent.Type.values()));
+      throw new IllegalArgumentException(eventType + " is not a valid handling event type. Valid types are: " + VALID_EVENT_TYPES);
+    }
+  }
+
+  /**
+   * Parses a date on the format {@value #ISO_8601_FORMAT}, in UTC.
+   *
+   * @param text text containing the date
+   * @param start index of the first character of the date
+   * @param end index after the last character of the date
+   * @return Seconds since the epoch, or {@link #INVALID_DATE} if the characters are not a valid date.
+   */
+  public static long parseEpochSecond(final CharSequence text, final int start, final int end) {
+    if (end - start != ISO_8601_FORMAT.length()
+      || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-'
+      || text.charAt(start + 10) != ' ' || text.charAt(start + 13) != ':') {
+      return INVALID_DATE;
+    }
+    final int year = digits(text, start, 4);
+    final int month = digits(text, start + 5, 2);
+    final int day = digits(text, start + 8, 2);
+    final int hour = digits(text, start + 11, 2);
+    final int minute = digits(text, start + 14, 2);
+    if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+      || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+      return INVALID_DATE;
+    }
+    return epochDay(year, month, day) * 86400L + hour * 3600 + minute * 60;
+  }
+
+  /**
+   * @param text text containing the event type
+   * @param start index of the first character of the event type
+   * @param end index after the last character of the event type
+   * @return The handling event type with that name, or null if there is none.
+   */
+  public static HandlingEvent.Type parseEventType(final CharSequence text, final int start, final int end) {
+    for (HandlingEvent.Type type : EVENT_TYPES) {
+      if (regionMatches(type.name(), text, start, end)) {
+        return type;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return True if the characters are a valid tracking id.
+   */
+  public static boolean isTrackingId(final CharSequence text, final int start, final int end) {
+    return TrackingId.isValid(text, start, end);
+  }
+
+  /**
+   * @return True if the characters are a voyage number, false if they are blank, meaning that there is no voyage.
+   */
+  public static boolean isVoyageNumber(final CharSequence text, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (!Character.isWhitespace(text.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return True if the characters are a valid UN/LOCODE.
+   */
+  public static boolean isUnLocode(final CharSequence text, final int start, final int end) {
+    return UnLocode.isValid(text, start, end);
+  }
+
+  private static int digits(final CharSequence text, final int start, final int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      final char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private static int lengthOfMonth(final int year, final int month) {
+    switch (month) {
+      case 2:
+        return Year.isLeap(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /**
+   * Same as {@link LocalDate#toEpochDay()}, for years from 0.
+   */
+  private static long epochDay(final long year, final long month, final long day) {
+    long total = 365 * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    total += (367 * month - 362) / 12 + day - 1;
+    if (month > 2) {
+      total--;
+      if (!Year.isLeap(year)) {
+        total--;
+      }
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+
+  private static boolean regionMatches(final String name, final CharSequence text, final int start, final int end) {
+    if (end - start != name.length()) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (text.charAt(start + i) != name.charAt(i)) {
+        return false;
+      }
     }
+    return true;
   }
 
   public static Instant parseCompletionTime(LocalDateTime completionTime) {
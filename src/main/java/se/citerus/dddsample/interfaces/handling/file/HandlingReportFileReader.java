@@ -0,0 +1,248 @@
+package se.citerus.dddsample.interfaces.handling.file;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of an uploaded handling report file one at a time, through fixed size buffers,
+ * and splits each line into columns separated by two or more whitespace characters.
+ * <p/>
+ * The file is never held in memory as a whole, and the line and its column boundaries
+ * are kept in buffers that are reused from one line to the next.
+ */
+final class HandlingReportFileReader {
+
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Receives the lines of a file.
+   */
+  interface LineHandler {
+
+    /**
+     * @param line the current line, only valid until this method returns
+     */
+    void handle(Line line) throws IOException;
+  }
+
+  private HandlingReportFileReader() {
+  }
+
+  /**
+   * Reads a file and hands each line to the handler, in order.
+   *
+   * @param file file to read, UTF-8 encoded
+   * @param handler receives the lines
+   * @throws IOException if reading the file fails, or if the handler throws it
+   */
+  static void read(final Path file, final LineHandler handler) throws IOException {
+    final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    final Line line = new Line();
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      boolean endOfInput = false;
+      while (!endOfInput) {
+        endOfInput = channel.read(bytes) < 0;
+        bytes.flip();
+        decoder.decode(bytes, chars, endOfInput);
+        if (endOfInput) {
+          decoder.flush(chars);
+        }
+        bytes.compact();
+
+        chars.flip();
+        line.append(chars, handler);
+        chars.clear();
+      }
+      line.end(handler);
+    }
+  }
+
+  /**
+   * A line of the file, with the boundaries of its columns.
+   */
+  static final class Line implements CharSequence {
+
+    private static final int MAX_COLUMNS = 5;
+
+    private char[] chars = new char[256];
+    private int length;
+    private boolean afterCarriageReturn;
+
+    private final int[] columnStarts = new int[MAX_COLUMNS];
+    private final int[] columnEnds = new int[MAX_COLUMNS];
+    private int columnCount;
+
+    /**
+     * @return The number of columns on the line.
+     */
+    int columnCount() {
+      return columnCount;
+    }
+
+    /**
+     * @param index column index, from zero
+     * @return The text of the column.
+     */
+    String column(final int index) {
+      return new String(chars, columnStart(index), columnEnd(index) - columnStart(index));
+    }
+
+    /**
+     * @param index column index, from zero
+     * @return Index of the first character of the column on this line.
+     */
+    int columnStart(final int index) {
+      checkColumn(index);
+      return columnStarts[index];
+    }
+
+    /**
+     * @param index column index, from zero
+     * @return Index after the last character of the column on this line.
+     */
+    int columnEnd(final int index) {
+      checkColumn(index);
+      return columnEnds[index];
+    }
+
+    private void checkColumn(final int index) {
+      if (index >= Math.min(columnCount, MAX_COLUMNS)) {
+        throw new IndexOutOfBoundsException("Column " + index + " of " + columnCount);
+      }
+    }
+
+    /**
+     * Writes the line, without a line separator.
+     *
+     * @param writer writer
+     */
+    void writeTo(final Writer writer) throws IOException {
+      writer.write(chars, 0, length);
+    }
+
+    /**
+     * Replaces this line with the given text, which must not contain line separators.
+     *
+     * @param text text of the line
+     * @return This line.
+     */
+    Line set(final CharSequence text) {
+      length = 0;
+      for (int i = 0; i < text.length(); i++) {
+        appendChar(text.charAt(i));
+      }
+      split();
+      return this;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      if (index >= length) {
+        throw new IndexOutOfBoundsException("Index " + index + " of " + length);
+      }
+      return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return new String(chars, 0, length);
+    }
+
+    private void append(final CharBuffer buffer, final LineHandler handler) throws IOException {
+      while (buffer.hasRemaining()) {
+        final char c = buffer.get();
+        if (c == '\n' && afterCarriageReturn) {
+          afterCarriageReturn = false;
+        } else if (c == '\n' || c == '\r') {
+          afterCarriageReturn = c == '\r';
+          emit(handler);
+        } else {
+          afterCarriageReturn = false;
+          appendChar(c);
+        }
+      }
+    }
+
+    private void appendChar(final char c) {
+      if (length == chars.length) {
+        chars = Arrays.copyOf(chars, length * 2);
+      }
+      chars[length++] = c;
+    }
+
+    private void end(final LineHandler handler) throws IOException {
+      if (length > 0) {
+        emit(handler);
+      }
+    }
+
+    private void emit(final LineHandler handler) throws IOException {
+      split();
+      try {
+        handler.handle(this);
+      } finally {
+        length = 0;
+      }
+    }
+
+    /**
+     * Splits the line the same way as {@code line.split("\\s{2,}")}: a separator at the start
+     * of the line gives an empty first column, and a separator at the end gives no column.
+     */
+    private void split() {
+      columnCount = 0;
+      int start = 0;
+      int i = 0;
+      while (i < length) {
+        if (isWhitespace(chars[i]) && i + 1 < length && isWhitespace(chars[i + 1])) {
+          addColumn(start, i);
+          while (i < length && isWhitespace(chars[i])) {
+            i++;
+          }
+          start = i;
+        } else {
+          i++;
+        }
+      }
+      if (start < length || columnCount == 0) {
+        addColumn(start, length);
+      }
+    }
+
+    private void addColumn(final int start, final int end) {
+      if (columnCount < MAX_COLUMNS) {
+        columnStarts[columnCount] = start;
+        columnEnds[columnCount] = end;
+      }
+      columnCount++;
+    }
+
+    private static boolean isWhitespace(final char c) {
+      return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+  }
+}
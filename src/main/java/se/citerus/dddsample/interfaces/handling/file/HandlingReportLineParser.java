@@ -0,0 +1,98 @@
+package se.citerus.dddsample.interfaces.handling.file;
+
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+import java.time.Instant;
+
+import static se.citerus.dddsample.interfaces.handling.HandlingReportParser.*;
+
+/**
+ * Parses the lines of an uploaded handling report file into registration attempts.
+ * <p/>
+ * A line is validated in place, before anything is created from it,
+ * so a line that is rejected costs no allocations.
+ * A parser is reused from line to line, by one thread at a time.
+ */
+final class HandlingReportLineParser {
+
+  /**
+   * Why a line was rejected.
+   */
+  enum Rejection {
+    WRONG_NUMBER_OF_COLUMNS("Wrong number of columns, must be 4 or 5"),
+    INVALID_DATE("Invalid date format, must be on ISO 8601 format: " + ISO_8601_FORMAT),
+    INVALID_TRACKING_ID("Invalid tracking id"),
+    INVALID_UNLOCODE("Invalid UN/LOCODE"),
+    INVALID_EVENT_TYPE("Invalid handling event type");
+
+    private final String message;
+
+    Rejection(final String message) {
+      this.message = message;
+    }
+
+    String message() {
+      return message;
+    }
+  }
+
+  private static final int NO_VOYAGE = -1;
+
+  private HandlingReportFileReader.Line line;
+  private long completionTime;
+  private int trackingIdColumn;
+  private int voyageNumberColumn;
+  private int unLocodeColumn;
+  private HandlingEvent.Type type;
+
+  /**
+   * @param line line of the file
+   * @return Why the line was rejected, or null if it can be turned into an attempt
+   *         by {@link #attempt(Instant)}.
+   */
+  Rejection parse(final HandlingReportFileReader.Line line) {
+    final int columns = line.columnCount();
+    if (columns != 4 && columns != 5) {
+      return Rejection.WRONG_NUMBER_OF_COLUMNS;
+    }
+    this.line = line;
+    trackingIdColumn = 1;
+    voyageNumberColumn = columns == 5 && isVoyageNumber(line, line.columnStart(2), line.columnEnd(2)) ? 2 : NO_VOYAGE;
+    unLocodeColumn = columns - 2;
+
+    completionTime = parseEpochSecond(line, line.columnStart(0), line.columnEnd(0));
+    if (completionTime == INVALID_DATE) {
+      return Rejection.INVALID_DATE;
+    }
+    if (!isTrackingId(line, line.columnStart(trackingIdColumn), line.columnEnd(trackingIdColumn))) {
+      return Rejection.INVALID_TRACKING_ID;
+    }
+    if (!isUnLocode(line, line.columnStart(unLocodeColumn), line.columnEnd(unLocodeColumn))) {
+      return Rejection.INVALID_UNLOCODE;
+    }
+    type = parseEventType(line, line.columnStart(columns - 1), line.columnEnd(columns - 1));
+    if (type == null) {
+      return Rejection.INVALID_EVENT_TYPE;
+    }
+    return null;
+  }
+
+  /**
+   * @param registrationTime when the attempt was received
+   * @return The attempt on the line that was last parsed without being rejected.
+   */
+  HandlingEventRegistrationAttempt attempt(final Instant registrationTime) {
+    return new HandlingEventRegistrationAttempt(
+      registrationTime,
+      Instant.ofEpochSecond(completionTime),
+      new TrackingId(line.column(trackingIdColumn)),
+      voyageNumberColumn == NO_VOYAGE ? null : new VoyageNumber(line.column(voyageNumberColumn)),
+      type,
+      new UnLocode(line.column(unLocodeColumn))
+    );
+  }
+}
@@ -4,142 +4,464 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.lang.NonNull;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import se.citerus.dddsample.application.ApplicationEvents;
-import se.citerus.dddsample.domain.model.cargo.TrackingId;
-import se.citerus.dddsample.domain.model.handling.HandlingEvent;
-import se.citerus.dddsample.domain.model.location.UnLocode;
-import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.lang.invoke.MethodHandles;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static se.citerus.dddsample.interfaces.handling.HandlingReportParser.*;
+import static java.nio.file.StandardWatchEventKinds.*;
 
 /**
- * Periodically scans a certain directory for files and attempts
+ * Watches a certain directory for files and attempts
  * to parse handling event registrations from the contents.
  * <p/>
- * Files that fail to parse are moved into a separate directory,
- * successful files are deleted.
+ * A file is picked up once it has not changed for the settle time, and is claimed by
+ * moving it into a claim directory before it is parsed, so that several nodes can
+ * share one upload directory without parsing a file twice. Files are parsed in parallel,
+ * and a file is only claimed when there is a parser free to take it, leaving the rest
+ * to other nodes. Files whose names start with a dot are ignored, so uploads can be
+ * written under such a name and renamed when they are complete.
+ * <p/>
+ * The registration attempts of a file are sent in batches of up to {@link #BATCH_SIZE} lines.
+ * Lines that fail to parse, or whose batch could not be sent, are written to a separate directory,
+ * files are deleted when they have been parsed.
+ * <p/>
+ * The modification time of a claimed file is kept up to date while it is being parsed.
+ * A claimed file that has not been touched for the claim timeout was claimed by a node
+ * that stopped, and is moved back into the upload directory to be parsed again.
+ * The batches that the stopped node had already sent are then sent twice.
  */
-public class UploadDirectoryScanner extends TimerTask implements InitializingBean {
+public class UploadDirectoryScanner implements InitializingBean {
+
+  static final String CLAIM_DIRECTORY = ".claimed";
+  static final int BATCH_SIZE = 500;
+
+  /* Claimed file names are a random UUID and a dash in front of the uploaded name */
+  private static final int CLAIM_PREFIX_LENGTH = 37;
 
   private final File uploadDirectory;
   private final File parseFailureDirectory;
+  private final int parserThreads;
+  private final Duration settleTime;
+  private final Duration claimTimeout;
 
   private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private final ApplicationEvents applicationEvents;
 
-  public UploadDirectoryScanner(@NonNull File uploadDirectory, @NonNull File parseFailureDirectory, ApplicationEvents applicationEvents) {
+  /* Files seen in the upload directory that have not been claimed, only used by the watcher thread */
+  private final Map<Path, Candidate> candidates = new LinkedHashMap<>();
+  private final AtomicInteger filesInProgress = new AtomicInteger();
+  private final Set<Path> claimedFiles = ConcurrentHashMap.newKeySet();
+  private final AtomicLong lines = new AtomicLong();
+  private volatile int queueDepth;
+  private volatile double linesPerSecond;
+
+  private WatchService watchService;
+  private Thread watcher;
+  private ExecutorService parsers;
+
+  /**
+   * @param uploadDirectory directory to watch
+   * @param parseFailureDirectory directory for lines that could not be parsed
+   * @param applicationEvents receives the registration attempts
+   * @param parserThreads number of files parsed at once
+   * @param settleTime how long a file must be unchanged before it is parsed
+   * @param claimTimeout how long a claimed file may be left untouched before it is parsed again
+   */
+  public UploadDirectoryScanner(@NonNull File uploadDirectory, @NonNull File parseFailureDirectory, ApplicationEvents applicationEvents,
+                                int parserThreads, Duration settleTime, Duration claimTimeout) {
     this.uploadDirectory = uploadDirectory;
     this.parseFailureDirectory = parseFailureDirectory;
     this.applicationEvents = applicationEvents;
+    this.parserThreads = parserThreads;
+    this.settleTime = settleTime;
+    this.claimTimeout = claimTimeout;
   }
 
-  @SuppressWarnings("ConstantConditions")
-  @Override
-  public void run() {
-    for (File file : uploadDirectory.listFiles()) {
-      try {
-        parse(file);
-        delete(file);
-        logger.info("Import of {} complete", file.getName());
-      } catch (Exception e) {
-        logger.error("Error parsing uploaded file", e);
-        move(file);
+  /**
+   * @return number of files in the upload directory waiting to be claimed
+   */
+  public int queueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * @return number of files being parsed by this node
+   */
+  public int filesInProgress() {
+    return filesInProgress.get();
+  }
+
+  /**
+   * @return number of lines read by this node
+   */
+  public long lineCount() {
+    return lines.get();
+  }
+
+  /**
+   * @return lines read per second by this node, measured over about the last second
+   */
+  public double linesPerSecond() {
+    return linesPerSecond;
+  }
+
+  private void watch() {
+    final Path uploadPath = uploadDirectory.toPath();
+    final long pollMillis = Math.max(10, Math.min(1000, settleTime.toMillis() / 2));
+    long sampledAt = System.nanoTime();
+    long sampledLines = 0;
+    long sweptAt = sampledAt;
+    try {
+      releaseStaleClaims(uploadPath);
+      addExistingFiles(uploadPath);
+      while (!Thread.currentThread().isInterrupted()) {
+        final WatchKey key = watchService.poll(pollMillis, TimeUnit.MILLISECONDS);
+        if (key != null) {
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+              addExistingFiles(uploadPath);
+            } else {
+              addCandidate(uploadPath.resolve((Path) event.context()));
+            }
+          }
+          key.reset();
+        }
+        dispatchSettledFiles();
+
+        final long now = System.nanoTime();
+        if (now - sampledAt >= TimeUnit.SECONDS.toNanos(1)) {
+          final long current = lines.get();
+          linesPerSecond = (current - sampledLines) * 1e9 / (now - sampledAt);
+          sampledLines = current;
+          sampledAt = now;
+        }
+        if (now - sweptAt >= claimTimeout.toNanos() / 2) {
+          releaseStaleClaims(uploadPath);
+          sweptAt = now;
+        }
       }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      // Shutting down
+    } catch (IOException e) {
+      logger.error("Stopped watching upload directory {}", uploadDirectory, e);
     }
   }
 
   /**
-   * Reads an uploaded file into memory and parses it line by line, returning a list of parsed lines.
-   * Any unparseable lines will be stored in a new file and saved to the parseFailureDirectory.
-   * @param file the file to parse.
-   * @throws IOException if reading or writing the file fails.
+   * Moves the files that were claimed by a node that has stopped back into the upload directory,
+   * under the name they were uploaded with unless another file has been uploaded with that name.
    */
-  private void parse(final File file) throws IOException {
-    final List<String> lines = Files.readAllLines(file.toPath());
-    final List<String> rejectedLines = new ArrayList<>();
-    for (String line : lines) {
-      try {
-        String[] columns = parseLine(line);
-        queueAttempt(columns[0], columns[1], columns[2], columns[3], columns[4]);
-      } catch (Exception e) {
-        logger.error("Rejected line: {}", line, e);
-        rejectedLines.add(line);
+  private void releaseStaleClaims(final Path uploadPath) throws IOException {
+    final FileTime staleBefore = FileTime.from(Instant.now().minus(claimTimeout));
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadPath.resolve(CLAIM_DIRECTORY))) {
+      for (Path claimed : files) {
+        final String name = claimed.getFileName().toString();
+        if (claimedFiles.contains(claimed) || name.length() <= CLAIM_PREFIX_LENGTH) {
+          continue;
+        }
+        try {
+          if (Files.getLastModifiedTime(claimed).compareTo(staleBefore) >= 0) {
+            continue;
+          }
+          final Path released = uploadPath.resolve(name.substring(CLAIM_PREFIX_LENGTH));
+          Files.move(claimed, Files.exists(released) ? uploadPath.resolve(name) : released, StandardCopyOption.ATOMIC_MOVE);
+          logger.warn("Released stale claim {}", name);
+        } catch (NoSuchFileException e) {
+          // Finished, or released by another node
+        } catch (IOException e) {
+          logger.error("Could not release stale claim {}", name, e);
+        }
       }
     }
-    if (!rejectedLines.isEmpty()) {
-      writeRejectedLinesToFile(toRejectedFilename(file), rejectedLines);
+  }
+
+  private void addExistingFiles(final Path uploadPath) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadPath)) {
+      for (Path file : files) {
+        addCandidate(file);
+      }
     }
   }
 
-  private String toRejectedFilename(final File file) {
-    return file.getName() + ".reject";
+  private void addCandidate(final Path file) {
+    if (!file.getFileName().toString().startsWith(".")) {
+      candidates.putIfAbsent(file, new Candidate());
+    }
   }
 
-  private void writeRejectedLinesToFile(final String filename, final List<String> rejectedLines) throws IOException {
-    Files.write(
-            new File(parseFailureDirectory, filename).toPath(),
-            rejectedLines,
-            StandardOpenOption.APPEND);
+  private void dispatchSettledFiles() {
+    final long now = System.nanoTime();
+    final Iterator<Map.Entry<Path, Candidate>> entries = candidates.entrySet().iterator();
+    while (entries.hasNext()) {
+      final Map.Entry<Path, Candidate> entry = entries.next();
+      final Path file = entry.getKey();
+      final BasicFileAttributes attributes;
+      try {
+        attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      } catch (IOException e) {
+        // Claimed by another node, or removed
+        entries.remove();
+        continue;
+      }
+      if (!attributes.isRegularFile()) {
+        entries.remove();
+      } else if (entry.getValue().changed(attributes, now + settleTime.toNanos())) {
+        // Still being written
+      } else if (entry.getValue().settlesAt - now <= 0 && filesInProgress.get() < parserThreads) {
+        entries.remove();
+        claim(file);
+      }
+    }
+    queueDepth = candidates.size();
   }
 
-  private String[] parseLine(final String line) {
-    final String[] columns = line.split("\\s{2,}");
-    if (columns.length == 5) {
-      return new String[]{columns[0], columns[1], columns[2], columns[3], columns[4]};
-    } else if (columns.length == 4) {
-      return new String[]{columns[0], columns[1], "", columns[2], columns[3]};
-    } else {
-      throw new IllegalArgumentException(String.format("Wrong number of columns on line: %s, must be 4 or 5", line));
+  private void claim(final Path file) {
+    final Path claimed = uploadDirectory.toPath().resolve(CLAIM_DIRECTORY).resolve(UUID.randomUUID() + "-" + file.getFileName());
+    try {
+      Files.move(file, claimed, StandardCopyOption.ATOMIC_MOVE);
+      touch(claimed);
+    } catch (NoSuchFileException e) {
+      // Claimed by another node
+      return;
+    } catch (IOException e) {
+      logger.error("Could not claim {}", file, e);
+      return;
     }
+    filesInProgress.incrementAndGet();
+    claimedFiles.add(claimed);
+    parsers.execute(() -> {
+      try {
+        importFile(claimed.toFile(), file.getFileName().toString());
+      } finally {
+        claimedFiles.remove(claimed);
+        filesInProgress.decrementAndGet();
+      }
+    });
   }
 
-  private void queueAttempt(String completionTimeStr, String trackingIdStr, String voyageNumberStr, String unLocodeStr, String eventTypeStr) throws Exception {
+  private void importFile(final File file, final String name) {
+    final long start = System.nanoTime();
     try {
-      final Instant date = parseDate(completionTimeStr);
-      final TrackingId trackingId = parseTrackingId(trackingIdStr);
-      final VoyageNumber voyageNumber = parseVoyageNumber(voyageNumberStr);
-      final HandlingEvent.Type eventType = parseEventType(eventTypeStr);
-      final UnLocode unLocode = parseUnLocode(unLocodeStr);
-      final HandlingEventRegistrationAttempt attempt = new HandlingEventRegistrationAttempt(
-              Instant.now(), date, trackingId, voyageNumber, eventType, unLocode);
-      applicationEvents.receivedHandlingEventRegistrationAttempt(attempt);
-    } catch (IllegalArgumentException e) {
-      throw new Exception("Error parsing HandlingReport", e);
+      final long count = parse(file, name);
+      delete(file);
+      final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      logger.info("Import of {} complete, {} lines in {} ms, {} files waiting", name, count, millis, queueDepth);
+    } catch (Exception e) {
+      logger.error("Error parsing uploaded file", e);
+      move(file, name);
     }
   }
 
+  /**
+   * Parses an uploaded file line by line, queueing the registration attempts in batches as they are read.
+   * Any unparseable lines will be stored in a new file and saved to the parseFailureDirectory.
+   * @param file the file to parse.
+   * @param name the name the file was uploaded with.
+   * @return the number of lines in the file.
+   * @throws IOException if reading the file or writing the rejected lines fails.
+   */
+  private long parse(final File file, final String name) throws IOException {
+    final long[] count = new long[1];
+    final HandlingReportLineParser parser = new HandlingReportLineParser();
+    try (RejectedLines rejectedLines = new RejectedLines(new File(parseFailureDirectory, toRejectedFilename(name)))) {
+      final Batch batch = new Batch(file.toPath(), rejectedLines);
+      HandlingReportFileReader.read(file.toPath(), line -> {
+        count[0]++;
+        lines.incrementAndGet();
+        final HandlingReportLineParser.Rejection rejection = parser.parse(line);
+        if (rejection != null) {
+          logger.error("Rejected line: {}: {}", line, rejection.message());
+          rejectedLines.write(line);
+          return;
+        }
+        batch.add(parser.attempt(Instant.now()), line);
+      });
+      batch.send();
+    }
+    return count[0];
+  }
+
+  private void touch(final Path claimed) throws IOException {
+    Files.setLastModifiedTime(claimed, FileTime.from(Instant.now()));
+  }
+
+  private String toRejectedFilename(final String name) {
+    return name + ".reject";
+  }
+
   private void delete(final File file) {
     if (!file.delete()) {
       logger.error("Could not delete file: {}", file.getName());
     }
   }
 
-  private void move(final File file) {
-    final File destination = new File(parseFailureDirectory, file.getName());
+  private void move(final File file, final String name) {
+    final File destination = new File(parseFailureDirectory, name);
     final boolean result = file.renameTo(destination);
     if (!result) {
       logger.error("Could not move {} to {}", file.getName(), destination.getAbsolutePath());
     }
   }
 
+  /**
+   * A file that has been seen in the upload directory, and when it was last seen to change.
+   */
+  private static final class Candidate {
+
+    private long size = -1;
+    private FileTime lastModified;
+    private long settlesAt;
+
+    boolean changed(final BasicFileAttributes attributes, final long settlesAt) {
+      if (attributes.size() == size && attributes.lastModifiedTime().equals(lastModified)) {
+        return false;
+      }
+      this.size = attributes.size();
+      this.lastModified = attributes.lastModifiedTime();
+      this.settlesAt = settlesAt;
+      return true;
+    }
+  }
+
+  /**
+   * The registration attempts of a file that have not been sent yet, and the lines they were parsed from,
+   * which are rejected if the batch can't be sent.
+   */
+  private final class Batch {
+
+    private final Path claimed;
+    private final RejectedLines rejectedLines;
+    private List<HandlingEventRegistrationAttempt> attempts = new ArrayList<>(BATCH_SIZE);
+    private final StringBuilder pendingLines = new StringBuilder();
+    private long touchedAt = System.nanoTime();
+
+    Batch(final Path claimed, final RejectedLines rejectedLines) {
+      this.claimed = claimed;
+      this.rejectedLines = rejectedLines;
+    }
+
+    void add(final HandlingEventRegistrationAttempt attempt, final HandlingReportFileReader.Line line) throws IOException {
+      attempts.add(attempt);
+      pendingLines.append(line).append(System.lineSeparator());
+      if (attempts.size() == BATCH_SIZE) {
+        send();
+      }
+    }
+
+    void send() throws IOException {
+      if (attempts.isEmpty()) {
+        return;
+      }
+      try {
+        applicationEvents.receivedHandlingEventRegistrationAttempts(attempts);
+      } catch (RuntimeException e) {
+        logger.error("Rejected {} lines that could not be sent", attempts.size(), e);
+        rejectedLines.write(pendingLines);
+      }
+      // The sent list may still be referenced by the receiver
+      attempts = new ArrayList<>(BATCH_SIZE);
+      pendingLines.setLength(0);
+
+      final long now = System.nanoTime();
+      if (now - touchedAt >= claimTimeout.toNanos() / 4) {
+        touch(claimed);
+        touchedAt = now;
+      }
+    }
+  }
+
+  /**
+   * The rejected lines of a file, appended to the reject file as they are found.
+   * The reject file is only created if there is a rejected line.
+   */
+  private static final class RejectedLines implements Closeable {
+
+    private final File file;
+    private Writer writer;
+
+    RejectedLines(final File file) {
+      this.file = file;
+    }
+
+    void write(final HandlingReportFileReader.Line line) throws IOException {
+      line.writeTo(writer());
+      writer.write(System.lineSeparator());
+    }
+
+    void write(final CharSequence lines) throws IOException {
+      writer().append(lines);
+    }
+
+    private Writer writer() throws IOException {
+      if (writer == null) {
+        writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      }
+      return writer;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (writer != null) {
+        writer.close();
+      }
+    }
+  }
+
   @Override
   public void afterPropertiesSet() throws Exception {
     if (uploadDirectory.equals(parseFailureDirectory)) {
       throw new Exception(String.format("Upload and parse failed directories must not be the same directory: %s", uploadDirectory));
     }
-    for (File dir : Arrays.asList(uploadDirectory, parseFailureDirectory)) {
+    for (File dir : Arrays.asList(uploadDirectory, parseFailureDirectory, new File(uploadDirectory, CLAIM_DIRECTORY))) {
       if (!(dir.exists() || dir.mkdirs())) {
         throw new IllegalStateException("Failed to create dir: " + dir);
       }
     }
+
+    final CustomizableThreadFactory parserThreadFactory = new CustomizableThreadFactory("upload-parser-");
+    parserThreadFactory.setDaemon(true);
+    parsers = Executors.newFixedThreadPool(parserThreads, parserThreadFactory);
+
+    watchService = uploadDirectory.toPath().getFileSystem().newWatchService();
+    uploadDirectory.toPath().register(watchService, ENTRY_CREATE, ENTRY_MODIFY, OVERFLOW);
+    watcher = new Thread(this::watch, "upload-watcher");
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  /**
+   * Stops watching the upload directory, and finishes the files already claimed.
+   */
+  public void shutdown() throws IOException, InterruptedException {
+    if (watcher == null) {
+      return;
+    }
+    watcher.interrupt();
+    watchService.close();
+    watcher.join();
+    parsers.shutdown();
+    if (!parsers.awaitTermination(1, TimeUnit.MINUTES)) {
+      logger.warn("Uploaded files still being parsed at shutdown");
+    }
   }
 }
@@ -38,7 +38,7 @@ public class HandlingReportServiceImpl implements HandlingReportService {
   public ResponseEntity<?> submitReport(@Valid @RequestBody HandlingReport handlingReport) {
     try {
       List<HandlingEventRegistrationAttempt> attempts = parse(handlingReport);
-      attempts.forEach(applicationEvents::receivedHandlingEventRegistrationAttempt);
+      applicationEvents.receivedHandlingEventRegistrationAttempts(attempts);
     } catch (Exception e) {
       logger.error("Unexpected error in submitReport", e);
       return ResponseEntity.status(INTERNAL_SERVER_ERROR).body("Internal server error: " + e.getMessage());
@@ -6,14 +6,11 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.support.RequestContextUtils;
-import se.citerus.dddsample.domain.model.cargo.Cargo;
-import se.citerus.dddsample.domain.model.cargo.CargoRepository;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.CargoTrackingViews;
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
-import se.citerus.dddsample.domain.model.handling.HandlingEvent;
-import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
 
 import javax.servlet.http.HttpServletRequest;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -35,13 +32,11 @@ import java.util.Map;
 @RequestMapping("/track")
 public final class CargoTrackingController {
 
-    private CargoRepository cargoRepository;
-    private HandlingEventRepository handlingEventRepository;
+    private CargoTrackingViews cargoTrackingViews;
     private MessageSource messageSource;
 
-    public CargoTrackingController(CargoRepository cargoRepository, HandlingEventRepository handlingEventRepository, MessageSource messageSource) {
-        this.cargoRepository = cargoRepository;
-        this.handlingEventRepository = handlingEventRepository;
+    public CargoTrackingController(CargoTrackingViews cargoTrackingViews, MessageSource messageSource) {
+        this.cargoTrackingViews = cargoTrackingViews;
         this.messageSource = messageSource;
     }
 
@@ -59,12 +54,11 @@ public final class CargoTrackingController {
         new TrackCommandValidator().validate(command, bindingResult);
 
         final TrackingId trackingId = new TrackingId(command.getTrackingId());
-        final Cargo cargo = cargoRepository.find(trackingId);
+        final CargoTrackingView view = cargoTrackingViews.find(trackingId);
 
-        if (cargo != null) {
+        if (view != null) {
             final Locale locale = RequestContextUtils.getLocale(request);
-            final List<HandlingEvent> handlingEvents = handlingEventRepository.lookupHandlingHistoryOfCargo(trackingId).distinctEventsByCompletionTime();
-            model.put("cargo", new CargoTrackingViewAdapter(cargo, messageSource, locale, handlingEvents));
+            model.put("cargo", new CargoTrackingViewAdapter(view, messageSource, locale));
         } else {
             bindingResult.rejectValue("trackingId", "cargo.unknown_id", new Object[]{command.getTrackingId()}, "Unknown tracking id");
         }
@@ -1,12 +1,8 @@
 package se.citerus.dddsample.interfaces.tracking;
 
 import org.springframework.context.MessageSource;
-import se.citerus.dddsample.domain.model.cargo.Cargo;
-import se.citerus.dddsample.domain.model.cargo.Delivery;
-import se.citerus.dddsample.domain.model.cargo.HandlingActivity;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
-import se.citerus.dddsample.domain.model.location.Location;
-import se.citerus.dddsample.domain.model.voyage.Voyage;
 
 import java.text.SimpleDateFormat;
 import java.time.Instant;
@@ -19,7 +15,7 @@ import java.util.*;
  */
 public final class CargoTrackingViewAdapter {
 
-  private final Cargo cargo;
+  private final CargoTrackingView view;
   private final MessageSource messageSource;
   private final Locale locale;
   private final List<HandlingEventViewAdapter> events;
@@ -29,43 +25,34 @@ public final class CargoTrackingViewAdapter {
     /**
    * Constructor.
    *
-   * @param cargo
+   * @param view
    * @param messageSource
    * @param locale
-   * @param handlingEvents
    */
-  public CargoTrackingViewAdapter(Cargo cargo, MessageSource messageSource, Locale locale, List<HandlingEvent> handlingEvents) {
-    this(cargo, messageSource, locale, handlingEvents, TimeZone.getDefault());
+  public CargoTrackingViewAdapter(CargoTrackingView view, MessageSource messageSource, Locale locale) {
+    this(view, messageSource, locale, TimeZone.getDefault());
   }
 
     /**
      * Constructor.
      *
-     * @param cargo
+     * @param view
      * @param messageSource
      * @param locale
-     * @param handlingEvents
+     * @param tz
      */
-    public CargoTrackingViewAdapter(Cargo cargo, MessageSource messageSource, Locale locale, List<HandlingEvent> handlingEvents, TimeZone tz) {
+    public CargoTrackingViewAdapter(CargoTrackingView view, MessageSource messageSource, Locale locale, TimeZone tz) {
       this.messageSource = messageSource;
       this.locale = locale;
-      this.cargo = cargo;
+      this.view = view;
       this.timeZone = tz;
 
-      this.events = new ArrayList<>(handlingEvents.size());
-        for (HandlingEvent handlingEvent : handlingEvents) {
+      this.events = new ArrayList<>(view.events().size());
+        for (CargoTrackingView.Event handlingEvent : view.events()) {
           events.add(new HandlingEventViewAdapter(handlingEvent));
         }
     }
 
-  /**
-   * @param location a location
-   * @return A formatted string for displaying the location.
-   */
-  private String getDisplayText(Location location) {
-    return location.name();
-  }
-
   /**
    * @return An unmodifiable list of handling event view adapters.
    */
@@ -77,16 +64,15 @@ public final class CargoTrackingViewAdapter {
    * @return A translated string describing the cargo status. 
    */
   public String getStatusText() {
-    final Delivery delivery = cargo.delivery();
-    final String code = "cargo.status." + delivery.transportStatus().name();
+    final String code = "cargo.status." + view.transportStatus().name();
 
     final Object[] args;
-    switch (delivery.transportStatus()) {
+    switch (view.transportStatus()) {
       case IN_PORT:
-        args = new Object[] {getDisplayText(delivery.lastKnownLocation())};
+        args = new Object[] {view.lastKnownLocation()};
         break;
       case ONBOARD_CARRIER:
-        args = new Object[] {delivery.currentVoyage().voyageNumber().idString()};
+        args = new Object[] {view.currentVoyage()};
         break;
       case CLAIMED:
       case NOT_RECEIVED:
@@ -103,48 +89,47 @@ public final class CargoTrackingViewAdapter {
    * @return Cargo destination location.
    */
   public String getDestination() {
-    return getDisplayText(cargo.routeSpecification().destination());
+    return view.destination();
   }
 
   /**
    * @return Cargo osigin location.
    */
   public String getOrigin() {
-    return getDisplayText(cargo.origin());
+    return view.origin();
   }
 
   /**
    * @return Cargo tracking id.
    */
   public String getTrackingId() {
-    return cargo.trackingId().idString();
+    return view.trackingId();
   }
 
   public String getEta() {
-    Instant eta = cargo.delivery().estimatedTimeOfArrival();
+    Instant eta = view.eta();
 
     if (eta == null) return "?";
     else return DateTimeFormatter.ofPattern(FORMAT).withZone(timeZone.toZoneId()).format(eta);
   }
 
   public String getNextExpectedActivity() {
-      HandlingActivity activity = cargo.delivery().nextExpectedActivity();
-      if (activity == null) {
+      HandlingEvent.Type type = view.nextActivityType();
+      if (type == null) {
         return "";
       }
 
     String text = "Next expected activity is to ";
-    HandlingEvent.Type type = activity.type();
     if (type.sameValueAs(HandlingEvent.Type.LOAD)) {
         return
-          text + type.name().toLowerCase() + " cargo onto voyage " + activity.voyage().voyageNumber() +
-          " in " + activity.location().name();
+          text + type.name().toLowerCase() + " cargo onto voyage " + view.nextActivityVoyage() +
+          " in " + view.nextActivityLocation();
       } else if (type.sameValueAs(HandlingEvent.Type.UNLOAD)) {
         return
-          text + type.name().toLowerCase() + " cargo off of " + activity.voyage().voyageNumber() +
-          " in " + activity.location().name();
+          text + type.name().toLowerCase() + " cargo off of " + view.nextActivityVoyage() +
+          " in " + view.nextActivityLocation();
       } else {
-        return text + type.name().toLowerCase() + " cargo in " + activity.location().name();
+        return text + type.name().toLowerCase() + " cargo in " + view.nextActivityLocation();
       }
   }
 
@@ -152,7 +137,7 @@ public final class CargoTrackingViewAdapter {
    * @return True if cargo is misdirected.
    */
   public boolean isMisdirected() {
-    return cargo.delivery().isMisdirected();
+    return view.isMisdirected();
   }
 
   /**
@@ -160,14 +145,14 @@ public final class CargoTrackingViewAdapter {
    */
   public final class HandlingEventViewAdapter {
 
-    private final HandlingEvent handlingEvent;
+    private final CargoTrackingView.Event handlingEvent;
 
     /**
      * Constructor.
      *
      * @param handlingEvent handling event
      */
-    public HandlingEventViewAdapter(HandlingEvent handlingEvent) {
+    public HandlingEventViewAdapter(CargoTrackingView.Event handlingEvent) {
       this.handlingEvent = handlingEvent;
     }
 
@@ -175,7 +160,7 @@ public final class CargoTrackingViewAdapter {
      * @return Location where the event occurred.
      */
     public String getLocation() {
-      return handlingEvent.location().name();
+      return handlingEvent.location();
     }
 
     /**
@@ -196,15 +181,14 @@ public final class CargoTrackingViewAdapter {
      * @return Voyage number, or empty string if not applicable.
      */
     public String getVoyageNumber() {
-      final Voyage voyage = handlingEvent.voyage();
-      return voyage.voyageNumber().idString();
+      return handlingEvent.voyageNumber();
     }
 
     /**
      * @return True if the event was expected, according to the cargo's itinerary.
      */
     public boolean isExpected() {
-      return cargo.itinerary().isExpected(handlingEvent);
+      return handlingEvent.isExpected();
     }
 
     public String getDescription() {
@@ -214,8 +198,8 @@ public final class CargoTrackingViewAdapter {
         case LOAD:
         case UNLOAD:
           args = new Object[] {
-            handlingEvent.voyage().voyageNumber().idString(),
-            handlingEvent.location().name(),
+            handlingEvent.voyageNumber(),
+            handlingEvent.location(),
             handlingEvent.completionTime()
           };
           break;
@@ -223,7 +207,7 @@ public final class CargoTrackingViewAdapter {
         case RECEIVE:
         case CLAIM:
           args = new Object[] {
-            handlingEvent.location().name(),
+            handlingEvent.location(),
             handlingEvent.completionTime()
           };
           break;
@@ -0,0 +1,138 @@
+package se.citerus.dddsample.interfaces.tracking.ws;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.CargoTrackingViews;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Tracks many cargos in one call.
+ * <p>
+ * The tracking ids are looked up in batches, with a fixed number of queries per batch,
+ * and each batch is written to the response before the next one is looked up.
+ * Every tracking id gets a {@link CargoBulkTrackingResultDTO} in the results, so a
+ * tracking id that cannot be tracked gets an error instead of failing the whole request.
+ * <p>
+ * The first batch is looked up before the response is committed, so a request that
+ * fails right away gets an error status. Once the first batch has been written, the
+ * status is sent and a later failure can only be reported in the body: the results are
+ * always followed by a {@link CargoBulkTrackingStatusDTO}, which tells whether all
+ * tracking ids were tracked, or how many were before the response was cut short.
+ */
+@RestController
+public class CargoBulkTrackingRestService {
+    private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    static final int BATCH_SIZE = 500;
+
+    private final CargoTrackingViews cargoTrackingViews;
+    private final MessageSource messageSource;
+    private final ObjectMapper objectMapper;
+
+    public CargoBulkTrackingRestService(CargoTrackingViews cargoTrackingViews, MessageSource messageSource, ObjectMapper objectMapper) {
+        this.cargoTrackingViews = cargoTrackingViews;
+        this.messageSource = messageSource;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param trackingIds tracking ids, as a JSON array
+     * @param response a JSON object with the results, one per tracking id and in the same order,
+     *                 followed by the status
+     */
+    @PostMapping(value = "/api/track", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+    public void trackCargos(final HttpServletRequest request,
+                            final HttpServletResponse response,
+                            @RequestBody List<String> trackingIds) throws IOException {
+        Locale locale = RequestContextUtils.getLocale(request);
+        List<String> batch = batch(trackingIds, 0);
+        Map<TrackingId, CargoTrackingView> views = find(batch);
+        response.setContentType(APPLICATION_JSON_UTF8_VALUE);
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("results");
+            int tracked = 0;
+            while (!batch.isEmpty()) {
+                writeBatch(generator, batch, views, locale);
+                tracked += batch.size();
+                generator.flush();
+                batch = batch(trackingIds, tracked);
+                try {
+                    views = find(batch);
+                } catch (RuntimeException e) {
+                    log.error("Unexpected error tracking cargos, {} of {} tracked", tracked, trackingIds.size(), e);
+                    writeStatus(generator, CargoBulkTrackingStatusDTO.incomplete(tracked, "Unexpected error"));
+                    return;
+                }
+            }
+            writeStatus(generator, CargoBulkTrackingStatusDTO.complete(tracked));
+        }
+    }
+
+    private static void writeStatus(JsonGenerator generator, CargoBulkTrackingStatusDTO status) throws IOException {
+        generator.writeEndArray();
+        generator.writeObjectField("status", status);
+        generator.writeEndObject();
+    }
+
+    private static List<String> batch(List<String> trackingIds, int from) {
+        return trackingIds.subList(from, Math.min(from + BATCH_SIZE, trackingIds.size()));
+    }
+
+    private Map<TrackingId, CargoTrackingView> find(List<String> batch) {
+        List<TrackingId> valid = new ArrayList<>(batch.size());
+        for (String trackingId : batch) {
+            if (isValid(trackingId)) {
+                valid.add(new TrackingId(trackingId));
+            }
+        }
+        return valid.isEmpty() ? Map.of() : cargoTrackingViews.find(valid);
+    }
+
+    private void writeBatch(JsonGenerator generator, List<String> batch, Map<TrackingId, CargoTrackingView> views, Locale locale) throws IOException {
+        for (String trackingId : batch) {
+            generator.writeObject(convert(trackingId, views, locale));
+        }
+    }
+
+    private CargoBulkTrackingResultDTO convert(String trackingId, Map<TrackingId, CargoTrackingView> views, Locale locale) {
+        if (!isValid(trackingId)) {
+            return CargoBulkTrackingResultDTO.failed(trackingId, "Invalid tracking id");
+        }
+        CargoTrackingView view = views.get(new TrackingId(trackingId));
+        if (view == null) {
+            return CargoBulkTrackingResultDTO.failed(trackingId, "No cargo found for tracking id");
+        }
+        try {
+            return CargoBulkTrackingResultDTO.tracked(trackingId, CargoTrackingDTOConverter.convert(view, messageSource, locale));
+        } catch (RuntimeException e) {
+            log.error("Unexpected error tracking cargo {}", trackingId, e);
+            return CargoBulkTrackingResultDTO.failed(trackingId, "Unexpected error");
+        }
+    }
+
+    private static boolean isValid(String trackingId) {
+        return trackingId != null && TrackingId.isValid(trackingId, 0, trackingId.length());
+    }
+}
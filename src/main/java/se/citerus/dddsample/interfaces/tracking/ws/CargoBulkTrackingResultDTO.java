@@ -0,0 +1,26 @@
+package se.citerus.dddsample.interfaces.tracking.ws;
+
+/**
+ * A data-transport object class representing the outcome of tracking one cargo.
+ * Used by the REST API for bulk cargo tracking: either the tracked cargo, or an error.
+ */
+public class CargoBulkTrackingResultDTO {
+
+    public final String trackingId;
+    public final CargoTrackingDTO cargo;
+    public final String error;
+
+    private CargoBulkTrackingResultDTO(String trackingId, CargoTrackingDTO cargo, String error) {
+        this.trackingId = trackingId;
+        this.cargo = cargo;
+        this.error = error;
+    }
+
+    static CargoBulkTrackingResultDTO tracked(String trackingId, CargoTrackingDTO cargo) {
+        return new CargoBulkTrackingResultDTO(trackingId, cargo, null);
+    }
+
+    static CargoBulkTrackingResultDTO failed(String trackingId, String error) {
+        return new CargoBulkTrackingResultDTO(trackingId, null, error);
+    }
+}
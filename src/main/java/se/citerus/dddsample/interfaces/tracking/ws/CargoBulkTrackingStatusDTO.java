@@ -0,0 +1,30 @@
+package se.citerus.dddsample.interfaces.tracking.ws;
+
+/**
+ * A data-transport object class representing the outcome of a bulk tracking request.
+ * Always written after the results by the REST API for bulk cargo tracking,
+ * so that a client can tell a complete response from one that was cut short.
+ */
+public class CargoBulkTrackingStatusDTO {
+
+    public static final String COMPLETE = "complete";
+    public static final String INCOMPLETE = "incomplete";
+
+    public final String status;
+    public final int tracked;
+    public final String error;
+
+    private CargoBulkTrackingStatusDTO(String status, int tracked, String error) {
+        this.status = status;
+        this.tracked = tracked;
+        this.error = error;
+    }
+
+    static CargoBulkTrackingStatusDTO complete(int tracked) {
+        return new CargoBulkTrackingStatusDTO(COMPLETE, tracked, null);
+    }
+
+    static CargoBulkTrackingStatusDTO incomplete(int tracked, String error) {
+        return new CargoBulkTrackingStatusDTO(INCOMPLETE, tracked, error);
+    }
+}
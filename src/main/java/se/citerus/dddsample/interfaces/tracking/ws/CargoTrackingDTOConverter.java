@@ -1,9 +1,7 @@
 package se.citerus.dddsample.interfaces.tracking.ws;
 
 import org.springframework.context.MessageSource;
-import se.citerus.dddsample.domain.model.cargo.Cargo;
-import se.citerus.dddsample.domain.model.cargo.Delivery;
-import se.citerus.dddsample.domain.model.cargo.HandlingActivity;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 
 import java.text.SimpleDateFormat;
@@ -20,38 +18,38 @@ public class CargoTrackingDTOConverter {
             .ofLocalizedDateTime(FormatStyle.MEDIUM)
             .withZone(ZoneOffset.UTC);
 
-    public static CargoTrackingDTO convert(Cargo cargo, List<HandlingEvent> handlingEvents, MessageSource messageSource, Locale locale) {
-        List<HandlingEventDTO> handlingEventDTOs = convertHandlingEvents(handlingEvents, cargo, messageSource, locale);
+    public static CargoTrackingDTO convert(CargoTrackingView view, MessageSource messageSource, Locale locale) {
+        List<HandlingEventDTO> handlingEventDTOs = convertHandlingEvents(view.events(), messageSource, locale);
         return new CargoTrackingDTO(
-                convertTrackingId(cargo),
-                convertStatusText(cargo, messageSource, locale),
-                convertDestination(cargo),
-                convertEta(cargo),
-                convertNextExpectedActivity(cargo),
-                convertIsMisdirected(cargo),
+                view.trackingId(),
+                convertStatusText(view, messageSource, locale),
+                view.destination(),
+                convertEta(view),
+                convertNextExpectedActivity(view),
+                view.isMisdirected(),
                 handlingEventDTOs);
     }
 
-    private static List<HandlingEventDTO> convertHandlingEvents(List<HandlingEvent> handlingEvents, Cargo cargo, MessageSource messageSource, Locale locale) {
+    private static List<HandlingEventDTO> convertHandlingEvents(List<CargoTrackingView.Event> handlingEvents, MessageSource messageSource, Locale locale) {
         return handlingEvents.stream().map(he -> new HandlingEventDTO(
-                convertLocation(he),
+                he.location(),
                 convertTime(he),
-                convertType(he),
-                convertVoyageNumber(he),
-                convertIsExpected(he, cargo),
+                he.type().toString(),
+                he.voyageNumber(),
+                he.isExpected(),
                 convertDescription(he, messageSource, locale)
         )).collect(Collectors.toList());
     }
 
-    protected static String convertDescription(HandlingEvent handlingEvent, MessageSource messageSource, Locale locale) {
+    protected static String convertDescription(CargoTrackingView.Event handlingEvent, MessageSource messageSource, Locale locale) {
         Object[] args;
 
         switch (handlingEvent.type()) {
             case LOAD:
             case UNLOAD:
                 args = new Object[]{
-                        handlingEvent.voyage().voyageNumber().idString(),
-                        handlingEvent.location().name(),
+                        handlingEvent.voyageNumber(),
+                        handlingEvent.location(),
                         formatter.format(handlingEvent.completionTime())
                 };
                 break;
@@ -59,7 +57,7 @@ public class CargoTrackingDTOConverter {
             case CUSTOMS:
             case CLAIM:
                 args = new Object[]{
-                        handlingEvent.location().name(),
+                        handlingEvent.location(),
                         formatter.format(handlingEvent.completionTime())
                 };
                 break;
@@ -73,42 +71,21 @@ public class CargoTrackingDTOConverter {
         return messageSource.getMessage(key, args, locale);
     }
 
-    private static boolean convertIsExpected(HandlingEvent handlingEvent, Cargo cargo) {
-        return cargo.itinerary().isExpected(handlingEvent);
-    }
-
-    private static String convertVoyageNumber(HandlingEvent handlingEvent) {
-        return handlingEvent.voyage().voyageNumber().idString();
-    }
-
-    private static String convertType(HandlingEvent handlingEvent) {
-        return handlingEvent.type().toString();
-    }
-
-    private static String convertTime(HandlingEvent handlingEvent) {
+    private static String convertTime(CargoTrackingView.Event handlingEvent) {
         return formatter
                 .format(handlingEvent.completionTime());
     }
 
-    private static String convertLocation(HandlingEvent handlingEvent) {
-        return handlingEvent.location().name();
-    }
-
-    private static String convertTrackingId(Cargo cargo) {
-        return cargo.trackingId().idString();
-    }
-
-    protected static String convertStatusText(Cargo cargo, MessageSource messageSource, Locale locale) {
-        final Delivery delivery = cargo.delivery();
-        final String code = "cargo.status." + delivery.transportStatus().name();
+    protected static String convertStatusText(CargoTrackingView view, MessageSource messageSource, Locale locale) {
+        final String code = "cargo.status." + view.transportStatus().name();
 
         final Object[] args;
-        switch (delivery.transportStatus()) {
+        switch (view.transportStatus()) {
             case IN_PORT:
-                args = new Object[]{delivery.lastKnownLocation().name()};
+                args = new Object[]{view.lastKnownLocation()};
                 break;
             case ONBOARD_CARRIER:
-                args = new Object[]{delivery.currentVoyage().voyageNumber().idString()};
+                args = new Object[]{view.currentVoyage()};
                 break;
             case CLAIMED:
             case NOT_RECEIVED:
@@ -121,37 +98,28 @@ public class CargoTrackingDTOConverter {
         return messageSource.getMessage(code, args, "[Unknown status]", locale);
     }
 
-    private static String convertDestination(Cargo cargo) {
-        return cargo.routeSpecification().destination().name();
-    }
-
-    private static String convertEta(Cargo cargo) {
-        Instant date = cargo.delivery().estimatedTimeOfArrival();
+    private static String convertEta(CargoTrackingView view) {
+        Instant date = view.eta();
         return date == null ? "Unknown" : formatter.format(date);
     }
 
-    protected static String convertNextExpectedActivity(Cargo cargo) {
-        HandlingActivity activity = cargo.delivery().nextExpectedActivity();
-        if (activity == null) {
+    protected static String convertNextExpectedActivity(CargoTrackingView view) {
+        HandlingEvent.Type type = view.nextActivityType();
+        if (type == null) {
             return "";
         }
 
         String text = "Next expected activity is to ";
-        HandlingEvent.Type type = activity.type();
         if (type.sameValueAs(HandlingEvent.Type.LOAD)) {
             return
-                    text + type.name().toLowerCase() + " cargo onto voyage " + activity.voyage().voyageNumber() +
-                            " in " + activity.location().name();
+                    text + type.name().toLowerCase() + " cargo onto voyage " + view.nextActivityVoyage() +
+                            " in " + view.nextActivityLocation();
         } else if (type.sameValueAs(HandlingEvent.Type.UNLOAD)) {
             return
-                    text + type.name().toLowerCase() + " cargo off of " + activity.voyage().voyageNumber() +
-                            " in " + activity.location().name();
+                    text + type.name().toLowerCase() + " cargo off of " + view.nextActivityVoyage() +
+                            " in " + view.nextActivityLocation();
         } else {
-            return text + type.name().toLowerCase() + " cargo in " + activity.location().name();
+            return text + type.name().toLowerCase() + " cargo in " + view.nextActivityLocation();
         }
     }
-
-    private static boolean convertIsMisdirected(Cargo cargo) {
-        return cargo.delivery().isMisdirected();
-    }
 }
@@ -4,22 +4,23 @@ import javassist.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.RequestContextUtils;
 import org.springframework.web.util.UriTemplate;
-import se.citerus.dddsample.domain.model.cargo.Cargo;
-import se.citerus.dddsample.domain.model.cargo.CargoRepository;
+import se.citerus.dddsample.application.tracking.CargoTrackingVersion;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.CargoTrackingViews;
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
-import se.citerus.dddsample.domain.model.handling.HandlingEvent;
-import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
-import java.util.List;
 import java.util.Locale;
 
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -28,29 +29,43 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 public class CargoTrackingRestService {
     private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-    private final CargoRepository cargoRepository;
-    private final HandlingEventRepository handlingEventRepository;
+    private final CargoTrackingViews cargoTrackingViews;
     private final MessageSource messageSource;
 
-    public CargoTrackingRestService(CargoRepository cargoRepository, HandlingEventRepository handlingEventRepository, MessageSource messageSource) {
-        this.cargoRepository = cargoRepository;
-        this.handlingEventRepository = handlingEventRepository;
+    public CargoTrackingRestService(CargoTrackingViews cargoTrackingViews, MessageSource messageSource) {
+        this.cargoTrackingViews = cargoTrackingViews;
         this.messageSource = messageSource;
     }
 
     @GetMapping(value = "/api/track/{trackingId}", produces = APPLICATION_JSON_VALUE)
     public ResponseEntity<CargoTrackingDTO> trackCargo(final HttpServletRequest request,
+                                                       final HttpServletResponse response,
+                                                       final WebRequest webRequest,
                                                        @PathVariable("trackingId") String trackingId) {
         try {
             Locale locale = RequestContextUtils.getLocale(request);
             TrackingId trkId = new TrackingId(trackingId);
-            Cargo cargo = cargoRepository.find(trkId);
-            if (cargo == null) {
-                throw new NotFoundException("No cargo found for trackingId");
+            // Only the version is read while the client may be up to date
+            CargoTrackingVersion version = cargoTrackingViews.findVersion(trkId);
+            CargoTrackingView view = null;
+            if (version == null) {
+                // No view stored, so the view is assembled once and versioned by itself
+                view = cargoTrackingViews.find(trkId);
+                if (view == null) {
+                    throw new NotFoundException("No cargo found for trackingId");
+                }
+                version = view.version();
             }
-            final List<HandlingEvent> handlingEvents = handlingEventRepository.lookupHandlingHistoryOfCargo(trkId)
-                    .distinctEventsByCompletionTime();
-            return ResponseEntity.ok(CargoTrackingDTOConverter.convert(cargo, handlingEvents, messageSource, locale));
+            // The response is localized, so the entity tag depends on the locale as well
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE);
+            // Sets the ETag and Last-Modified headers, and answers 304 if the client is up to date
+            if (webRequest.checkNotModified(version.eTag() + "-" + locale.toLanguageTag(), version.lastModified())) {
+                return null;
+            }
+            if (view == null) {
+                view = cargoTrackingViews.find(trkId);
+            }
+            return ResponseEntity.ok(CargoTrackingDTOConverter.convert(view, messageSource, locale));
         } catch (NotFoundException e) {
             URI uri = new UriTemplate(request.getContextPath() + "/api/track/{trackingId}").expand(trackingId);
             return ResponseEntity.notFound().location(uri).build();
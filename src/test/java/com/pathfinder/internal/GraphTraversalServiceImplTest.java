@@ -0,0 +1,151 @@
+package com.pathfinder.internal;
+
+import com.pathfinder.api.TransitEdge;
+import com.pathfinder.api.TransitPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GraphTraversalServiceImplTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+  private TransitGraph.Builder graph;
+  private GraphTraversalServiceImpl graphTraversalService;
+
+  @BeforeEach
+  public void setUp() {
+    graph = TransitGraph.builder();
+    graphTraversalService = new GraphTraversalServiceImpl(() -> graph.build(), Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @Test
+  public void testCandidatesAreOrderedByArrival() {
+    edge("SLOW", "A", "C", 1, 20);
+    edge("V1", "A", "B", 1, 3);
+    edge("V2", "B", "C", 4, 6);
+
+    List<TransitPath> paths = graphTraversalService.findShortestPath("A", "C", new Properties());
+
+    assertThat(paths).extracting(GraphTraversalServiceImplTest::voyages)
+      .containsExactly(List.of("V1", "V2"), List.of("SLOW"));
+  }
+
+  @Test
+  public void testConnectionMustDepartAfterArrival() {
+    edge("V1", "A", "B", 1, 5);
+    edge("MISSED", "B", "C", 4, 6);
+    edge("V2", "B", "C", 7, 9);
+
+    List<TransitPath> paths = graphTraversalService.findShortestPath("A", "C", new Properties());
+
+    assertThat(paths).extracting(GraphTraversalServiceImplTest::voyages)
+      .containsExactly(List.of("V1", "V2"));
+  }
+
+  @Test
+  public void testDeparturesBeforeNowAreIgnored() {
+    edge("PAST", "A", "B", -2, -1);
+
+    assertThat(graphTraversalService.findShortestPath("A", "B", new Properties())).isEmpty();
+  }
+
+  @Test
+  public void testCandidatesArrivingAfterDeadlineAreNotReturned() {
+    edge("FAST", "A", "B", 1, 10);
+    edge("LATE", "A", "B", 2, 30);
+
+    Properties limitations = new Properties();
+    limitations.setProperty("DEADLINE", NOW.plus(Duration.ofHours(24)).toString());
+    List<TransitPath> paths = graphTraversalService.findShortestPath("A", "B", limitations);
+
+    assertThat(paths).extracting(GraphTraversalServiceImplTest::voyages)
+      .containsExactly(List.of("FAST"));
+  }
+
+  @Test
+  public void testPathsDoNotRevisitNodes() {
+    edge("V1", "A", "B", 1, 2);
+    edge("V2", "B", "A", 3, 4);
+    edge("V3", "A", "C", 5, 6);
+
+    List<TransitPath> paths = graphTraversalService.findShortestPath("A", "C", new Properties());
+
+    assertThat(paths).extracting(GraphTraversalServiceImplTest::voyages)
+      .containsExactly(List.of("V3"));
+  }
+
+  @Test
+  public void testAtMostFiveCandidatesAreReturned() {
+    for (int i = 1; i <= 10; i++) {
+      edge("V" + i, "A", "B", i, i + 1);
+    }
+
+    List<TransitPath> paths = graphTraversalService.findShortestPath("A", "B", new Properties());
+
+    assertThat(paths).extracting(GraphTraversalServiceImplTest::voyages)
+      .containsExactly(List.of("V1"), List.of("V2"), List.of("V3"), List.of("V4"), List.of("V5"));
+  }
+
+  @Test
+  public void testUnknownNodesHaveNoPaths() {
+    edge("V1", "A", "B", 1, 2);
+
+    assertThat(graphTraversalService.findShortestPath("A", "X", new Properties())).isEmpty();
+    assertThat(graphTraversalService.findShortestPath("X", "B", new Properties())).isEmpty();
+  }
+
+  @Test
+  public void testViaLimitationOnlyReturnsPathsThroughTheViaNode() {
+    edge("DIRECT", "A", "C", 1, 2);
+    edge("V1", "A", "B", 1, 3);
+    edge("V2", "B", "C", 4, 6);
+
+    Properties limitations = new Properties();
+    limitations.setProperty("VIA", "B");
+    List<TransitPath> paths = graphTraversalService.findShortestPath("A", "C", limitations);
+
+    assertThat(paths).extracting(GraphTraversalServiceImplTest::voyages)
+      .containsExactly(List.of("V1", "V2"));
+  }
+
+  @Test
+  public void testUnknownViaNodeHasNoPaths() {
+    edge("V1", "A", "B", 1, 2);
+
+    Properties limitations = new Properties();
+    limitations.setProperty("VIA", "X");
+
+    assertThat(graphTraversalService.findShortestPath("A", "B", limitations)).isEmpty();
+  }
+
+  @Test
+  public void testStubTimetableConnectsRotterdamAndMelbourneWithinThreeWeeks() {
+    Properties limitations = new Properties();
+    limitations.setProperty("DEADLINE", Instant.now().plus(Duration.ofDays(21)).toString());
+
+    List<TransitPath> paths = new GraphTraversalServiceImpl(new GraphDAOStub()).findShortestPath("NLRTM", "AUMEL", limitations);
+
+    assertThat(paths).isNotEmpty();
+    TransitPath first = paths.get(0);
+    assertThat(first.getTransitEdges().get(0).getFromNode()).isEqualTo("NLRTM");
+    assertThat(first.getTransitEdges().get(first.getTransitEdges().size() - 1).getToNode()).isEqualTo("AUMEL");
+  }
+
+  private void edge(String voyage, String from, String to, int departureHour, int arrivalHour) {
+    graph.addDeparture(voyage, from, to, NOW.plus(Duration.ofHours(departureHour)).getEpochSecond(), NOW.plus(Duration.ofHours(arrivalHour)).getEpochSecond());
+  }
+
+  private static List<String> voyages(TransitPath path) {
+    return path.getTransitEdges().stream().map(TransitEdge::getEdge).collect(Collectors.toList());
+  }
+}
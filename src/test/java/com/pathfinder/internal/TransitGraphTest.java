@@ -0,0 +1,74 @@
+package com.pathfinder.internal;
+
+import com.pathfinder.api.TransitEdge;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransitGraphTest {
+
+  @Test
+  public void testDeparturesAreGroupedByNodeAndOrderedByTime() {
+    TransitGraph graph = TransitGraph.builder()
+      .addDeparture("V1", "A", "B", 300, 400)
+      .addDeparture("V2", "B", "C", 100, 200)
+      .addDeparture("V1", "A", "B", 100, 200)
+      .addDeparture("V3", "A", "C", 200, 500)
+      .build();
+
+    int a = graph.nodeId("A");
+    assertThat(graph.nodeCount()).isEqualTo(3);
+    assertThat(graph.departureCount()).isEqualTo(4);
+    assertThat(graph.endOfDepartures(a) - graph.firstDepartureNotBefore(a, 0)).isEqualTo(3);
+
+    int first = graph.firstDepartureNotBefore(a, 0);
+    assertThat(graph.departureTime(first)).isEqualTo(100);
+    assertThat(graph.departureTime(first + 1)).isEqualTo(200);
+    assertThat(graph.departureTime(first + 2)).isEqualTo(300);
+    assertThat(graph.firstDepartureNotBefore(a, 150)).isEqualTo(first + 1);
+    assertThat(graph.firstDepartureNotBefore(a, 301)).isEqualTo(graph.endOfDepartures(a));
+  }
+
+  @Test
+  public void testDeparturesOfTheSameVoyageToTheSameNodeShareConnection() {
+    TransitGraph graph = TransitGraph.builder()
+      .addDeparture("V1", "A", "B", 100, 200)
+      .addDeparture("V2", "A", "B", 150, 250)
+      .addDeparture("V1", "A", "B", 300, 400)
+      .addDeparture("V1", "A", "C", 500, 600)
+      .build();
+
+    int first = graph.firstDepartureNotBefore(graph.nodeId("A"), 0);
+    assertThat(graph.connection(first)).isEqualTo(graph.connection(first + 2));
+    assertThat(graph.connection(first)).isNotEqualTo(graph.connection(first + 1));
+    assertThat(graph.connection(first)).isNotEqualTo(graph.connection(first + 3));
+    assertThat(graph.connectionCount()).isEqualTo(3);
+  }
+
+  @Test
+  public void testDepartureIsMaterializedAsTransitEdge() {
+    TransitGraph graph = TransitGraph.builder()
+      .addDeparture("V1", "A", "B", 100, 200)
+      .addDeparture("V2", "C", "A", 300, 400)
+      .build();
+
+    int departure = graph.firstDepartureNotBefore(graph.nodeId("C"), 0);
+    TransitEdge edge = graph.transitEdge(departure);
+
+    assertThat(edge.getEdge()).isEqualTo("V2");
+    assertThat(edge.getFromNode()).isEqualTo("C");
+    assertThat(edge.getToNode()).isEqualTo("A");
+    assertThat(edge.getFromDate()).isEqualTo(Instant.ofEpochSecond(300));
+    assertThat(edge.getToDate()).isEqualTo(Instant.ofEpochSecond(400));
+    assertThat(graph.nodeName(graph.target(departure))).isEqualTo("A");
+  }
+
+  @Test
+  public void testUnknownNode() {
+    TransitGraph graph = TransitGraph.builder().build();
+
+    assertThat(graph.nodeId("A")).isEqualTo(-1);
+  }
+}
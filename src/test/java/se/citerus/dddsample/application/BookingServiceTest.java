@@ -2,6 +2,7 @@ package se.citerus.dddsample.application;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import se.citerus.dddsample.application.impl.BookingServiceImpl;
 import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.cargo.CargoFactory;
@@ -13,9 +14,12 @@ import se.citerus.dddsample.domain.service.RoutingService;
 
 
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.*;
 import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.CHICAGO;
@@ -28,6 +32,7 @@ public class BookingServiceTest {
   LocationRepository locationRepository;
   RoutingService routingService;
   CargoFactory cargoFactory;
+  CargoTrackingViewUpdater cargoTrackingViewUpdater;
 
   @BeforeEach
   public void setUp() {
@@ -35,7 +40,8 @@ public class BookingServiceTest {
     locationRepository = mock(LocationRepository.class);
     routingService = mock(RoutingService.class);
     cargoFactory = new CargoFactory(locationRepository, cargoRepository);
-    bookingService = new BookingServiceImpl(cargoRepository, locationRepository, routingService, cargoFactory);
+    cargoTrackingViewUpdater = mock(CargoTrackingViewUpdater.class);
+    bookingService = new BookingServiceImpl(cargoRepository, locationRepository, routingService, cargoFactory, cargoTrackingViewUpdater);
   }
 
   @Test
@@ -51,6 +57,42 @@ public class BookingServiceTest {
     TrackingId trackingId = bookingService.bookNewCargo(fromUnlocode, toUnlocode, Instant.now());
     assertThat(trackingId).isEqualTo(expectedTrackingId);
     verify(cargoRepository, times(1)).store(isA(Cargo.class));
+    verify(cargoTrackingViewUpdater, times(1)).update(isA(Cargo.class));
     verify(locationRepository, times(2)).find(any(UnLocode.class));
   }
+
+  @Test
+  public void testBookNewCargos() {
+    UnLocode chicago = new UnLocode("USCHI");
+    UnLocode stockholm = new UnLocode("SESTO");
+    UnLocode unknown = new UnLocode("XXXXX");
+    Instant arrivalDeadline = Instant.now();
+
+    when(cargoRepository.nextTrackingId()).thenReturn(new TrackingId("TRK1"), new TrackingId("TRK2"));
+    when(locationRepository.find(anyCollection())).thenReturn(Arrays.asList(CHICAGO, STOCKHOLM));
+
+    List<CargoBookingResult> results = bookingService.bookNewCargos(Arrays.asList(
+      new CargoBookingRequest(chicago, stockholm, arrivalDeadline),
+      new CargoBookingRequest(chicago, unknown, arrivalDeadline),
+      new CargoBookingRequest(stockholm, stockholm, arrivalDeadline),
+      new CargoBookingRequest(stockholm, chicago, arrivalDeadline),
+      new CargoBookingRequest(unknown, chicago, arrivalDeadline),
+      new CargoBookingRequest(chicago, stockholm, null)
+    ));
+
+    assertThat(results).extracting(CargoBookingResult::trackingId)
+      .containsExactly(new TrackingId("TRK1"), null, null, new TrackingId("TRK2"), null, null);
+    assertThat(results.get(1).error()).isEqualTo("Unknown destination XXXXX");
+    assertThat(results.get(2).error()).startsWith("Origin and destination can't be the same");
+    assertThat(results.get(4).error()).isEqualTo("Unknown origin XXXXX");
+    assertThat(results.get(5).error()).isEqualTo("Origin, destination and arrival deadline are required");
+
+    ArgumentCaptor<List<Cargo>> stored = ArgumentCaptor.forClass(List.class);
+    verify(cargoRepository).storeAll(stored.capture());
+    assertThat(stored.getValue()).extracting(Cargo::trackingId)
+      .containsExactly(new TrackingId("TRK1"), new TrackingId("TRK2"));
+    verify(cargoTrackingViewUpdater).booked(stored.getValue());
+    verify(locationRepository, times(1)).find(anyCollection());
+    verify(locationRepository, never()).find(any(UnLocode.class));
+  }
 }
@@ -0,0 +1,108 @@
+package se.citerus.dddsample.application;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.application.impl.CoalescingCargoInspectionService;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class CoalescingCargoInspectionServiceTest {
+
+  private final TrackingId abc = new TrackingId("ABC");
+  private final TrackingId xyz = new TrackingId("XYZ");
+
+  private CargoInspectionService cargoInspectionService;
+  private CoalescingCargoInspectionService coalescingService;
+
+  @BeforeEach
+  public void setUp() {
+    cargoInspectionService = mock(CargoInspectionService.class);
+    coalescingService = new CoalescingCargoInspectionService(cargoInspectionService, Duration.ofMillis(100), 2);
+  }
+
+  @AfterEach
+  public void tearDown() throws InterruptedException {
+    coalescingService.shutdown();
+  }
+
+  @Test
+  public void testRequestsWithinWindowAreInspectedOnce() throws InterruptedException {
+    for (int i = 0; i < 10; i++) {
+      coalescingService.inspectCargo(abc);
+    }
+    coalescingService.inspectCargo(xyz);
+    coalescingService.shutdown();
+
+    verify(cargoInspectionService, times(1)).inspectCargo(abc);
+    verify(cargoInspectionService, times(1)).inspectCargo(xyz);
+    assertThat(coalescingService.inspectionCount()).isEqualTo(2);
+    assertThat(coalescingService.savedInspectionCount()).isEqualTo(9);
+  }
+
+  @Test
+  public void testRequestDuringInspectionIsInspectedAfterwards() throws InterruptedException {
+    CountDownLatch inspecting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      inspecting.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).doNothing().when(cargoInspectionService).inspectCargo(abc);
+
+    coalescingService.inspectCargo(abc);
+    assertThat(inspecting.await(5, TimeUnit.SECONDS)).isTrue();
+    coalescingService.inspectCargo(abc);
+    coalescingService.inspectCargo(abc);
+    release.countDown();
+    coalescingService.shutdown();
+
+    verify(cargoInspectionService, times(2)).inspectCargo(abc);
+    assertThat(coalescingService.savedInspectionCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testRequestsAreCalledBackWhenTheInspectionCoveringThemHasCompleted() throws InterruptedException {
+    CountDownLatch inspecting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      inspecting.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).doNothing().when(cargoInspectionService).inspectCargo(abc);
+    Runnable first = mock(Runnable.class);
+    Runnable second = mock(Runnable.class);
+    Runnable duringInspection = mock(Runnable.class);
+
+    coalescingService.inspectCargo(abc, first);
+    coalescingService.inspectCargo(abc, second);
+    assertThat(inspecting.await(5, TimeUnit.SECONDS)).isTrue();
+    coalescingService.inspectCargo(abc, duringInspection);
+    verifyNoInteractions(first, second, duringInspection);
+
+    release.countDown();
+    verify(first, timeout(5000)).run();
+    verify(second, timeout(5000)).run();
+    verify(cargoInspectionService, timeout(5000).times(2)).inspectCargo(abc);
+    verify(duringInspection, timeout(5000)).run();
+  }
+
+  @Test
+  public void testFailedInspectionDoesNotBlockLaterOnes() throws InterruptedException {
+    doThrow(new IllegalStateException("failed")).doNothing().when(cargoInspectionService).inspectCargo(abc);
+
+    coalescingService.inspectCargo(abc);
+    verify(cargoInspectionService, timeout(5000)).inspectCargo(abc);
+    Thread.sleep(50);
+    coalescingService.inspectCargo(abc);
+    coalescingService.shutdown();
+
+    verify(cargoInspectionService, times(2)).inspectCargo(abc);
+  }
+}
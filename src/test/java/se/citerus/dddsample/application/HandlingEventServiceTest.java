@@ -11,11 +11,17 @@ import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.domain.model.handling.HandlingEventFactory;
 import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
 import se.citerus.dddsample.domain.model.location.LocationRepository;
+import se.citerus.dddsample.domain.model.handling.UnknownLocationException;
+import se.citerus.dddsample.domain.model.location.UnLocode;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.*;
 import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
@@ -53,4 +59,29 @@ public class HandlingEventServiceTest {
     verify(handlingEventRepository, times(1)).store(isA(HandlingEvent.class));
     verify(applicationEvents, times(1)).cargoWasHandled(isA(HandlingEvent.class));
   }
+
+  @Test
+  public void testRegisterEventsRejectsBadAttemptsOneByOne() {
+    UnLocode unknown = new UnLocode("XXXXX");
+    when(cargoRepository.find(Set.of(cargo.trackingId()))).thenReturn(List.of(cargo));
+    when(voyageRepository.find(Set.of(CM001.voyageNumber()))).thenReturn(List.of(CM001));
+    when(locationRepository.find(Set.of(STOCKHOLM.unLocode(), unknown))).thenReturn(List.of(STOCKHOLM));
+
+    HandlingEventRegistrationAttempt load = new HandlingEventRegistrationAttempt(
+      Instant.now(), Instant.now(), cargo.trackingId(), CM001.voyageNumber(), HandlingEvent.Type.LOAD, STOCKHOLM.unLocode());
+    HandlingEventRegistrationAttempt badLocation = new HandlingEventRegistrationAttempt(
+      Instant.now(), Instant.now(), cargo.trackingId(), null, HandlingEvent.Type.CUSTOMS, unknown);
+    HandlingEventRegistrationAttempt claim = new HandlingEventRegistrationAttempt(
+      Instant.now(), Instant.now(), cargo.trackingId(), null, HandlingEvent.Type.CLAIM, STOCKHOLM.unLocode());
+
+    List<RejectedRegistrationAttempt> rejected = service.registerHandlingEvents(List.of(load, badLocation, claim));
+
+    assertThat(rejected).hasSize(1);
+    assertThat(rejected.get(0).attempt()).isSameAs(badLocation);
+    assertThat(rejected.get(0).reason()).isInstanceOf(UnknownLocationException.class);
+    verify(handlingEventRepository).storeAll(argThat(events -> events.size() == 2));
+    verify(applicationEvents, times(2)).cargoWasHandled(isA(HandlingEvent.class));
+    verify(cargoRepository, never()).find(cargo.trackingId());
+    verify(locationRepository, never()).find(STOCKHOLM.unLocode());
+  }
 }
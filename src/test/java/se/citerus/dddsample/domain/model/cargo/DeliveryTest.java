@@ -0,0 +1,112 @@
+package se.citerus.dddsample.domain.model.cargo;
+
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.handling.HandlingHistory;
+import se.citerus.dddsample.domain.model.location.Location;
+import se.citerus.dddsample.domain.model.voyage.Voyage;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.citerus.dddsample.application.util.DateUtils.toDate;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleVoyages.*;
+
+public class DeliveryTest {
+
+  private static final Instant START = toDate("2009-03-01");
+  private static final List<Location> LOCATIONS = List.of(HONGKONG, NEWYORK, DALLAS, HELSINKI, TOKYO);
+  private static final List<Voyage> VOYAGES = List.of(HONGKONG_TO_NEW_YORK, NEW_YORK_TO_DALLAS, DALLAS_TO_HELSINKI, CM001);
+
+  private final RouteSpecification routeSpecification = new RouteSpecification(HONGKONG, HELSINKI, toDate("2009-06-01"));
+  private final Itinerary itinerary = new Itinerary(List.of(
+    new Leg(HONGKONG_TO_NEW_YORK, HONGKONG, NEWYORK, START.plus(Duration.ofDays(1)), START.plus(Duration.ofDays(5))),
+    new Leg(NEW_YORK_TO_DALLAS, NEWYORK, DALLAS, START.plus(Duration.ofDays(6)), START.plus(Duration.ofDays(8))),
+    new Leg(DALLAS_TO_HELSINKI, DALLAS, HELSINKI, START.plus(Duration.ofDays(9)), START.plus(Duration.ofDays(14)))
+  ));
+
+  @Test
+  public void testUpdateOnHandlingMatchesDerivationFromHistory() {
+    // Few distinct completion times, so that events are often out of order or completed at the same time
+    for (long seed = 0; seed < 500; seed++) {
+      final Random random = new Random(seed);
+      final Cargo cargo = new Cargo(new TrackingId("ABC"), routeSpecification);
+      final Itinerary routing = random.nextInt(4) == 0 ? null : itinerary;
+      final List<HandlingEvent> events = new ArrayList<>();
+
+      Delivery delivery = Delivery.derivedFrom(routeSpecification, routing, HandlingHistory.EMPTY);
+      final int numberOfEvents = 1 + random.nextInt(30);
+      for (int i = 0; i < numberOfEvents; i++) {
+        final HandlingEvent event = events.isEmpty() || random.nextInt(5) > 0 ?
+          randomEvent(cargo, random, i) : reregistered(events.get(random.nextInt(events.size())), i);
+        events.add(event);
+
+        delivery = delivery.updateOnHandling(routeSpecification, routing, event, () -> new HandlingHistory(events));
+        final Delivery derived = Delivery.derivedFrom(routeSpecification, routing, new HandlingHistory(events));
+        derived.calculatedAt = delivery.calculatedAt;
+
+        assertThat(delivery).as("seed %d, event %d", seed, i).isEqualTo(derived);
+      }
+    }
+  }
+
+  @Test
+  public void testUpdateOnHandlingInOrderDoesNotLookUpHistory() {
+    final Cargo cargo = new Cargo(new TrackingId("ABC"), routeSpecification);
+    final Supplier<HandlingHistory> noHistory = () -> {
+      throw new AssertionError("Handling history should not be needed");
+    };
+
+    Delivery delivery = Delivery.derivedFrom(routeSpecification, itinerary, HandlingHistory.EMPTY);
+    final HandlingEvent receive = new HandlingEvent(cargo, START, START, HandlingEvent.Type.RECEIVE, HONGKONG);
+    delivery = delivery.updateOnHandling(routeSpecification, itinerary, receive, noHistory);
+    final HandlingEvent load = new HandlingEvent(cargo, START.plus(Duration.ofDays(1)), START, HandlingEvent.Type.LOAD, HONGKONG, HONGKONG_TO_NEW_YORK);
+    delivery = delivery.updateOnHandling(routeSpecification, itinerary, load, noHistory);
+    delivery = delivery.updateOnHandling(routeSpecification, itinerary, reregistered(load, 1), noHistory);
+
+    assertThat(delivery.transportStatus()).isEqualTo(TransportStatus.ONBOARD_CARRIER);
+    assertThat(delivery.currentVoyage()).isEqualTo(HONGKONG_TO_NEW_YORK);
+    assertThat(delivery.nextExpectedActivity()).isEqualTo(new HandlingActivity(HandlingEvent.Type.UNLOAD, NEWYORK, HONGKONG_TO_NEW_YORK));
+  }
+
+  @Test
+  public void testUpdateOnHandlingOutOfOrderUsesHistory() {
+    final Cargo cargo = new Cargo(new TrackingId("ABC"), routeSpecification);
+    final HandlingEvent receive = new HandlingEvent(cargo, START, START, HandlingEvent.Type.RECEIVE, HONGKONG);
+    final HandlingEvent load = new HandlingEvent(cargo, START.plus(Duration.ofDays(1)), START, HandlingEvent.Type.LOAD, HONGKONG, HONGKONG_TO_NEW_YORK);
+
+    Delivery delivery = Delivery.derivedFrom(routeSpecification, itinerary, new HandlingHistory(List.of(load)));
+    delivery = delivery.updateOnHandling(routeSpecification, itinerary, receive, () -> new HandlingHistory(List.of(load, receive)));
+
+    assertThat(delivery.transportStatus()).isEqualTo(TransportStatus.ONBOARD_CARRIER);
+    assertThat(delivery.lastKnownLocation()).isEqualTo(HONGKONG);
+  }
+
+  private static HandlingEvent randomEvent(Cargo cargo, Random random, int registered) {
+    final Instant completionTime = START.plus(Duration.ofDays(random.nextInt(8)));
+    final Instant registrationTime = START.plus(Duration.ofMinutes(registered));
+    final HandlingEvent.Type type = HandlingEvent.Type.values()[random.nextInt(HandlingEvent.Type.values().length)];
+    final Location location = LOCATIONS.get(random.nextInt(LOCATIONS.size()));
+    if (type.requiresVoyage()) {
+      final Voyage voyage = VOYAGES.get(random.nextInt(VOYAGES.size()));
+      return new HandlingEvent(cargo, completionTime, registrationTime, type, location, voyage);
+    } else {
+      return new HandlingEvent(cargo, completionTime, registrationTime, type, location);
+    }
+  }
+
+  private static HandlingEvent reregistered(HandlingEvent event, int registered) {
+    final Instant registrationTime = START.plus(Duration.ofMinutes(registered));
+    if (event.type().requiresVoyage()) {
+      return new HandlingEvent(event.cargo(), event.completionTime(), registrationTime, event.type(), event.location(), event.voyage());
+    } else {
+      return new HandlingEvent(event.cargo(), event.completionTime(), registrationTime, event.type(), event.location());
+    }
+  }
+}
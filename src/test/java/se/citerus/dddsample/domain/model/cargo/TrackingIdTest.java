@@ -2,6 +2,7 @@ package se.citerus.dddsample.domain.model.cargo;
 
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class TrackingIdTest {
@@ -11,4 +12,13 @@ public class TrackingIdTest {
     assertThatThrownBy(() -> new TrackingId(null)).isInstanceOf(NullPointerException.class);
   }
 
+  @Test
+  public void testIsValid() {
+    assertThat(TrackingId.isValid("ABC123", 0, 6)).isTrue();
+    assertThat(TrackingId.isValid("  abc-123  ", 2, 9)).isTrue();
+    assertThat(TrackingId.isValid("ABC123", 3, 3)).isFalse();
+    assertThat(TrackingId.isValid("ABC/123", 0, 7)).isFalse();
+    assertThat(TrackingId.isValid("ÅBC123", 0, 6)).isFalse();
+  }
+
 }
@@ -0,0 +1,85 @@
+package se.citerus.dddsample.domain.model.handling;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import se.citerus.dddsample.domain.model.cargo.Cargo;
+import se.citerus.dddsample.domain.model.cargo.RouteSpecification;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.location.Location;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleVoyages.CM001;
+
+/**
+ * Compares looking up the most recently completed event of a handling history
+ * that is ordered once, when it is created, with de-duplicating and sorting
+ * the events on every lookup.
+ * <p>
+ * Run with the test classpath, e.g. from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlingHistoryBenchmark {
+
+  private static final List<Location> LOCATIONS = List.of(STOCKHOLM, HAMBURG, HONGKONG, MELBOURNE);
+
+  @Param({"10", "100", "1000"})
+  public int numberOfEvents;
+
+  private List<HandlingEvent> events;
+  private HandlingHistory handlingHistory;
+
+  @Setup
+  public void setUp() {
+    final Random random = new Random(1);
+    final Cargo cargo = new Cargo(new TrackingId("ABC"), new RouteSpecification(STOCKHOLM, MELBOURNE, Instant.now()));
+    final Instant start = Instant.parse("2009-03-01T00:00:00Z");
+    events = new ArrayList<>(numberOfEvents);
+    for (int i = 0; i < numberOfEvents; i++) {
+      final Instant completionTime = start.plus(Duration.ofHours(random.nextInt(numberOfEvents)));
+      final Instant registrationTime = start.plus(Duration.ofMinutes(i));
+      final Location location = LOCATIONS.get(random.nextInt(LOCATIONS.size()));
+      // Every tenth event is registered twice
+      events.add(i % 10 == 9 ?
+        new HandlingEvent(cargo, completionTime, registrationTime, HandlingEvent.Type.LOAD, location, CM001) :
+        new HandlingEvent(cargo, completionTime, registrationTime, HandlingEvent.Type.CUSTOMS, location));
+      if (i % 10 == 9) {
+        events.add(new HandlingEvent(cargo, completionTime, registrationTime.plusSeconds(1), HandlingEvent.Type.LOAD, location, CM001));
+      }
+    }
+    Collections.shuffle(events, random);
+    handlingHistory = new HandlingHistory(events);
+  }
+
+  @Benchmark
+  public HandlingEvent mostRecentlyCompletedEvent() {
+    return handlingHistory.mostRecentlyCompletedEvent();
+  }
+
+  @Benchmark
+  public HandlingEvent createAndLookUpMostRecentlyCompletedEvent() {
+    return new HandlingHistory(events).mostRecentlyCompletedEvent();
+  }
+
+  @Benchmark
+  public HandlingEvent sortOnEachLookup() {
+    final List<HandlingEvent> ordered = new ArrayList<>(new HashSet<>(events));
+    ordered.sort(Comparator.comparing(HandlingEvent::completionTime));
+    return ordered.get(ordered.size() - 1);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(HandlingHistoryBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -46,5 +46,28 @@ public class HandlingHistoryTest {
   public void testMostRecentlyCompletedEvent() {
     assertThat(handlingHistory.mostRecentlyCompletedEvent()).isEqualTo(event2);
   }
+
+  @Test
+  public void testEventsCompletedAtSameTimeAreOrderedByRegistrationTime() {
+    HandlingEvent customs = new HandlingEvent(cargo, toDate("2009-03-05"), Instant.ofEpochMilli(300), HandlingEvent.Type.CUSTOMS, SHANGHAI);
+    HandlingEvent claim = new HandlingEvent(cargo, toDate("2009-03-05"), Instant.ofEpochMilli(50), HandlingEvent.Type.CLAIM, SHANGHAI);
+
+    HandlingHistory history = new HandlingHistory(List.of(event1duplicate, customs, claim, event1));
+
+    assertThat(history.distinctEventsByCompletionTime()).containsExactly(claim, event1, customs);
+    assertThat(history.distinctEventsByCompletionTime().get(1)).isSameAs(event1);
+    assertThat(history.mostRecentlyCompletedEvent()).isSameAs(customs);
+  }
+
+  @Test
+  public void testFilterOnCargo() {
+    Cargo other = new Cargo(new TrackingId("XYZ"), new RouteSpecification(SHANGHAI, DALLAS, toDate("2009-04-01")));
+    HandlingEvent otherEvent = new HandlingEvent(other, toDate("2009-03-20"), Instant.ofEpochMilli(100), HandlingEvent.Type.RECEIVE, SHANGHAI);
+
+    HandlingHistory history = new HandlingHistory(List.of(otherEvent, event2, event1)).filterOnCargo(cargo.trackingId());
+
+    assertThat(history.distinctEventsByCompletionTime()).containsExactly(event1, event2);
+    assertThat(history.mostRecentlyCompletedEvent()).isEqualTo(event2);
+  }
   
 }
@@ -17,7 +17,7 @@ public class UnLocodeTest {
     assertThat(new UnLocode(input)).isNotNull();
   }
 
-  @ValueSource(strings = {"AAAA", "AAAAAA", "AAAA", "AAAAAA", "22AAA", "AA111"})
+  @ValueSource(strings = {"AAAA", "AAAAAA", "AAAA", "AAAAAA", "22AAA", "AA111", "A2AAA", "AAA1A", "AA AA", "ÅAAAA"})
   @NullSource
   @EmptySource
   @ParameterizedTest
@@ -0,0 +1,97 @@
+package se.citerus.dddsample.infrastructure.messaging.jms;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.ActiveMQSession;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import se.citerus.dddsample.application.CargoInspectionService;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import javax.jms.Connection;
+import javax.jms.Destination;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CargoHandledConsumerTest {
+
+  private final ActiveMQConnectionFactory connectionFactory =
+    new ActiveMQConnectionFactory("vm://cargoHandledTest?broker.persistent=false&broker.useJmx=false");
+  private final Destination queue = new ActiveMQQueue("CargoHandledQueue");
+  private Connection brokerConnection;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    // Keeps the embedded broker running while the consumers come and go
+    brokerConnection = connectionFactory.createConnection();
+    brokerConnection.start();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    brokerConnection.close();
+  }
+
+  @Test
+  public void testMessageIsRedeliveredWhenConsumerStopsBeforeInspection() throws Exception {
+    final CountDownLatch requested = new CountDownLatch(1);
+    final DefaultMessageListenerContainer stopping = container(new CargoInspectionService() {
+      @Override
+      public void inspectCargo(TrackingId trackingId) {
+      }
+
+      @Override
+      public void inspectCargo(TrackingId trackingId, Runnable inspected) {
+        // Never inspected, as if the node stopped within the coalescing window
+        requested.countDown();
+      }
+    });
+    new JmsTemplate(connectionFactory).send(queue, session -> session.createTextMessage("ABC123"));
+    assertThat(requested.await(5, TimeUnit.SECONDS)).isTrue();
+    stopping.shutdown();
+
+    final List<TrackingId> inspected = new CopyOnWriteArrayList<>();
+    final CountDownLatch redelivered = new CountDownLatch(1);
+    final DefaultMessageListenerContainer restarted = container(trackingId -> {
+      inspected.add(trackingId);
+      redelivered.countDown();
+    });
+    try {
+      assertThat(redelivered.await(5, TimeUnit.SECONDS)).isTrue();
+      assertThat(inspected).containsExactly(new TrackingId("ABC123"));
+    } finally {
+      restarted.shutdown();
+    }
+  }
+
+  @Test
+  public void testMessageIsAcknowledgedOnceInspected() throws Exception {
+    final CountDownLatch inspected = new CountDownLatch(1);
+    final DefaultMessageListenerContainer container = container(trackingId -> inspected.countDown());
+    new JmsTemplate(connectionFactory).send(queue, session -> session.createTextMessage("ABC123"));
+    assertThat(inspected.await(5, TimeUnit.SECONDS)).isTrue();
+    container.shutdown();
+
+    final JmsTemplate receiver = new JmsTemplate(connectionFactory);
+    receiver.setReceiveTimeout(500);
+    assertThat(receiver.receive(queue)).isNull();
+  }
+
+  private DefaultMessageListenerContainer container(final CargoInspectionService cargoInspectionService) {
+    final DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.setDestination(queue);
+    container.setMessageListener(new CargoHandledConsumer(cargoInspectionService));
+    container.setSessionAcknowledgeMode(ActiveMQSession.INDIVIDUAL_ACKNOWLEDGE);
+    container.afterPropertiesSet();
+    container.start();
+    return container;
+  }
+}
@@ -0,0 +1,99 @@
+package se.citerus.dddsample.infrastructure.messaging.jms;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+import java.io.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares encoding and decoding handling event registration attempts with
+ * {@link HandlingEventRegistrationAttemptCodec} with Java serialization, which is
+ * what an object message does. The size of a message in each format is printed
+ * by {@link #main(String[])} before the benchmarks are run.
+ * <p>
+ * Run with the test classpath, e.g. from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlingEventRegistrationAttemptCodecBenchmark {
+
+  @Param({"1", "100"})
+  public int numberOfAttempts;
+
+  private ArrayList<HandlingEventRegistrationAttempt> attempts;
+  private byte[] encoded;
+  private byte[] serialized;
+
+  @Setup
+  public void setUp() throws IOException {
+    attempts = attempts(numberOfAttempts);
+    encoded = HandlingEventRegistrationAttemptCodec.encode(attempts);
+    serialized = serialize(attempts);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return HandlingEventRegistrationAttemptCodec.encode(attempts);
+  }
+
+  @Benchmark
+  public List<HandlingEventRegistrationAttempt> decode() {
+    return HandlingEventRegistrationAttemptCodec.decode(encoded);
+  }
+
+  @Benchmark
+  public byte[] serialize() throws IOException {
+    return serialize(attempts);
+  }
+
+  @Benchmark
+  public Object deserialize() throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+      return in.readObject();
+    }
+  }
+
+  private static byte[] serialize(final Serializable object) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(object);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static ArrayList<HandlingEventRegistrationAttempt> attempts(final int count) {
+    final Instant completionTime = Instant.parse("2022-10-29T13:37:00Z");
+    final ArrayList<HandlingEventRegistrationAttempt> attempts = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      attempts.add(new HandlingEventRegistrationAttempt(Instant.now(), completionTime.plusSeconds(60L * i),
+        new TrackingId(String.format("%08X", i)), i % 2 == 0 ? new VoyageNumber("0101") : null,
+        HandlingEvent.Type.values()[i % HandlingEvent.Type.values().length], new UnLocode("SESTO")));
+    }
+    return attempts;
+  }
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    for (int count : new int[] {1, 100}) {
+      final ArrayList<HandlingEventRegistrationAttempt> attempts = attempts(count);
+      final Serializable single = count == 1 ? attempts.get(0) : attempts;
+      System.out.printf("%d attempt(s): %d bytes encoded, %d bytes serialized%n",
+        count, HandlingEventRegistrationAttemptCodec.encode(attempts).length, serialize(single).length);
+    }
+    new Runner(new OptionsBuilder().include(HandlingEventRegistrationAttemptCodecBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,97 @@
+package se.citerus.dddsample.infrastructure.messaging.jms;
+
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class HandlingEventRegistrationAttemptCodecTest {
+
+  private final HandlingEventRegistrationAttempt load = new HandlingEventRegistrationAttempt(
+    Instant.parse("2022-10-30T08:15:30.123456789Z"), Instant.parse("2022-10-29T13:37:00Z"),
+    new TrackingId("ABC123"), new VoyageNumber("0101"), HandlingEvent.Type.LOAD, new UnLocode("SESTO"));
+  private final HandlingEventRegistrationAttempt receive = new HandlingEventRegistrationAttempt(
+    Instant.parse("1969-12-31T23:59:59.5Z"), Instant.parse("2022-10-29T13:37:00Z"),
+    new TrackingId("Å-123"), null, HandlingEvent.Type.RECEIVE, new UnLocode("cnhkg"));
+
+  @Test
+  public void testDecodesWhatWasEncoded() {
+    final List<HandlingEventRegistrationAttempt> decoded =
+      HandlingEventRegistrationAttemptCodec.decode(HandlingEventRegistrationAttemptCodec.encode(List.of(load, receive)));
+
+    assertThat(decoded).hasSize(2);
+    assertSameAttempt(decoded.get(0), load);
+    assertSameAttempt(decoded.get(1), receive);
+  }
+
+  @Test
+  public void testEncodesEveryHandlingEventType() {
+    for (HandlingEvent.Type type : HandlingEvent.Type.values()) {
+      final HandlingEventRegistrationAttempt attempt = new HandlingEventRegistrationAttempt(
+        load.getRegistrationTime(), load.getCompletionTime(), load.getTrackingId(), load.getVoyageNumber(), type, load.getUnLocode());
+
+      final List<HandlingEventRegistrationAttempt> decoded =
+        HandlingEventRegistrationAttemptCodec.decode(HandlingEventRegistrationAttemptCodec.encode(attempt));
+
+      assertThat(decoded).hasSize(1);
+      assertThat(decoded.get(0).getType()).isEqualTo(type);
+    }
+  }
+
+  @Test
+  public void testLayout() {
+    final byte[] bytes = HandlingEventRegistrationAttemptCodec.encode(load);
+
+    // Header, two instants, type, UN/LOCODE, tracking id and voyage number with their lengths
+    assertThat(bytes).hasSize(5 + 24 + 1 + 5 + 8 + 6);
+    assertThat(bytes[0]).isEqualTo(HandlingEventRegistrationAttemptCodec.VERSION);
+    assertThat(Arrays.copyOfRange(bytes, 1, 5)).containsExactly(0, 0, 0, 1);
+  }
+
+  @Test
+  public void testRejectsUnknownVersion() {
+    final byte[] bytes = HandlingEventRegistrationAttemptCodec.encode(load);
+    bytes[0] = HandlingEventRegistrationAttemptCodec.VERSION + 1;
+
+    assertThatThrownBy(() -> HandlingEventRegistrationAttemptCodec.decode(bytes))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("Unsupported version 2");
+  }
+
+  @Test
+  public void testRejectsTruncatedOrCorruptMessages() {
+    final byte[] bytes = HandlingEventRegistrationAttemptCodec.encode(List.of(load, receive));
+
+    for (int length = 0; length < bytes.length; length++) {
+      final byte[] truncated = Arrays.copyOf(bytes, length);
+      assertThatThrownBy(() -> HandlingEventRegistrationAttemptCodec.decode(truncated))
+        .isInstanceOf(IllegalArgumentException.class);
+    }
+    assertThatThrownBy(() -> HandlingEventRegistrationAttemptCodec.decode(Arrays.copyOf(bytes, bytes.length + 1)))
+      .isInstanceOf(IllegalArgumentException.class);
+
+    final byte[] hugeCount = bytes.clone();
+    hugeCount[1] = 0x7F;
+    assertThatThrownBy(() -> HandlingEventRegistrationAttemptCodec.decode(hugeCount))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageStartingWith("Invalid number of attempts");
+  }
+
+  private static void assertSameAttempt(final HandlingEventRegistrationAttempt actual, final HandlingEventRegistrationAttempt expected) {
+    assertThat(actual.getRegistrationTime()).isEqualTo(expected.getRegistrationTime());
+    assertThat(actual.getCompletionTime()).isEqualTo(expected.getCompletionTime());
+    assertThat(actual.getTrackingId()).isEqualTo(expected.getTrackingId());
+    assertThat(actual.getVoyageNumber()).isEqualTo(expected.getVoyageNumber());
+    assertThat(actual.getType()).isEqualTo(expected.getType());
+    assertThat(actual.getUnLocode()).isEqualTo(expected.getUnLocode());
+  }
+}
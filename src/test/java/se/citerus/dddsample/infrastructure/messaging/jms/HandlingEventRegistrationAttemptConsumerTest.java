@@ -0,0 +1,64 @@
+package se.citerus.dddsample.infrastructure.messaging.jms;
+
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQObjectMessage;
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.application.HandlingEventService;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+import javax.jms.JMSException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class HandlingEventRegistrationAttemptConsumerTest {
+
+  private final HandlingEventService handlingEventService = mock(HandlingEventService.class);
+  private final HandlingEventRegistrationAttemptConsumer consumer = new HandlingEventRegistrationAttemptConsumer(handlingEventService);
+
+  private final HandlingEventRegistrationAttempt attempt = new HandlingEventRegistrationAttempt(
+    Instant.now(), Instant.parse("2022-10-29T13:37:00Z"),
+    new TrackingId("ABC123"), new VoyageNumber("0101"), HandlingEvent.Type.LOAD, new UnLocode("SESTO"));
+
+  @Test
+  public void testRegistersSingleAttempt() throws Exception {
+    consumer.onMessage(bytesMessage(HandlingEventRegistrationAttemptCodec.encode(attempt)));
+
+    verify(handlingEventService).registerHandlingEvent(attempt.getCompletionTime(), attempt.getTrackingId(),
+      attempt.getVoyageNumber(), attempt.getUnLocode(), attempt.getType());
+    verifyNoMoreInteractions(handlingEventService);
+  }
+
+  @Test
+  public void testRegistersSeveralAttemptsTogether() throws Exception {
+    when(handlingEventService.registerHandlingEvents(any())).thenReturn(List.of());
+
+    consumer.onMessage(bytesMessage(HandlingEventRegistrationAttemptCodec.encode(List.of(attempt, attempt))));
+
+    verify(handlingEventService).registerHandlingEvents(argThat(attempts -> attempts.size() == 2));
+    verifyNoMoreInteractions(handlingEventService);
+  }
+
+  @Test
+  public void testIgnoresMessagesThatAreNotEncodedAttempts() throws Exception {
+    consumer.onMessage(bytesMessage(new byte[] {42}));
+    final ActiveMQObjectMessage objectMessage = new ActiveMQObjectMessage();
+    objectMessage.setObject(attempt);
+    consumer.onMessage(objectMessage);
+
+    verifyNoInteractions(handlingEventService);
+  }
+
+  private static ActiveMQBytesMessage bytesMessage(final byte[] body) throws JMSException {
+    final ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+    message.writeBytes(body);
+    message.reset();
+    return message;
+  }
+}
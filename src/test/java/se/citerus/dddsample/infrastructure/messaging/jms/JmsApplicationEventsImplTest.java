@@ -0,0 +1,136 @@
+package se.citerus.dddsample.infrastructure.messaging.jms;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import se.citerus.dddsample.application.HandlingEventService;
+import se.citerus.dddsample.application.RejectedRegistrationAttempt;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+import javax.jms.Destination;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class JmsApplicationEventsImplTest {
+
+  private static final int CONSUMERS = 4;
+  private static final int CARGOS = 20;
+  private static final int ATTEMPTS_PER_CARGO = 25;
+
+  private final Map<TrackingId, List<Instant>> registered = new ConcurrentHashMap<>();
+  private final Set<Thread> consumerThreads = ConcurrentHashMap.newKeySet();
+
+  private CachingConnectionFactory connectionFactory;
+  private DefaultMessageListenerContainer container;
+  private JmsApplicationEventsImpl applicationEvents;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    connectionFactory = new CachingConnectionFactory(
+      new ActiveMQConnectionFactory("vm://messageGroupsTest?broker.persistent=false&broker.useJmx=false"));
+    final Destination queue = new ActiveMQQueue("HandlingEventRegistrationAttemptQueue");
+
+    final HandlingEventService handlingEventService = mock(HandlingEventService.class);
+    doAnswer(invocation -> {
+      record(invocation.getArgument(1), invocation.getArgument(0));
+      return null;
+    }).when(handlingEventService).registerHandlingEvent(any(), any(), any(), any(), any());
+    when(handlingEventService.registerHandlingEvents(any())).thenAnswer(invocation -> {
+      final List<HandlingEventRegistrationAttempt> attempts = invocation.getArgument(0);
+      attempts.forEach(attempt -> record(attempt.getTrackingId(), attempt.getCompletionTime()));
+      return Collections.<RejectedRegistrationAttempt>emptyList();
+    });
+
+    container = new DefaultMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    container.setDestination(queue);
+    container.setMessageListener(new HandlingEventRegistrationAttemptConsumer(handlingEventService));
+    container.setConcurrentConsumers(CONSUMERS);
+    container.setMaxConcurrentConsumers(CONSUMERS);
+    container.afterPropertiesSet();
+    container.start();
+
+    applicationEvents = new JmsApplicationEventsImpl(new JmsTemplate(connectionFactory), null, null, null, null, queue, 16);
+  }
+
+  @AfterEach
+  void tearDown() {
+    container.shutdown();
+    connectionFactory.destroy();
+  }
+
+  @Test
+  public void testAttemptsForOneCargoAreConsumedInOrderWhileCargosAreConsumedInParallel() throws Exception {
+    final Instant start = Instant.parse("2022-10-29T00:00:00Z");
+    final List<HandlingEventRegistrationAttempt> batch = new ArrayList<>();
+    for (int i = 0; i < ATTEMPTS_PER_CARGO; i++) {
+      for (int cargo = 0; cargo < CARGOS; cargo++) {
+        final HandlingEventRegistrationAttempt attempt = attempt(cargo, start.plusSeconds(60L * i));
+        // Every fifth round of attempts is sent together
+        if (i % 5 == 4) {
+          batch.add(attempt);
+        } else {
+          applicationEvents.receivedHandlingEventRegistrationAttempt(attempt);
+        }
+      }
+      if (!batch.isEmpty()) {
+        applicationEvents.receivedHandlingEventRegistrationAttempts(batch);
+        batch.clear();
+      }
+    }
+
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (registered.values().stream().mapToInt(List::size).sum() < CARGOS * ATTEMPTS_PER_CARGO) {
+      assertThat(System.nanoTime() - deadline).as("Timed out").isNegative();
+      Thread.sleep(20);
+    }
+
+    assertThat(registered).hasSize(CARGOS);
+    for (List<Instant> completionTimes : registered.values()) {
+      assertThat(completionTimes).hasSize(ATTEMPTS_PER_CARGO).isSorted();
+    }
+    assertThat(consumerThreads.size()).isGreaterThan(1);
+  }
+
+  @Test
+  public void testCargoStaysInItsMessageGroup() {
+    final CargoMessageGroups groups = new CargoMessageGroups(16);
+    final Set<String> groupIds = new HashSet<>();
+    for (int cargo = 0; cargo < 1000; cargo++) {
+      final TrackingId trackingId = new TrackingId(String.format("%08X", cargo));
+      assertThat(groups.groupOf(trackingId)).isEqualTo(groups.groupOf(new TrackingId(trackingId.idString())));
+      groupIds.add(groups.groupOf(trackingId));
+    }
+    assertThat(groupIds).hasSize(16);
+  }
+
+  private void record(final TrackingId trackingId, final Instant completionTime) {
+    consumerThreads.add(Thread.currentThread());
+    registered.computeIfAbsent(trackingId, id -> Collections.synchronizedList(new ArrayList<>())).add(completionTime);
+    try {
+      // Long enough for the other consumers to get messages while this one is busy
+      Thread.sleep(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static HandlingEventRegistrationAttempt attempt(final int cargo, final Instant completionTime) {
+    return new HandlingEventRegistrationAttempt(Instant.now(), completionTime, new TrackingId("CARGO" + cargo),
+      null, HandlingEvent.Type.RECEIVE, new UnLocode("SESTO"));
+  }
+}
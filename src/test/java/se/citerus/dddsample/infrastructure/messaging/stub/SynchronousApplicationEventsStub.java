@@ -6,6 +6,8 @@ import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
+import java.util.List;
+
 public class SynchronousApplicationEventsStub implements ApplicationEvents {
 
   CargoInspectionService cargoInspectionService;
@@ -34,4 +36,9 @@ public class SynchronousApplicationEventsStub implements ApplicationEvents {
   public void receivedHandlingEventRegistrationAttempt(HandlingEventRegistrationAttempt attempt) {
     System.out.println("EVENT: received handling event registration attempt");
   }
+
+  @Override
+  public void receivedHandlingEventRegistrationAttempts(List<HandlingEventRegistrationAttempt> attempts) {
+    System.out.println("EVENT: received " + attempts.size() + " handling event registration attempts");
+  }
 }
@@ -0,0 +1,86 @@
+package se.citerus.dddsample.infrastructure.persistence.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.domain.model.location.LocationRepository;
+import se.citerus.dddsample.domain.model.location.UnLocode;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
+
+public class CachingLocationRepositoryTest {
+
+  private LocationRepository locationRepository;
+  private CachingLocationRepository cachingLocationRepository;
+
+  @BeforeEach
+  public void setUp() {
+    locationRepository = mock(LocationRepository.class);
+    when(locationRepository.find(HONGKONG.unLocode())).thenReturn(HONGKONG);
+    when(locationRepository.find(STOCKHOLM.unLocode())).thenReturn(STOCKHOLM);
+    cachingLocationRepository = new CachingLocationRepository(locationRepository);
+  }
+
+  @Test
+  public void testFindReadsThrough() {
+    assertThat(cachingLocationRepository.find(HONGKONG.unLocode())).isSameAs(HONGKONG);
+    assertThat(cachingLocationRepository.find(HONGKONG.unLocode())).isSameAs(HONGKONG);
+
+    verify(locationRepository, times(1)).find(HONGKONG.unLocode());
+  }
+
+  @Test
+  public void testLocationsNotFoundAreNotCached() {
+    UnLocode unknown = new UnLocode("XXXXX");
+    assertThat(cachingLocationRepository.find(unknown)).isNull();
+    assertThat(cachingLocationRepository.find(unknown)).isNull();
+
+    verify(locationRepository, times(2)).find(unknown);
+  }
+
+  @Test
+  public void testFindManyOnlyLoadsMissingLocations() {
+    cachingLocationRepository.find(HONGKONG.unLocode());
+    when(locationRepository.find(Set.of(STOCKHOLM.unLocode()))).thenReturn(List.of(STOCKHOLM));
+
+    assertThat(cachingLocationRepository.find(List.of(HONGKONG.unLocode(), STOCKHOLM.unLocode(), HONGKONG.unLocode())))
+      .containsExactlyInAnyOrder(HONGKONG, STOCKHOLM);
+
+    verify(locationRepository).find(Set.of(STOCKHOLM.unLocode()));
+    assertThat(cachingLocationRepository.find(STOCKHOLM.unLocode())).isSameAs(STOCKHOLM);
+    verify(locationRepository, never()).find(STOCKHOLM.unLocode());
+  }
+
+  @Test
+  public void testGetAllIsNotCached() {
+    when(locationRepository.getAll()).thenReturn(List.of(HONGKONG, STOCKHOLM));
+
+    assertThat(cachingLocationRepository.getAll()).containsExactly(HONGKONG, STOCKHOLM);
+    assertThat(cachingLocationRepository.getAll()).containsExactly(HONGKONG, STOCKHOLM);
+
+    verify(locationRepository, times(2)).getAll();
+  }
+
+  @Test
+  public void testWarmLoadsAllLocations() {
+    when(locationRepository.getAll()).thenReturn(List.of(HONGKONG, STOCKHOLM));
+    cachingLocationRepository.warm();
+
+    assertThat(cachingLocationRepository.find(STOCKHOLM.unLocode())).isSameAs(STOCKHOLM);
+    verify(locationRepository, never()).find(STOCKHOLM.unLocode());
+  }
+
+  @Test
+  public void testStoredLocationsAreEvicted() {
+    cachingLocationRepository.find(HONGKONG.unLocode());
+    cachingLocationRepository.store(HONGKONG);
+    cachingLocationRepository.find(HONGKONG.unLocode());
+
+    verify(locationRepository).store(HONGKONG);
+    verify(locationRepository, times(2)).find(HONGKONG.unLocode());
+  }
+}
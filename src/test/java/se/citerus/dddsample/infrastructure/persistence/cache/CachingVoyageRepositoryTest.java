@@ -0,0 +1,78 @@
+package se.citerus.dddsample.infrastructure.persistence.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleVoyages.*;
+
+public class CachingVoyageRepositoryTest {
+
+  private VoyageRepository voyageRepository;
+  private CachingVoyageRepository cachingVoyageRepository;
+
+  @BeforeEach
+  public void setUp() {
+    voyageRepository = mock(VoyageRepository.class);
+    when(voyageRepository.find(CM001.voyageNumber())).thenReturn(CM001);
+    when(voyageRepository.find(CM002.voyageNumber())).thenReturn(CM002);
+    cachingVoyageRepository = new CachingVoyageRepository(voyageRepository);
+  }
+
+  @Test
+  public void testFindReadsThrough() {
+    assertThat(cachingVoyageRepository.find(CM001.voyageNumber())).isSameAs(CM001);
+    assertThat(cachingVoyageRepository.find(CM001.voyageNumber())).isSameAs(CM001);
+
+    verify(voyageRepository, times(1)).find(CM001.voyageNumber());
+  }
+
+  @Test
+  public void testVoyagesNotFoundAreNotCached() {
+    VoyageNumber unknown = new VoyageNumber("NONE");
+    assertThat(cachingVoyageRepository.find(unknown)).isNull();
+    assertThat(cachingVoyageRepository.find(unknown)).isNull();
+
+    verify(voyageRepository, times(2)).find(unknown);
+  }
+
+  @Test
+  public void testFindManyOnlyLoadsMissingVoyages() {
+    cachingVoyageRepository.find(CM001.voyageNumber());
+    when(voyageRepository.find(Set.of(CM002.voyageNumber()))).thenReturn(List.of(CM002));
+
+    assertThat(cachingVoyageRepository.find(List.of(CM001.voyageNumber(), CM002.voyageNumber(), CM001.voyageNumber())))
+      .containsExactlyInAnyOrder(CM001, CM002);
+
+    verify(voyageRepository).find(Set.of(CM002.voyageNumber()));
+    assertThat(cachingVoyageRepository.find(CM002.voyageNumber())).isSameAs(CM002);
+    verify(voyageRepository, never()).find(CM002.voyageNumber());
+  }
+
+  @Test
+  public void testWarmLoadsAllVoyages() {
+    when(voyageRepository.getAll()).thenReturn(List.of(CM001, CM002));
+    cachingVoyageRepository.warm();
+
+    assertThat(cachingVoyageRepository.find(CM002.voyageNumber())).isSameAs(CM002);
+    verify(voyageRepository, never()).find(CM002.voyageNumber());
+  }
+
+  @Test
+  public void testStoredVoyagesAreEvicted() {
+    cachingVoyageRepository.find(CM001.voyageNumber());
+    cachingVoyageRepository.store(CM001);
+    cachingVoyageRepository.find(CM001.voyageNumber());
+    cachingVoyageRepository.voyageStored(CM001);
+    cachingVoyageRepository.find(CM001.voyageNumber());
+
+    verify(voyageRepository).store(CM001);
+    verify(voyageRepository, times(3)).find(CM001.voyageNumber());
+  }
+}
@@ -12,6 +12,8 @@ import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * CargoRepositoryInMem implement the CargoRepository interface but is a test
@@ -37,10 +39,25 @@ public class CargoRepositoryInMem implements CargoRepository {
         return cargoDb.get(trackingId.idString());
     }
 
+    public List<Cargo> find(final Collection<TrackingId> trackingIds) {
+        final List<Cargo> cargos = new ArrayList<>();
+        for (TrackingId trackingId : new HashSet<>(trackingIds)) {
+            final Cargo cargo = find(trackingId);
+            if (cargo != null) {
+                cargos.add(cargo);
+            }
+        }
+        return cargos;
+    }
+
     public void store(final Cargo cargo) {
         cargoDb.put(cargo.trackingId().idString(), cargo);
     }
 
+    public void storeAll(final List<Cargo> cargos) {
+        cargos.forEach(this::store);
+    }
+
     public TrackingId nextTrackingId() {
         String random = UUID.randomUUID().toString().toUpperCase();
         return new TrackingId(
@@ -52,6 +69,17 @@ public class CargoRepositoryInMem implements CargoRepository {
         return new ArrayList<>(cargoDb.values());
     }
 
+    public List<Cargo> findPage(final TrackingId after, final int pageSize) {
+        return streamAll(pageSize)
+                .filter(cargo -> after == null || cargo.trackingId().idString().compareTo(after.idString()) > 0)
+                .limit(pageSize)
+                .collect(Collectors.toList());
+    }
+
+    public Stream<Cargo> streamAll(final int pageSize) {
+        return cargoDb.values().stream().sorted(Comparator.comparing(cargo -> cargo.trackingId().idString()));
+    }
+
     public void init() throws Exception {
         final TrackingId xyz = new TrackingId("XYZ");
         final Cargo cargoXYZ = createCargoWithDeliveryHistory(
@@ -0,0 +1,55 @@
+package se.citerus.dddsample.infrastructure.persistence.inmemory;
+
+import se.citerus.dddsample.application.tracking.CargoTrackingVersion;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.CargoTrackingViewRepository;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public class CargoTrackingViewRepositoryInMem implements CargoTrackingViewRepository {
+
+  private final Map<String, CargoTrackingView> viewDb = new HashMap<>();
+
+  @Override
+  public CargoTrackingView find(TrackingId trackingId) {
+    return viewDb.get(trackingId.idString());
+  }
+
+  @Override
+  public List<CargoTrackingView> find(Collection<TrackingId> trackingIds) {
+    return trackingIds.stream()
+      .distinct()
+      .map(this::find)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toList());
+  }
+
+  @Override
+  public CargoTrackingVersion findVersion(TrackingId trackingId) {
+    final CargoTrackingView view = find(trackingId);
+    return view == null ? null : view.version();
+  }
+
+  @Override
+  public void store(CargoTrackingView view) {
+    viewDb.put(view.trackingId(), view);
+  }
+
+  @Override
+  public void storeAllNew(List<CargoTrackingView> views) {
+    views.forEach(this::store);
+  }
+
+  @Override
+  public List<TrackingId> findCargosWithoutView(int limit) {
+    return Collections.emptyList();
+  }
+
+}
@@ -0,0 +1,41 @@
+package se.citerus.dddsample.infrastructure.persistence.inmemory;
+
+import se.citerus.dddsample.application.tracking.HandlingEventProjection;
+import se.citerus.dddsample.application.tracking.HandlingEventProjectionRepository;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class HandlingEventProjectionRepositoryInMem implements HandlingEventProjectionRepository {
+
+  private final HandlingEventRepository handlingEventRepository;
+
+  public HandlingEventProjectionRepositoryInMem(HandlingEventRepository handlingEventRepository) {
+    this.handlingEventRepository = handlingEventRepository;
+  }
+
+  @Override
+  public List<HandlingEventProjection> lookupHandlingHistoryOfCargo(TrackingId trackingId) {
+    return handlingEventRepository.lookupHandlingHistoryOfCargo(trackingId).distinctEventsByCompletionTime().stream()
+      .map(HandlingEventProjection::of)
+      .collect(Collectors.toList());
+  }
+
+  @Override
+  public Map<TrackingId, List<HandlingEventProjection>> lookupHandlingHistoriesOfCargos(Collection<TrackingId> trackingIds) {
+    final Map<TrackingId, List<HandlingEventProjection>> histories = new HashMap<>();
+    for (TrackingId trackingId : trackingIds) {
+      final List<HandlingEventProjection> history = lookupHandlingHistoryOfCargo(trackingId);
+      if (!history.isEmpty()) {
+        histories.put(trackingId, history);
+      }
+    }
+    return histories;
+  }
+
+}
@@ -18,6 +18,11 @@ public class HandlingEventRepositoryInMem implements HandlingEventRepository {
     list.add(event);
   }
 
+  @Override
+  public void storeAll(List<HandlingEvent> events) {
+    events.forEach(this::store);
+  }
+
   @Override
   public HandlingHistory lookupHandlingHistoryOfCargo(TrackingId trackingId) {
     List<HandlingEvent> events = eventMap.get(trackingId);
@@ -25,4 +30,9 @@ public class HandlingEventRepositoryInMem implements HandlingEventRepository {
     
     return new HandlingHistory(events);
   }
+
+  @Override
+  public HandlingEvent lookupMostRecentlyCompletedEventOfCargo(TrackingId trackingId) {
+    return lookupHandlingHistoryOfCargo(trackingId).mostRecentlyCompletedEvent();
+  }
 }
@@ -5,7 +5,9 @@ import se.citerus.dddsample.domain.model.location.LocationRepository;
 import se.citerus.dddsample.infrastructure.sampledata.SampleLocations;
 import se.citerus.dddsample.domain.model.location.UnLocode;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class LocationRepositoryInMem implements LocationRepository {
 
@@ -18,6 +20,13 @@ public class LocationRepositoryInMem implements LocationRepository {
     return null;
   }
 
+  @Override
+  public List<Location> find(Collection<UnLocode> unLocodes) {
+    return SampleLocations.getAll().stream()
+      .filter(location -> unLocodes.contains(location.unLocode()))
+      .collect(Collectors.toList());
+  }
+
   public List<Location> getAll() {
     return SampleLocations.getAll();
   }
@@ -5,12 +5,31 @@ import se.citerus.dddsample.domain.model.voyage.Voyage;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
 public final class VoyageRepositoryInMem implements VoyageRepository {
 
   public Voyage find(VoyageNumber voyageNumber) {
     return SampleVoyages.lookup(voyageNumber);
   }
 
+  @Override
+  public List<Voyage> find(Collection<VoyageNumber> voyageNumbers) {
+    return voyageNumbers.stream()
+      .distinct()
+      .map(SampleVoyages::lookup)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toList());
+  }
+
+  @Override
+  public List<Voyage> getAll() {
+    return SampleVoyages.getAll();
+  }
+
   @Override
   public void store(Voyage voyage) {
     // noop
@@ -1,6 +1,8 @@
 package se.citerus.dddsample.infrastructure.persistence.jpa;
 
 import org.assertj.core.groups.Tuple;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +21,9 @@ import se.citerus.dddsample.domain.model.voyage.Voyage;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.interfaces.booking.facade.internal.assembler.CargoRoutingDTOAssembler;
+
 import javax.persistence.EntityManager;
 import java.math.BigInteger;
 import java.time.Instant;
@@ -26,7 +31,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static se.citerus.dddsample.application.util.DateUtils.toDate;
@@ -34,6 +44,7 @@ import static se.citerus.dddsample.domain.model.handling.HandlingEvent.Type.LOAD
 import static se.citerus.dddsample.domain.model.handling.HandlingEvent.Type.RECEIVE;
 import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
 import static se.citerus.dddsample.infrastructure.sampledata.SampleVoyages.HELSINKI_TO_HONGKONG;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleVoyages.HONGKONG_TO_NEW_YORK;
 import static se.citerus.dddsample.infrastructure.sampledata.SampleVoyages.NEW_YORK_TO_DALLAS;
 
 @ExtendWith(SpringExtension.class)
@@ -82,7 +93,7 @@ public class CargoRepositoryTest {
         assertThat(legs).hasSize(3)
                 .extracting("voyage.voyageNumber", "loadLocation", "unloadLocation")
                 .containsExactly(
-                    Tuple.tuple(null, HONGKONG, NEWYORK),
+                    Tuple.tuple("0100S", HONGKONG, NEWYORK),
                     Tuple.tuple("0200T", NEWYORK, DALLAS),
                     Tuple.tuple("0300A", DALLAS, HELSINKI));
     }
@@ -107,6 +118,15 @@ public class CargoRepositoryTest {
         assertThat(cargoRepository.find(new TrackingId("UNKNOWN"))).isNull();
     }
 
+    @Test
+    public void testFindMany() {
+        List<Cargo> cargos = cargoRepository.find(List.of(new TrackingId("ABC123"), new TrackingId("JKL567"), new TrackingId("UNKNOWN")));
+
+        assertThat(cargos).extracting(cargo -> cargo.trackingId().idString())
+            .containsExactlyInAnyOrder("ABC123", "JKL567");
+        assertThat(cargoRepository.find(List.of())).isEmpty();
+    }
+
     @Test
     public void testSave() {
         TrackingId trackingId = new TrackingId("AAA");
@@ -167,6 +187,119 @@ public class CargoRepositoryTest {
         assertThat(all).hasSize(2);
     }
 
+    @Test
+    public void testFindPage() {
+        List<Cargo> first = cargoRepository.findPage(null, 1);
+        assertThat(first).extracting(cargo -> cargo.trackingId().idString()).containsExactly("ABC123");
+
+        List<Cargo> second = cargoRepository.findPage(first.get(0).trackingId(), 1);
+        assertThat(second).extracting(cargo -> cargo.trackingId().idString()).containsExactly("JKL567");
+
+        assertThat(cargoRepository.findPage(second.get(0).trackingId(), 1)).isEmpty();
+        assertThat(cargoRepository.findPage(null, 10)).hasSize(2);
+    }
+
+    @Test
+    public void testStreamAll() {
+        assertThat(cargoRepository.streamAll(1).map(cargo -> cargo.trackingId().idString()))
+                .containsExactly("ABC123", "JKL567");
+        assertThat(cargoRepository.streamAll(2)).hasSize(2);
+    }
+
+    @Test
+    public void testStreamAllLetsGoOfEarlierPages() {
+        List<Cargo> streamed = new ArrayList<>();
+        try (Stream<Cargo> cargos = cargoRepository.streamAll(1)) {
+            cargos.forEach(cargo -> {
+                streamed.forEach(earlier -> assertThat(entityManager.contains(earlier)).isFalse());
+                assertThat(entityManager.contains(cargo)).isTrue();
+                streamed.add(cargo);
+            });
+        }
+        assertThat(streamed).hasSize(2);
+        assertThat(entityManager.contains(streamed.get(1))).isFalse();
+    }
+
+    @Test
+    public void testStreamAllDetachesCargosLoadedBeforeStreaming() {
+        Cargo loaded = cargoRepository.find(new TrackingId("ABC123"));
+
+        try (Stream<Cargo> cargos = cargoRepository.streamAll(1)) {
+            assertThat(cargos.filter(cargo -> cargo == loaded)).hasSize(1);
+        }
+        assertThat(entityManager.contains(loaded)).isFalse();
+    }
+
+    @Test
+    public void testFindPageInBoundedNumberOfStatements() {
+        storeRoutedCargos(20);
+        Statistics statistics = clearAndStartCountingStatements();
+
+        List<Cargo> cargos = cargoRepository.findPage(null, 100);
+        assertThat(cargos).hasSize(22);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        cargos.forEach(this::useAsInAdminListAndTracking);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFindManyInOneStatement() {
+        List<TrackingId> trackingIds = storeRoutedCargos(20);
+        Statistics statistics = clearAndStartCountingStatements();
+
+        List<Cargo> cargos = cargoRepository.find(trackingIds);
+        assertThat(cargos).hasSize(20);
+        cargos.forEach(this::useAsInAdminListAndTracking);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFindOneInOneStatement() {
+        Statistics statistics = clearAndStartCountingStatements();
+
+        Cargo cargo = cargoRepository.find(new TrackingId("ABC123"));
+        useAsInAdminListAndTracking(cargo);
+        // As in inspection
+        assertThat(cargo.delivery().lastEvent.location().name()).isEqualTo("New York");
+        assertThat(cargo.itinerary().isExpected(cargo.delivery().lastEvent)).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private List<TrackingId> storeRoutedCargos(int count) {
+        Location hongkong = locationRepository.find(HONGKONG.unLocode());
+        Location newYork = locationRepository.find(NEWYORK.unLocode());
+        Location dallas = locationRepository.find(DALLAS.unLocode());
+        Voyage toNewYork = voyageRepository.find(HONGKONG_TO_NEW_YORK.voyageNumber());
+        Voyage toDallas = voyageRepository.find(NEW_YORK_TO_DALLAS.voyageNumber());
+
+        List<TrackingId> trackingIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TrackingId trackingId = new TrackingId(String.format("N1%04d", i));
+            Cargo cargo = new Cargo(trackingId, new RouteSpecification(hongkong, dallas, Instant.now()));
+            cargo.assignToRoute(new Itinerary(List.of(
+                    new Leg(toNewYork, hongkong, newYork, Instant.now(), Instant.now()),
+                    new Leg(toDallas, newYork, dallas, Instant.now(), Instant.now()))));
+            cargoRepository.store(cargo);
+            trackingIds.add(trackingId);
+        }
+        return trackingIds;
+    }
+
+    private Statistics clearAndStartCountingStatements() {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private void useAsInAdminListAndTracking(Cargo cargo) {
+        new CargoRoutingDTOAssembler().toDTO(cargo);
+        CargoTrackingView.of(cargo, Collections.emptyList());
+    }
+
     @Test
     public void testNextTrackingId() {
         TrackingId trackingId = cargoRepository.nextTrackingId();
@@ -177,6 +310,20 @@ public class CargoRepositoryTest {
         assertThat(trackingId.equals(trackingId2)).isFalse();
     }
 
+    @Test
+    public void testNextTrackingIdTakesOneStatementPerBlock() {
+        Statistics statistics = clearAndStartCountingStatements();
+
+        Set<TrackingId> trackingIds = new HashSet<>();
+        for (int i = 0; i < 2 * TrackingIdBlocks.BLOCK_SIZE; i++) {
+            trackingIds.add(cargoRepository.nextTrackingId());
+        }
+
+        assertThat(trackingIds).hasSize(2 * TrackingIdBlocks.BLOCK_SIZE);
+        assertThat(trackingIds).allMatch(trackingId -> trackingId.idString().matches("T[0-9A-F]{8}"));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
     private void flush() {
         entityManager.flush();
     }
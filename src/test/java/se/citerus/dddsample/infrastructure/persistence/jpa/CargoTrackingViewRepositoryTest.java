@@ -0,0 +1,105 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.CargoTrackingViewRepository;
+import se.citerus.dddsample.application.tracking.HandlingEventProjectionRepository;
+import se.citerus.dddsample.domain.model.cargo.Cargo;
+import se.citerus.dddsample.domain.model.cargo.CargoRepository;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.cargo.TransportStatus;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+
+import javax.persistence.EntityManager;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@ContextConfiguration(classes = TestRepositoryConfig.class)
+@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class CargoTrackingViewRepositoryTest {
+
+    @Autowired
+    CargoTrackingViewRepository cargoTrackingViewRepository;
+
+    @Autowired
+    HandlingEventProjectionRepository handlingEventProjectionRepository;
+
+    @Autowired
+    CargoRepository cargoRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    public void testStoreAndFind() {
+        TrackingId trackingId = new TrackingId("ABC123");
+        Cargo cargo = cargoRepository.find(trackingId);
+        cargoTrackingViewRepository.store(CargoTrackingView.of(cargo, handlingEventProjectionRepository.lookupHandlingHistoryOfCargo(trackingId)));
+        flushAndClear();
+
+        CargoTrackingView view = cargoTrackingViewRepository.find(trackingId);
+
+        assertThat(view.trackingId()).isEqualTo("ABC123");
+        assertThat(view.origin()).isEqualTo("Hongkong");
+        assertThat(view.destination()).isEqualTo("Helsinki");
+        assertThat(view.transportStatus()).isEqualTo(TransportStatus.IN_PORT);
+        assertThat(view.lastKnownLocation()).isEqualTo("New York");
+        assertThat(view.events()).extracting(CargoTrackingView.Event::type).containsExactly(
+                HandlingEvent.Type.RECEIVE, HandlingEvent.Type.LOAD, HandlingEvent.Type.UNLOAD);
+        assertThat(view.events()).extracting(CargoTrackingView.Event::location).containsExactly("Hongkong", "Hongkong", "New York");
+        assertThat(view.events()).allMatch(CargoTrackingView.Event::isExpected);
+        assertThat(cargoTrackingViewRepository.findVersion(trackingId)).isEqualTo(view.version());
+    }
+
+    @Test
+    public void testStoreReplacesPreviousView() {
+        TrackingId trackingId = new TrackingId("ABC123");
+        Cargo cargo = cargoRepository.find(trackingId);
+        cargoTrackingViewRepository.store(CargoTrackingView.of(cargo, handlingEventProjectionRepository.lookupHandlingHistoryOfCargo(trackingId)));
+        flushAndClear();
+
+        cargoTrackingViewRepository.store(CargoTrackingView.of(cargo, emptyList()));
+        flushAndClear();
+
+        assertThat(cargoTrackingViewRepository.find(trackingId).events()).isEmpty();
+    }
+
+    @Test
+    public void testFindCargosWithoutView() {
+        TrackingId trackingId = new TrackingId("ABC123");
+        Cargo cargo = cargoRepository.find(trackingId);
+        entityManager.remove(entityManager.find(CargoTrackingView.class, trackingId.idString()));
+        flushAndClear();
+
+        assertThat(cargoTrackingViewRepository.findCargosWithoutView(100)).containsExactly(trackingId);
+
+        cargoTrackingViewRepository.storeAllNew(singletonList(CargoTrackingView.of(cargo, emptyList())));
+        flushAndClear();
+
+        assertThat(cargoTrackingViewRepository.findCargosWithoutView(100)).isEmpty();
+    }
+
+    @Test
+    public void testFindUnknownView() {
+        assertThat(cargoTrackingViewRepository.find(new TrackingId("UNKNOWN"))).isNull();
+        assertThat(cargoTrackingViewRepository.findVersion(new TrackingId("UNKNOWN"))).isNull();
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+}
@@ -12,6 +12,8 @@ import se.citerus.dddsample.domain.model.voyage.Voyage;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @ExtendWith(SpringExtension.class)
@@ -37,4 +39,22 @@ public class CarrierMovementRepositoryTest {
     */
     }
 
+    @Test
+    public void testFindMany() {
+        List<Voyage> voyages = voyageRepository.find(List.of(new VoyageNumber("0100S"), new VoyageNumber("0400S"), new VoyageNumber("NONE")));
+
+        assertThat(voyages).extracting(voyage -> voyage.voyageNumber().idString())
+                .containsExactlyInAnyOrder("0100S", "0400S");
+        assertThat(voyageRepository.find(List.of())).isEmpty();
+    }
+
+    @Test
+    public void testGetAllLoadsSchedules() {
+        List<Voyage> voyages = voyageRepository.getAll();
+        assertThat(voyages).extracting(voyage -> voyage.voyageNumber().idString())
+                .containsExactlyInAnyOrder("0100S", "0200T", "0300A", "0301S", "0400S");
+        Voyage voyage = voyages.stream().filter(v -> v.voyageNumber().idString().equals("0100S")).findFirst().get();
+        assertThat(voyage.schedule().carrierMovements()).hasSize(4);
+    }
+
 }
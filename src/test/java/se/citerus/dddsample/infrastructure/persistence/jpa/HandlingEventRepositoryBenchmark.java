@@ -0,0 +1,120 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.citerus.dddsample.Application;
+import se.citerus.dddsample.domain.model.cargo.Cargo;
+import se.citerus.dddsample.domain.model.cargo.CargoRepository;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.domain.model.handling.HandlingEventRepository;
+import se.citerus.dddsample.domain.model.location.Location;
+import se.citerus.dddsample.domain.model.location.LocationRepository;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.HONGKONG;
+
+/**
+ * Measures how many handling events per second {@link HandlingEventRepository} stores,
+ * one at a time and as a list, in a transaction of {@value #EVENTS_PER_TRANSACTION} events,
+ * with the default settings and with the JDBC batching of the ingestion profile.
+ * <p>
+ * Run with the test classpath, e.g. from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+// Like the surefire argLine, for Spring's class proxies
+@Fork(value = 1, jvmArgsAppend = {"--add-opens", "java.base/java.lang=ALL-UNNAMED", "--add-opens", "java.base/java.util=ALL-UNNAMED"})
+public class HandlingEventRepositoryBenchmark {
+
+  private static final int EVENTS_PER_TRANSACTION = 500;
+
+  @Param({"default", "ingestion"})
+  public String profile;
+
+  private ConfigurableApplicationContext context;
+  private HandlingEventRepository handlingEventRepository;
+  private TransactionTemplate transactionTemplate;
+  private EntityManager entityManager;
+  private Cargo cargo;
+  private Location location;
+  private Instant start;
+
+  @Setup
+  public void setUp() {
+    context = new SpringApplicationBuilder(Application.class)
+      .web(WebApplicationType.NONE)
+      .profiles(profile)
+      .run();
+    handlingEventRepository = context.getBean(HandlingEventRepository.class);
+    transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    entityManager = context.getBean(EntityManager.class);
+    cargo = context.getBean(CargoRepository.class).find(new TrackingId("ABC123"));
+    location = context.getBean(LocationRepository.class).find(HONGKONG.unLocode());
+    start = Instant.now();
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteStoredEvents() {
+    // Keeps the table from growing between iterations
+    transactionTemplate.execute(status -> entityManager
+      .createQuery("delete from HandlingEvent he where he.registrationTime >= :start")
+      .setParameter("start", start)
+      .executeUpdate());
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVENTS_PER_TRANSACTION)
+  public void store() {
+    final List<HandlingEvent> events = createEvents();
+    transactionTemplate.execute(status -> {
+      for (HandlingEvent event : events) {
+        handlingEventRepository.store(event);
+      }
+      return null;
+    });
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(EVENTS_PER_TRANSACTION)
+  public void storeAll() {
+    final List<HandlingEvent> events = createEvents();
+    transactionTemplate.execute(status -> {
+      handlingEventRepository.storeAll(events);
+      return null;
+    });
+  }
+
+  private List<HandlingEvent> createEvents() {
+    final Instant now = Instant.now();
+    final List<HandlingEvent> events = new ArrayList<>(EVENTS_PER_TRANSACTION);
+    for (int i = 0; i < EVENTS_PER_TRANSACTION; i++) {
+      events.add(new HandlingEvent(cargo, now, now, HandlingEvent.Type.CUSTOMS, location));
+    }
+    return events;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(HandlingEventRepositoryBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -1,5 +1,7 @@
 package se.citerus.dddsample.infrastructure.persistence.jpa;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,11 +19,18 @@ import se.citerus.dddsample.domain.model.location.Location;
 import se.citerus.dddsample.domain.model.location.LocationRepository;
 import se.citerus.dddsample.domain.model.location.UnLocode;
 
+import se.citerus.dddsample.application.tracking.HandlingEventProjection;
+import se.citerus.dddsample.application.tracking.HandlingEventProjectionRepository;
+
 import javax.persistence.EntityManager;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static se.citerus.dddsample.application.util.DateUtils.toDate;
 
 @ExtendWith(SpringExtension.class)
 @DataJpaTest
@@ -33,6 +42,9 @@ public class HandlingEventRepositoryTest {
     @Autowired
     HandlingEventRepository handlingEventRepository;
 
+    @Autowired
+    HandlingEventProjectionRepository handlingEventProjectionRepository;
+
     @Autowired
     CargoRepository cargoRepository;
 
@@ -66,6 +78,58 @@ public class HandlingEventRepositoryTest {
         // TODO: the rest of the columns
     }
 
+    @Test
+    public void testFindEventProjectionsForCargo() {
+        TrackingId trackingId = new TrackingId("ABC123");
+        Cargo cargo = cargoRepository.find(trackingId);
+        Location hongkong = locationRepository.find(new UnLocode("CNHKG"));
+        handlingEventRepository.store(new HandlingEvent(cargo, toDate("2009-03-01"), Instant.now(), HandlingEvent.Type.RECEIVE, hongkong));
+        flush();
+
+        List<HandlingEventProjection> events = handlingEventProjectionRepository.lookupHandlingHistoryOfCargo(trackingId);
+
+        assertThat(events).extracting(HandlingEventProjection::type).containsExactly(
+                HandlingEvent.Type.RECEIVE, HandlingEvent.Type.LOAD, HandlingEvent.Type.UNLOAD);
+        assertThat(events).extracting(HandlingEventProjection::locationName).containsExactly("Hongkong", "Hongkong", "New York");
+        assertThat(events).extracting(HandlingEventProjection::voyageNumber).containsExactly("", "0100S", "0100S");
+        assertThat(events.get(0).completionTime()).isEqualTo(toDate("2009-03-01"));
+        assertThat(events).allMatch(event -> event.isExpectedBy(cargo.itinerary()));
+    }
+
+    @Test
+    public void testFindEventProjectionsForCargos() {
+        TrackingId abc = new TrackingId("ABC123");
+        TrackingId jkl = new TrackingId("JKL567");
+        TrackingId missing = new TrackingId("MISSING");
+
+        Map<TrackingId, List<HandlingEventProjection>> histories =
+                handlingEventProjectionRepository.lookupHandlingHistoriesOfCargos(Arrays.asList(abc, jkl, missing));
+
+        assertThat(histories).containsOnlyKeys(abc, jkl);
+        assertThat(histories.get(abc)).usingFieldByFieldElementComparator().containsExactlyElementsOf(handlingEventProjectionRepository.lookupHandlingHistoryOfCargo(abc));
+        assertThat(histories.get(jkl)).usingFieldByFieldElementComparator().containsExactlyElementsOf(handlingEventProjectionRepository.lookupHandlingHistoryOfCargo(jkl));
+    }
+
+    @Test
+    public void testStoreAllInBatchesWithPooledIds() {
+        Location location = locationRepository.find(new UnLocode("SESTO"));
+        Cargo cargo = cargoRepository.find(new TrackingId("ABC123"));
+        List<HandlingEvent> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            events.add(new HandlingEvent(cargo, Instant.ofEpochMilli(i), Instant.ofEpochMilli(i), HandlingEvent.Type.CUSTOMS, location));
+        }
+        flush();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        handlingEventRepository.storeAll(events);
+        flush();
+
+        // A few sequence calls for 100 ids, and two batches of 50 inserts
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+    }
+
     private void flush() {
         entityManager.flush();
     }
@@ -35,6 +35,15 @@ public class LocationRepositoryTest {
         assertThat(locationRepository.find(new UnLocode("NOLOC"))).isNull();
     }
 
+    @Test
+    public void testFindMany() {
+        List<Location> locations = locationRepository.find(List.of(new UnLocode("AUMEL"), new UnLocode("SESTO"), new UnLocode("NOLOC")));
+
+        assertThat(locations).extracting(Location::unLocode)
+            .containsExactlyInAnyOrder(new UnLocode("AUMEL"), new UnLocode("SESTO"));
+        assertThat(locationRepository.find(List.of())).isEmpty();
+    }
+
     @Test
     public void testFindAll() {
         List<Location> allLocations = locationRepository.getAll();
@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import se.citerus.dddsample.interfaces.handling.file.UploadDirectoryScanner;
 
+import java.time.Duration;
+
 /**
  * This config is required by the repository tests to avoid a strange behavior where the UploadDirectoryScanner
  * creates directories despite the file paths not having been initialized properly.
@@ -14,7 +16,7 @@ public class TestRepositoryConfig {
     @Primary
     @Bean
     public UploadDirectoryScanner uploadDirectoryScanner() {
-        return new UploadDirectoryScanner(null, null, null) {
+        return new UploadDirectoryScanner(null, null, null, 1, Duration.ZERO, Duration.ZERO) {
             @Override
             public void afterPropertiesSet() {
                 // noop
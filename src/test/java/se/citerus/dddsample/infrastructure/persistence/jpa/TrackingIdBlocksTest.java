@@ -0,0 +1,75 @@
+package se.citerus.dddsample.infrastructure.persistence.jpa;
+
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TrackingIdBlocksTest {
+
+  @Test
+  public void testIdsArePrefixedUniqueEightHexDigits() {
+    final AtomicLong blocks = new AtomicLong();
+    final TrackingIdBlocks trackingIds = new TrackingIdBlocks(blocks::getAndIncrement);
+
+    final Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 3 * TrackingIdBlocks.BLOCK_SIZE; i++) {
+      final TrackingId trackingId = trackingIds.next();
+      assertThat(trackingId.idString()).matches("T[0-9A-F]{8}");
+      ids.add(trackingId.idString());
+    }
+
+    assertThat(ids).hasSize(3 * TrackingIdBlocks.BLOCK_SIZE);
+    assertThat(blocks.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void testIdsNeverLookLikeUuidPrefixes() {
+    final TrackingIdBlocks trackingIds = new TrackingIdBlocks(() -> 0);
+
+    for (int i = 0; i < TrackingIdBlocks.BLOCK_SIZE; i++) {
+      assertThat(trackingIds.next().idString()).doesNotMatch("[0-9A-F]{8}");
+    }
+  }
+
+  @Test
+  public void testNodesWithDifferentBlocksGetDifferentIds() {
+    final AtomicLong sequence = new AtomicLong();
+    final TrackingIdBlocks node1 = new TrackingIdBlocks(sequence::getAndIncrement);
+    final TrackingIdBlocks node2 = new TrackingIdBlocks(sequence::getAndIncrement);
+
+    final Set<String> ids = new HashSet<>();
+    for (int i = 0; i < 2 * TrackingIdBlocks.BLOCK_SIZE; i++) {
+      ids.add(node1.next().idString());
+      ids.add(node2.next().idString());
+    }
+
+    assertThat(ids).hasSize(4 * TrackingIdBlocks.BLOCK_SIZE);
+  }
+
+  @Test
+  public void testScrambleIsBijectiveOnTheLastBlocks() {
+    final Set<Integer> scrambled = new HashSet<>();
+    for (long n = (1L << 32) - 4 * TrackingIdBlocks.BLOCK_SIZE; n < (1L << 32); n++) {
+      scrambled.add(TrackingIdBlocks.scramble((int) n));
+    }
+    for (int n = 0; n < 4 * TrackingIdBlocks.BLOCK_SIZE; n++) {
+      scrambled.add(TrackingIdBlocks.scramble(n));
+    }
+
+    assertThat(scrambled).hasSize(8 * TrackingIdBlocks.BLOCK_SIZE);
+  }
+
+  @Test
+  public void testBlockOutOfRange() {
+    final TrackingIdBlocks trackingIds = new TrackingIdBlocks(() -> (1L << 32) / TrackingIdBlocks.BLOCK_SIZE);
+
+    assertThatThrownBy(trackingIds::next).isInstanceOf(IllegalStateException.class);
+  }
+
+}
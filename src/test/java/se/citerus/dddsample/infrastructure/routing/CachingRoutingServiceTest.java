@@ -0,0 +1,107 @@
+package se.citerus.dddsample.infrastructure.routing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.domain.model.cargo.Itinerary;
+import se.citerus.dddsample.domain.model.cargo.Leg;
+import se.citerus.dddsample.domain.model.cargo.RouteSpecification;
+import se.citerus.dddsample.domain.service.RoutingService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleVoyages.CM001;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleVoyages.CM002;
+
+public class CachingRoutingServiceTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+  private RoutingService routingService;
+  private ScheduleVersion scheduleVersion;
+  private Clock clock;
+  private CachingRoutingService cachingRoutingService;
+
+  @BeforeEach
+  public void setUp() {
+    routingService = mock(RoutingService.class);
+    scheduleVersion = new ScheduleVersion();
+    clock = mock(Clock.class);
+    when(clock.instant()).thenReturn(NOW);
+    cachingRoutingService = new CachingRoutingService(routingService, scheduleVersion, clock, 2, Duration.ofMinutes(5), Duration.ofDays(1));
+    when(routingService.fetchRoutesForSpecification(any())).thenReturn(List.of(
+      itinerary(NOW.plus(Duration.ofDays(10)).plus(Duration.ofHours(2))),
+      itinerary(NOW.plus(Duration.ofDays(10)).plus(Duration.ofHours(20)))));
+  }
+
+  @Test
+  public void testSpecificationsInTheSameDeadlineWindowShareRoutes() {
+    List<Itinerary> first = cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10)).plus(Duration.ofHours(23))));
+    List<Itinerary> second = cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10)).plus(Duration.ofHours(12))));
+
+    assertThat(first).hasSize(2);
+    assertThat(second).hasSize(1);
+    assertThat(cachingRoutingService.hitCount()).isEqualTo(1);
+    assertThat(cachingRoutingService.missCount()).isEqualTo(1);
+    verify(routingService).fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(11))));
+  }
+
+  @Test
+  public void testCachedLegsAreNotShared() {
+    List<Itinerary> first = cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(11))));
+    List<Itinerary> second = cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(11))));
+
+    assertThat(second).hasSize(2);
+    assertThat(second.get(0).sameValueAs(first.get(0))).isTrue();
+    assertThat(second.get(0).legs().get(0)).isNotSameAs(first.get(0).legs().get(0));
+  }
+
+  @Test
+  public void testRoutesAreFetchedAgainWhenExpired() {
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10))));
+    when(clock.instant()).thenReturn(NOW.plus(Duration.ofMinutes(5)));
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10))));
+
+    assertThat(cachingRoutingService.missCount()).isEqualTo(2);
+    verify(routingService, times(2)).fetchRoutesForSpecification(any());
+  }
+
+  @Test
+  public void testRoutesAreFetchedAgainWhenAVoyageIsStored() {
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10))));
+    scheduleVersion.voyageStored(CM001);
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10))));
+
+    assertThat(cachingRoutingService.hitCount()).isZero();
+    verify(routingService, times(2)).fetchRoutesForSpecification(any());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedRoutesAreEvicted() {
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10))));
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(20))));
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10))));
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(30))));
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(10))));
+    cachingRoutingService.fetchRoutesForSpecification(spec(NOW.plus(Duration.ofDays(20))));
+
+    assertThat(cachingRoutingService.hitCount()).isEqualTo(2);
+    assertThat(cachingRoutingService.missCount()).isEqualTo(4);
+  }
+
+  private static RouteSpecification spec(Instant arrivalDeadline) {
+    return new RouteSpecification(HONGKONG, STOCKHOLM, arrivalDeadline);
+  }
+
+  private static Itinerary itinerary(Instant arrival) {
+    return new Itinerary(List.of(
+      new Leg(CM001, HONGKONG, NEWYORK, NOW.plus(Duration.ofDays(1)), NOW.plus(Duration.ofDays(5))),
+      new Leg(CM002, NEWYORK, STOCKHOLM, NOW.plus(Duration.ofDays(6)), arrival)));
+  }
+}
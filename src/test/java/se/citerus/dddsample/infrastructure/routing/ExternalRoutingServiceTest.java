@@ -8,37 +8,39 @@ import org.junit.jupiter.api.Test;
 import se.citerus.dddsample.domain.model.cargo.*;
 import se.citerus.dddsample.domain.model.location.Location;
 import se.citerus.dddsample.domain.model.location.LocationRepository;
-import se.citerus.dddsample.infrastructure.sampledata.SampleVoyages;
+import se.citerus.dddsample.domain.model.location.UnLocode;
 import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
 import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
 import se.citerus.dddsample.infrastructure.persistence.inmemory.LocationRepositoryInMem;
+import se.citerus.dddsample.infrastructure.persistence.inmemory.VoyageRepositoryInMem;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.isA;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
 
 public class ExternalRoutingServiceTest {
 
   private ExternalRoutingService externalRoutingService;
+  private LocationRepository locationRepository;
   private VoyageRepository voyageRepository;
 
   @BeforeEach
   public void setUp() {
-    LocationRepository locationRepository = new LocationRepositoryInMem();
+    locationRepository = new LocationRepositoryInMem();
     voyageRepository = mock(VoyageRepository.class);
-    GraphTraversalService graphTraversalService = new GraphTraversalServiceImpl(new GraphDAOStub() {
-      public List<String> listLocations() {
-        return List.of(TOKYO.unLocode().idString(), STOCKHOLM.unLocode().idString(), GOTHENBURG.unLocode().idString());
-      }
-
-      public void storeCarrierMovementId(String cmId, String from, String to) {
-      }
-    });
+    VoyageRepository sampleVoyages = new VoyageRepositoryInMem();
+    when(voyageRepository.find(anyCollection())).thenAnswer(invocation -> sampleVoyages.find(invocation.<Collection<VoyageNumber>>getArgument(0)));
+    GraphTraversalService graphTraversalService = new GraphTraversalServiceImpl(new GraphDAOStub());
     externalRoutingService = new ExternalRoutingService(graphTraversalService, locationRepository, voyageRepository);
   }
 
@@ -46,13 +48,15 @@ public class ExternalRoutingServiceTest {
   @Test
   public void testCalculatePossibleRoutes() {
     TrackingId trackingId = new TrackingId("ABC");
-    RouteSpecification routeSpecification = new RouteSpecification(HONGKONG, HELSINKI, Instant.now());
+    RouteSpecification routeSpecification = new RouteSpecification(HONGKONG, HELSINKI, Instant.now().plus(21, ChronoUnit.DAYS));
     Cargo cargo = new Cargo(trackingId, routeSpecification);
 
-    when(voyageRepository.find(isA(VoyageNumber.class))).thenReturn(SampleVoyages.CM002);
-
     List<Itinerary> candidates = externalRoutingService.fetchRoutesForSpecification(routeSpecification);
-    assertThat(candidates).isNotNull();
+    assertThat(candidates).isNotEmpty();
+
+    // Voyages are looked up once for all legs of all candidates
+    verify(voyageRepository).find(anyCollection());
+    verify(voyageRepository, never()).find(isA(VoyageNumber.class));
 
     for (Itinerary itinerary : candidates) {
       List<Leg> legs = itinerary.legs();
@@ -72,4 +76,59 @@ public class ExternalRoutingServiceTest {
       }
     }
   }
+
+  @Test
+  public void testParallelSearchMergesRoutesViaPorts() {
+    RouteSpecification routeSpecification = new RouteSpecification(HONGKONG, HELSINKI, Instant.now().plus(60, ChronoUnit.DAYS));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ExternalRoutingService parallelRoutingService = new ExternalRoutingService(
+        new GraphTraversalServiceImpl(new GraphDAOStub()), locationRepository, voyageRepository,
+        executor, List.of(new UnLocode("USNYC"), new UnLocode("NLRTM")), Duration.ofSeconds(10));
+
+      List<Itinerary> candidates = parallelRoutingService.fetchRoutesForSpecification(routeSpecification);
+
+      assertThat(candidates).isNotEmpty();
+      assertThat(candidates.size()).isLessThanOrEqualTo(10);
+      assertThat(candidates).allMatch(routeSpecification::isSatisfiedBy);
+      assertThat(candidates).anyMatch(itinerary -> itinerary.legs().stream().anyMatch(leg -> leg.unloadLocation().equals(NEWYORK)));
+      assertThat(candidates).extracting(itinerary -> itinerary.legs().get(itinerary.legs().size() - 1).unloadTime()).isSorted();
+      assertThat(candidates).extracting(Itinerary::legs).doesNotHaveDuplicates();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testSearchesOutsideLatencyBudgetAreDropped() {
+    RouteSpecification routeSpecification = new RouteSpecification(HONGKONG, HELSINKI, Instant.now().plus(60, ChronoUnit.DAYS));
+
+    GraphTraversalService direct = new GraphTraversalServiceImpl(new GraphDAOStub());
+    GraphTraversalService slowViaSearches = (origin, destination, limitations) -> {
+      if (limitations.containsKey("VIA")) {
+        try {
+          Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return direct.findShortestPath(origin, destination, limitations);
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ExternalRoutingService parallelRoutingService = new ExternalRoutingService(
+        slowViaSearches, locationRepository, voyageRepository,
+        executor, List.of(new UnLocode("USNYC")), Duration.ofMillis(500));
+
+      long start = System.nanoTime();
+      List<Itinerary> candidates = parallelRoutingService.fetchRoutesForSpecification(routeSpecification);
+
+      assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+      assertThat(candidates).isNotEmpty();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
@@ -0,0 +1,163 @@
+package se.citerus.dddsample.infrastructure.routing;
+
+import com.pathfinder.api.TransitEdge;
+import com.pathfinder.api.TransitPath;
+import com.pathfinder.internal.GraphTraversalServiceImpl;
+import com.pathfinder.internal.TransitGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.citerus.dddsample.domain.model.voyage.Voyage;
+import se.citerus.dddsample.domain.model.voyage.VoyageNumber;
+import se.citerus.dddsample.domain.model.voyage.VoyageRepository;
+import se.citerus.dddsample.infrastructure.persistence.inmemory.VoyageRepositoryInMem;
+import se.citerus.dddsample.infrastructure.sampledata.SampleVoyages;
+
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static se.citerus.dddsample.application.util.DateUtils.toDate;
+import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.*;
+
+public class VoyageScheduleGraphDAOTest {
+
+  private VoyageScheduleGraphDAO graphDAO;
+  private VoyageRepository voyageRepository;
+  private ScheduleVersion scheduleVersion;
+  private Queue<Runnable> rebuilds;
+
+  @BeforeEach
+  public void setUp() {
+    scheduleVersion = new ScheduleVersion();
+    rebuilds = new ArrayDeque<>();
+    graphDAO = new VoyageScheduleGraphDAO(new VoyageRepositoryInMem(), scheduleVersion, rebuilds::add);
+    voyageRepository = new NotifyingVoyageRepository(new VoyageRepositoryInMem(), List.of(graphDAO));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void testDeparturesAreOrderedByDepartureTime() {
+    List<TransitEdge> departures = departures("CNHKG");
+
+    assertThat(departures).extracting(TransitEdge::getEdge).contains("0100S", "V100");
+    assertThat(departures).isSortedAccordingTo((a, b) -> a.getFromDate().compareTo(b.getFromDate()));
+    assertThat(departures).allSatisfy(edge -> assertThat(edge.getFromNode()).isEqualTo("CNHKG"));
+  }
+
+  @Test
+  public void testStoredVoyageReplacesItsPreviousSchedule() {
+    graphDAO.transitGraph();
+
+    voyageRepository.store(new Voyage.Builder(new VoyageNumber("0100S"), HONGKONG)
+      .addMovement(GOTHENBURG, toDate("2008-10-01", "12:00"), toDate("2008-10-20", "12:00"))
+      .build());
+    runRebuilds();
+
+    assertThat(departures("CNHKG")).extracting(TransitEdge::getEdge, TransitEdge::getToNode)
+      .contains(tuple("0100S", "SEGOT"))
+      .doesNotContain(tuple("0100S", "CNHGH"));
+    assertThat(departures("JNTKO")).extracting(TransitEdge::getEdge).doesNotContain("0100S");
+    assertThat(departures("JNTKO")).extracting(TransitEdge::getEdge).contains("V200");
+  }
+
+  @Test
+  public void testStoredVoyageIsOnlyAppliedOnCommit() {
+    graphDAO.transitGraph();
+    TransactionSynchronizationManager.initSynchronization();
+
+    voyageRepository.store(new Voyage.Builder(new VoyageNumber("0999X"), STOCKHOLM)
+      .addMovement(MELBOURNE, toDate("2008-10-01", "12:00"), toDate("2008-10-20", "12:00"))
+      .build());
+    assertThat(departures("SESTO")).extracting(TransitEdge::getEdge).doesNotContain("0999X");
+
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCommit();
+    }
+    runRebuilds();
+    assertThat(departures("SESTO")).extracting(TransitEdge::getEdge).contains("0999X");
+  }
+
+  @Test
+  public void testGraphIsKeptUntilAVoyageIsStored() {
+    TransitGraph graph = graphDAO.transitGraph();
+    assertThat(graphDAO.transitGraph()).isSameAs(graph);
+
+    voyageRepository.store(SampleVoyages.HONGKONG_TO_NEW_YORK);
+    runRebuilds();
+
+    assertThat(graphDAO.transitGraph()).isNotSameAs(graph);
+    assertThat(graphDAO.transitGraph().departureCount()).isEqualTo(graph.departureCount());
+  }
+
+  @Test
+  public void testPreviousGraphIsUsedUntilTheRebuildIsDone() {
+    TransitGraph graph = graphDAO.transitGraph();
+    long version = scheduleVersion.current();
+
+    voyageRepository.store(new Voyage.Builder(new VoyageNumber("0999X"), STOCKHOLM)
+      .addMovement(MELBOURNE, toDate("2008-10-01", "12:00"), toDate("2008-10-20", "12:00"))
+      .build());
+    voyageRepository.store(new Voyage.Builder(new VoyageNumber("0998X"), STOCKHOLM)
+      .addMovement(HELSINKI, toDate("2008-10-02", "12:00"), toDate("2008-10-03", "12:00"))
+      .build());
+
+    assertThat(rebuilds).hasSize(1);
+    assertThat(graphDAO.transitGraph()).isSameAs(graph);
+    assertThat(scheduleVersion.current()).isEqualTo(version);
+
+    runRebuilds();
+
+    assertThat(departures("SESTO")).extracting(TransitEdge::getEdge).contains("0999X", "0998X");
+    assertThat(scheduleVersion.current()).isGreaterThan(version);
+  }
+
+  @Test
+  public void testRoutesFollowTheStoredSchedules() {
+    Clock clock = Clock.fixed(toDate("2008-10-01"), ZoneOffset.UTC);
+    Properties limitations = new Properties();
+    limitations.setProperty("DEADLINE", toDate("2008-11-01").toString());
+
+    List<TransitPath> paths = new GraphTraversalServiceImpl(graphDAO, clock).findShortestPath("CNHKG", "USDAL", limitations);
+
+    assertThat(paths).isNotEmpty();
+    assertThat(paths.get(0).getTransitEdges()).extracting(TransitEdge::getEdge, TransitEdge::getToNode).containsExactly(
+      tuple("0100S", "CNHGH"),
+      tuple("0100S", "JNTKO"),
+      tuple("0100S", "AUMEL"),
+      tuple("0100S", "USNYC"),
+      tuple("0200T", "USCHI"),
+      tuple("0200T", "USDAL")
+    );
+  }
+
+  private void runRebuilds() {
+    while (!rebuilds.isEmpty()) {
+      rebuilds.remove().run();
+    }
+  }
+
+  private List<TransitEdge> departures(String node) {
+    TransitGraph graph = graphDAO.transitGraph();
+    int id = graph.nodeId(node);
+    List<TransitEdge> departures = new ArrayList<>();
+    for (int departure = graph.firstDepartureNotBefore(id, Long.MIN_VALUE); departure < graph.endOfDepartures(id); departure++) {
+      departures.add(graph.transitEdge(departure));
+    }
+    return departures;
+  }
+}
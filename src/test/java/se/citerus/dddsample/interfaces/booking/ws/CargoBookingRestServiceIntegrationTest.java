@@ -0,0 +1,71 @@
+package se.citerus.dddsample.interfaces.booking.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriTemplate;
+import se.citerus.dddsample.Application;
+
+import java.net.URI;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CargoBookingRestServiceIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldBookAllCargosAndReportEachBooking() throws Exception {
+        URI uri = new UriTemplate("http://localhost:{port}/dddsample/api/book").expand(port);
+        RequestEntity<String> request = RequestEntity.post(uri).contentType(MediaType.APPLICATION_JSON).body("[" +
+                "{\"origin\": \"SESTO\", \"destination\": \"USCHI\", \"arrivalDeadline\": \"2030-01-01T00:00:00Z\"}," +
+                "{\"origin\": \"SESTO\", \"destination\": \"XXXXX\", \"arrivalDeadline\": \"2030-01-01T00:00:00Z\"}," +
+                "{\"origin\": \"SESTO\", \"destination\": \"nope\", \"arrivalDeadline\": \"2030-01-01T00:00:00Z\"}," +
+                "{\"origin\": \"CNHKG\", \"destination\": \"FIHEL\", \"arrivalDeadline\": \"2030-01-01T00:00:00Z\"}" +
+                "]");
+
+        ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        JsonNode results = objectMapper.readTree(response.getBody());
+        assertThat(results.size()).isEqualTo(4);
+        assertThat(results.get(0).get("trackingId").asText()).matches("T[0-9A-F]{8}");
+        assertThat(results.get(1).get("error").asText()).isEqualTo("Unknown destination XXXXX");
+        assertThat(results.get(2).get("error").asText()).isEqualTo("nope is not a valid UN/LOCODE (does not match pattern)");
+        assertThat(results.get(3).get("trackingId").asText()).matches("T[0-9A-F]{8}");
+
+        // The booked cargos can be tracked right away
+        URI trackUri = new UriTemplate("http://localhost:{port}/dddsample/api/track").expand(port);
+        RequestEntity<Object> track = RequestEntity.post(trackUri).contentType(MediaType.APPLICATION_JSON)
+                .body(Collections.singletonList(results.get(0).get("trackingId").asText()));
+        JsonNode tracked = objectMapper.readTree(restTemplate.exchange(track, String.class).getBody()).get("results");
+        assertThat(tracked.get(0).get("trackingId").asText()).isEqualTo(results.get(0).get("trackingId").asText());
+        assertThat(tracked.get(0).get("error").isNull()).isTrue();
+    }
+
+    @Test
+    void shouldReturnEmptyArrayForNoBookings() throws Exception {
+        URI uri = new UriTemplate("http://localhost:{port}/dddsample/api/book").expand(port);
+        RequestEntity<Object> request = RequestEntity.post(uri).contentType(MediaType.APPLICATION_JSON).body(new Object[0]);
+
+        ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo("[]");
+    }
+}
@@ -1,6 +1,7 @@
 package se.citerus.dddsample.interfaces.handling;
 
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.EmptySource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -65,7 +66,16 @@ public class HandlingReportParserTest {
     }
 
     @ParameterizedTest
-    @ValueSource(strings = {"ABC123"})
+    @ValueSource(strings = {"ABC/123", "ABC_123", "ÅBC123", "ABC 123", "ABC123;DROP"})
+    public void shouldThrowErrorOnParsingInvalidTrackingId(String input) {
+        assertThatThrownBy(() -> HandlingReportParser.parseTrackingId(input))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Failed to parse trackingId: " + input);
+        assertThat(HandlingReportParser.isTrackingId(input, 0, input.length())).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ABC123", "0A1B2C3D", "abc-123"})
     public void shouldReturnTrackingIdOnParsingValidTrackingId(String input) {
         TrackingId result = HandlingReportParser.parseTrackingId(input);
         assertThat(result).isNotNull().extracting("id").contains(input);
@@ -179,4 +189,90 @@ public class HandlingReportParserTest {
         Instant result = HandlingReportParser.parseCompletionTime(LocalDateTime.parse(input));
         assertThat(result).isNotNull();
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2022-10-29 13:37",
+            "1970-01-01 00:00",
+            "1969-12-31 23:59",
+            "2000-02-29 12:00",
+            "2024-12-31 23:59",
+            "0001-03-01 00:00"
+    })
+    public void shouldParseSameEpochSecondAsParseDate(String input) {
+        String line = "  " + input + "  ";
+        long result = HandlingReportParser.parseEpochSecond(line, 2, 2 + input.length());
+        assertThat(result).isEqualTo(HandlingReportParser.parseDate(input).getEpochSecond());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "XXX",
+            "2022-10-29T13:37",
+            "2022/10/29 13:37",
+            "2022-10-29 13.37",
+            "2022-10-29 13:37:00",
+            "2022-10-29  13:37",
+            "2022-1O-29 13:37",
+            "2022-00-29 13:37",
+            "2022-13-29 13:37",
+            "2022-10-00 13:37",
+            "2022-10-32 13:37",
+            "2022-04-31 13:37",
+            "2023-02-29 13:37",
+            "1900-02-29 13:37",
+            "2022-10-29 24:00",
+            "2022-10-29 13:60",
+            "-022-10-29 13:37"
+    })
+    public void shouldReturnInvalidDateOnParsingInvalidEpochSecond(String input) {
+        assertThat(HandlingReportParser.parseEpochSecond(input, 0, input.length())).isEqualTo(HandlingReportParser.INVALID_DATE);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "LOAD, LOAD",
+            "UNLOAD, UNLOAD",
+            "RECEIVE, RECEIVE",
+            "CLAIM, CLAIM",
+            "CUSTOMS, CUSTOMS",
+            "XXX, ",
+            "LOADS, ",
+            "load, "
+    })
+    public void shouldParseEventTypeInPlace(String input, HandlingEvent.Type expected) {
+        String line = "x" + input + "x";
+        assertThat(HandlingReportParser.parseEventType(line, 1, 1 + input.length())).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "SESTO, true",
+            "CNHKG, true",
+            "USNYC, true",
+            "SESTOX, false",
+            "SEST, false",
+            "XXX, false",
+            "S1STO, false",
+            "SESt0, false"
+    })
+    public void shouldValidateUnLocodeInPlace(String input, boolean expected) {
+        String line = input + "  ";
+        assertThat(HandlingReportParser.isUnLocode(line, 0, input.length())).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ABC123", "0101"})
+    public void shouldAcceptNonBlankTrackingIdAndVoyageNumber(String input) {
+        assertThat(HandlingReportParser.isTrackingId(input, 0, input.length())).isTrue();
+        assertThat(HandlingReportParser.isVoyageNumber(input, 0, input.length())).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " ", "\t"})
+    public void shouldRejectEmptyTrackingIdAndBlankVoyageNumber(String input) {
+        assertThat(HandlingReportParser.isVoyageNumber(input, 0, input.length())).isFalse();
+        assertThat(HandlingReportParser.isTrackingId("ABC123", 3, 3)).isFalse();
+    }
+}
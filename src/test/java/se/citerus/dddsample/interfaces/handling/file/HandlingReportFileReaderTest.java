@@ -0,0 +1,102 @@
+package se.citerus.dddsample.interfaces.handling.file;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HandlingReportFileReaderTest {
+
+  private Path file;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    file = Files.createTempFile("handlingReport", ".csv");
+    file.toFile().deleteOnExit();
+  }
+
+  @Test
+  public void testSplitsColumnsAsSplittingOnTwoOrMoreWhitespaces() throws IOException {
+    String[] lines = {
+      "2022-10-29 13:37    ABC123  0101    SESTO   CUSTOMS",
+      "2022-10-29 13:37\t\tABC123  SESTO  \t RECEIVE",
+      "  leading  separator",
+      "trailing  separator   ",
+      "one column",
+      "",
+      "a  b  c  d  e  f  g"
+    };
+    Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+
+    List<List<String>> read = read();
+
+    assertThat(read).hasSize(lines.length);
+    for (int i = 0; i < lines.length; i++) {
+      String[] expected = lines[i].split("\\s{2,}");
+      if (expected.length <= 5) {
+        assertThat(read.get(i)).as(lines[i]).containsExactly(expected.length == 0 ? new String[]{""} : expected);
+      } else {
+        assertThat(read.get(i)).as(lines[i]).hasSize(expected.length);
+      }
+    }
+  }
+
+  @Test
+  public void testReadsAllLineEndings() throws IOException {
+    Files.write(file, "a  b\r\nc  d\re  f\n\ng  h".getBytes(StandardCharsets.UTF_8));
+
+    List<List<String>> read = read();
+
+    assertThat(read).extracting(columns -> String.join("|", columns))
+      .containsExactly("a|b", "c|d", "e|f", "", "g|h");
+  }
+
+  @Test
+  public void testReadsLinesAcrossBufferBoundaries() throws IOException {
+    StringBuilder content = new StringBuilder();
+    int lineCount = 0;
+    while (content.length() < 3 * HandlingReportFileReader.BUFFER_SIZE) {
+      content.append("2022-10-29 13:37    ABC").append(lineCount++).append("  0101    SESTO   CUSTOMS\r\n");
+    }
+    Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+
+    List<List<String>> read = read();
+
+    assertThat(read).hasSize(lineCount);
+    for (int i = 0; i < lineCount; i++) {
+      assertThat(read.get(i)).containsExactly("2022-10-29 13:37", "ABC" + i, "0101", "SESTO", "CUSTOMS");
+    }
+  }
+
+  @Test
+  public void testLineToStringIsTheWholeLine() throws IOException {
+    Files.write(file, "2022-10-29 13:37    ÅÄÖ123  0101    XXX   CUSTOMS\n".getBytes(StandardCharsets.UTF_8));
+
+    List<String> lines = new ArrayList<>();
+    HandlingReportFileReader.read(file, line -> lines.add(line.toString()));
+
+    assertThat(lines).containsExactly("2022-10-29 13:37    ÅÄÖ123  0101    XXX   CUSTOMS");
+  }
+
+  private List<List<String>> read() throws IOException {
+    List<List<String>> lines = new ArrayList<>();
+    HandlingReportFileReader.read(file, line -> {
+      List<String> columns = new ArrayList<>();
+      for (int i = 0; i < Math.min(line.columnCount(), 5); i++) {
+        columns.add(line.column(i));
+      }
+      for (int i = 5; i < line.columnCount(); i++) {
+        columns.add("?");
+      }
+      lines.add(columns);
+    });
+    return lines;
+  }
+}
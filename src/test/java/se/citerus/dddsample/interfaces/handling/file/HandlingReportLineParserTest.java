@@ -0,0 +1,64 @@
+package se.citerus.dddsample.interfaces.handling.file;
+
+import org.junit.jupiter.api.Test;
+import se.citerus.dddsample.domain.model.handling.HandlingEvent;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.citerus.dddsample.interfaces.handling.file.HandlingReportLineParser.Rejection.*;
+
+public class HandlingReportLineParserTest {
+
+  private final HandlingReportLineParser parser = new HandlingReportLineParser();
+  private final HandlingReportFileReader.Line line = new HandlingReportFileReader.Line();
+
+  @Test
+  public void testParsesLineWithVoyage() {
+    Instant registrationTime = Instant.parse("2022-10-30T00:00:00Z");
+
+    assertThat(parser.parse(line.set("2022-10-29 13:37    ABC123  0101    SESTO   LOAD"))).isNull();
+    HandlingEventRegistrationAttempt attempt = parser.attempt(registrationTime);
+
+    assertThat(attempt.getRegistrationTime()).isEqualTo(registrationTime);
+    assertThat(attempt.getCompletionTime()).isEqualTo(Instant.parse("2022-10-29T13:37:00Z"));
+    assertThat(attempt.getTrackingId().idString()).isEqualTo("ABC123");
+    assertThat(attempt.getVoyageNumber().idString()).isEqualTo("0101");
+    assertThat(attempt.getUnLocode().idString()).isEqualTo("SESTO");
+    assertThat(attempt.getType()).isEqualTo(HandlingEvent.Type.LOAD);
+  }
+
+  @Test
+  public void testParsesLineWithoutVoyage() {
+    assertThat(parser.parse(line.set("2022-10-29 13:37    ABC123  SESTO   RECEIVE"))).isNull();
+    HandlingEventRegistrationAttempt attempt = parser.attempt(Instant.now());
+
+    assertThat(attempt.getVoyageNumber()).isNull();
+    assertThat(attempt.getUnLocode().idString()).isEqualTo("SESTO");
+    assertThat(attempt.getType()).isEqualTo(HandlingEvent.Type.RECEIVE);
+  }
+
+  @Test
+  public void testRejectsInvalidLines() {
+    assertThat(parser.parse(line.set("not a handling event"))).isEqualTo(WRONG_NUMBER_OF_COLUMNS);
+    assertThat(parser.parse(line.set("a  b  c  d  e  f"))).isEqualTo(WRONG_NUMBER_OF_COLUMNS);
+    assertThat(parser.parse(line.set("2022-10-29 25:37    ABC123  0101    SESTO   LOAD"))).isEqualTo(INVALID_DATE);
+    assertThat(parser.parse(line.set("  ABC123  0101    SESTO   LOAD"))).isEqualTo(INVALID_DATE);
+    assertThat(parser.parse(line.set("2022-10-29 13:37    ABC/123  0101    SESTO   LOAD"))).isEqualTo(INVALID_TRACKING_ID);
+    assertThat(parser.parse(line.set("2022-10-29 13:37    ABC123  0101    XXX   LOAD"))).isEqualTo(INVALID_UNLOCODE);
+    assertThat(parser.parse(line.set("2022-10-29 13:37    ABC123  0101    SESTO   LOADED"))).isEqualTo(INVALID_EVENT_TYPE);
+  }
+
+  @Test
+  public void testAttemptIsForTheLastValidLine() {
+    assertThat(parser.parse(line.set("2022-10-29 13:37    ABC123  SESTO   RECEIVE"))).isNull();
+    HandlingEventRegistrationAttempt first = parser.attempt(Instant.now());
+    assertThat(parser.parse(line.set("2022-10-30 08:00    XYZ789  0202    CNHKG   UNLOAD"))).isNull();
+    HandlingEventRegistrationAttempt second = parser.attempt(Instant.now());
+
+    assertThat(first.getTrackingId().idString()).isEqualTo("ABC123");
+    assertThat(second.getTrackingId().idString()).isEqualTo("XYZ789");
+    assertThat(second.getVoyageNumber().idString()).isEqualTo("0202");
+  }
+}
@@ -0,0 +1,76 @@
+package se.citerus.dddsample.interfaces.handling.file;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static se.citerus.dddsample.interfaces.handling.HandlingReportParser.*;
+
+/**
+ * Compares parsing a line of an uploaded handling report by splitting it into strings
+ * and parsing each of them, with exceptions for invalid input, with validating the line
+ * in place before anything is created from it.
+ * <p>
+ * Run with the test classpath, e.g. from the IDE, with {@code -prof gc} to see the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandlingReportParserBenchmark {
+
+  @Param({
+    "2022-10-29 13:37    ABC123  0101    SESTO   LOAD",
+    "2022-10-29 13:37    ABC123  SESTO   RECEIVE",
+    "2022-10-29 13:37    ABC123  0101    XXX   CUSTOMS",
+    "2022-02-30 13:37    ABC123  0101    SESTO   LOAD"
+  })
+  public String text;
+
+  private final Instant registrationTime = Instant.parse("2022-10-30T00:00:00Z");
+  private final HandlingReportFileReader.Line line = new HandlingReportFileReader.Line();
+  private final HandlingReportLineParser parser = new HandlingReportLineParser();
+
+  @Setup
+  public void setUp() {
+    line.set(text);
+  }
+
+  @Benchmark
+  public HandlingEventRegistrationAttempt splitAndParseStrings() {
+    try {
+      final String[] columns = text.split("\\s{2,}");
+      if (columns.length == 5) {
+        return attempt(columns[0], columns[1], columns[2], columns[3], columns[4]);
+      } else if (columns.length == 4) {
+        return attempt(columns[0], columns[1], "", columns[2], columns[3]);
+      } else {
+        throw new IllegalArgumentException("Wrong number of columns on line: " + text + ", must be 4 or 5");
+      }
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public HandlingEventRegistrationAttempt parseInPlace() {
+    return parser.parse(line) == null ? parser.attempt(registrationTime) : null;
+  }
+
+  private HandlingEventRegistrationAttempt attempt(String completionTime, String trackingId, String voyageNumber,
+                                                   String unLocode, String eventType) {
+    return new HandlingEventRegistrationAttempt(registrationTime, parseDate(completionTime), parseTrackingId(trackingId),
+      parseVoyageNumber(voyageNumber), parseEventType(eventType), parseUnLocode(unLocode));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(HandlingReportParserBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -3,33 +3,49 @@ package se.citerus.dddsample.interfaces.handling.file;
 import org.apache.commons.codec.Charsets;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.file.PathUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.Invocation;
 import se.citerus.dddsample.application.ApplicationEvents;
 import se.citerus.dddsample.domain.model.handling.HandlingEvent;
 import se.citerus.dddsample.interfaces.handling.HandlingEventRegistrationAttempt;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @SuppressWarnings("resource")
 public class UploadDirectoryScannerTest {
 
     private static final Instant exampleDate = LocalDateTime.parse("2022-10-29T13:37").atZone(ZoneOffset.UTC).toInstant();
+    private static final Duration SETTLE_TIME = Duration.ofMillis(200);
+    private static final Duration CLAIM_TIMEOUT = Duration.ofSeconds(2);
     private File uploadDir;
     private File parseFailureDir;
+    private final List<UploadDirectoryScanner> scanners = new ArrayList<>();
 
     @BeforeEach
     void setUp() throws IOException {
@@ -37,19 +53,25 @@ public class UploadDirectoryScannerTest {
         parseFailureDir = new File(Files.createTempDirectory("parseFailure").toUri());
     }
 
+    @AfterEach
+    void tearDown() throws Exception {
+        for (UploadDirectoryScanner scanner : scanners) {
+            scanner.shutdown();
+        }
+    }
+
     @Test
     public void shouldParseLinesAndPublishEventsForValidFile() throws Exception {
-        ArgumentCaptor<HandlingEventRegistrationAttempt> captor = ArgumentCaptor.forClass(HandlingEventRegistrationAttempt.class);
         ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
-        UploadDirectoryScanner scanner = new UploadDirectoryScanner(uploadDir, parseFailureDir, appEventsMock);
+        start(appEventsMock, 1);
         URL resource = this.getClass().getResource("/sampleHandlingReportFile.csv");
         assertThat(resource).isNotNull();
         PathUtils.copyFile(resource, uploadDir.toPath().resolve("sampleHandlingReportFile.csv"));
 
-        scanner.run();
-
-        verify(appEventsMock).receivedHandlingEventRegistrationAttempt(captor.capture());
-        HandlingEventRegistrationAttempt actual = captor.getValue();
+        verify(appEventsMock, timeout(5000)).receivedHandlingEventRegistrationAttempts(anyList());
+        List<HandlingEventRegistrationAttempt> attempts = receivedAttempts(appEventsMock);
+        assertThat(attempts).hasSize(1);
+        HandlingEventRegistrationAttempt actual = attempts.get(0);
         assertThat(actual).extracting(
                 "completionTime",
                 "trackingId.id",
@@ -57,26 +79,213 @@ public class UploadDirectoryScannerTest {
                 "type",
                 "unLocode.unlocode"
         ).contains(exampleDate, "ABC123", "0101", HandlingEvent.Type.CUSTOMS, "SESTO");
-        Stream<Path> files = Files.list(uploadDir.toPath());
-        assertThat(files.count()).isEqualTo(0);
-        files.close();
+        awaitImported();
+        assertThat(uploadedFiles()).isEmpty();
     }
 
     @Test
     void shouldCreateFileContainingInvalidLinesIfParsingFails() throws Exception {
         ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
-        UploadDirectoryScanner scanner = new UploadDirectoryScanner(uploadDir, parseFailureDir, appEventsMock);
+        start(appEventsMock, 1);
         URL resource = this.getClass().getResource("/sampleInvalidHandlingReportFile.csv");
         assertThat(resource).isNotNull();
         PathUtils.copyFile(resource, uploadDir.toPath().resolve("sampleInvalidHandlingReportFile.csv"));
 
-        scanner.run();
+        awaitImported();
 
         verifyNoInteractions(appEventsMock);
-        Stream<Path> files = Files.list(parseFailureDir.toPath());
-        assertThat(files.count()).isEqualTo(1);
-        Path path = Files.list(parseFailureDir.toPath()).collect(Collectors.toList()).get(0);
+        assertThat(parseFailureDir.list()).hasSize(1);
+        Path path = Files.list(parseFailureDir.toPath()).findFirst().get();
         String line = FileUtils.readFileToString(new File(path.toUri()), Charsets.UTF_8);
         assertThat(line.trim()).isEqualTo("2022-10-29 13:37    ABC123  0101    XXX   CUSTOMS");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldPublishValidLinesAndRejectInvalidLinesOfTheSameFile() throws Exception {
+        ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
+        start(appEventsMock, 1);
+        Files.write(uploadDir.toPath().resolve(".mixed.csv"), Arrays.asList(
+                "2022-10-29 13:37    ABC123  0101    SESTO   CUSTOMS",
+                "2022-10-29 13:37    ABC123  0101    XXX   CUSTOMS",
+                "2022-10-29 13:37    ABC123  SESTO   RECEIVE",
+                "not a handling event"));
+        Files.move(uploadDir.toPath().resolve(".mixed.csv"), uploadDir.toPath().resolve("mixed.csv"));
+
+        awaitImported();
+
+        verify(appEventsMock, times(1)).receivedHandlingEventRegistrationAttempts(anyList());
+        assertThat(receivedAttempts(appEventsMock)).hasSize(2);
+        assertThat(parseFailureDir.list()).containsExactly("mixed.csv.reject");
+        assertThat(Files.readAllLines(parseFailureDir.toPath().resolve("mixed.csv.reject"))).containsExactly(
+                "2022-10-29 13:37    ABC123  0101    XXX   CUSTOMS",
+                "not a handling event");
+    }
+
+    @Test
+    void shouldPickUpFilesThatWereUploadedBeforeStarting() throws Exception {
+        ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
+        writeValidFile("before.csv", 3);
+
+        UploadDirectoryScanner scanner = start(appEventsMock, 1);
+
+        awaitImported();
+        assertThat(receivedAttempts(appEventsMock)).hasSize(3);
+        assertThat(scanner.lineCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotParseFileUntilItHasSettled() throws Exception {
+        ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
+        start(appEventsMock, 1);
+
+        try (Writer writer = Files.newBufferedWriter(uploadDir.toPath().resolve("slow.csv"), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 5; i++) {
+                writer.write("2022-10-29 13:37    ABC123  0101    SESTO   CUSTOMS\n");
+                writer.flush();
+                Thread.sleep(SETTLE_TIME.toMillis() / 2);
+            }
+        }
+
+        awaitImported();
+        assertThat(receivedAttempts(appEventsMock)).hasSize(5);
+    }
+
+    @Test
+    void shouldSendTheLinesOfAFileInBatches() throws Exception {
+        ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
+        start(appEventsMock, 1);
+
+        writeValidFile("large.csv", UploadDirectoryScanner.BATCH_SIZE * 2 + 1);
+
+        awaitImported();
+        verify(appEventsMock, times(3)).receivedHandlingEventRegistrationAttempts(anyList());
+        verify(appEventsMock, never()).receivedHandlingEventRegistrationAttempt(any());
+        assertThat(receivedAttempts(appEventsMock)).hasSize(UploadDirectoryScanner.BATCH_SIZE * 2 + 1);
+    }
+
+    @Test
+    void shouldRejectTheLinesOfABatchThatCouldNotBeSent() throws Exception {
+        ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
+        doThrow(new IllegalStateException("Broker down")).when(appEventsMock).receivedHandlingEventRegistrationAttempts(anyList());
+        start(appEventsMock, 1);
+
+        writeValidFile("unsent.csv", 2);
+
+        awaitImported();
+        assertThat(Files.readAllLines(parseFailureDir.toPath().resolve("unsent.csv.reject"))).containsExactly(
+                "2022-10-29 13:37    ABC123  0101    SESTO   CUSTOMS",
+                "2022-10-29 13:37    ABC123  0101    SESTO   CUSTOMS");
+    }
+
+    @Test
+    void shouldParseFilesLeftClaimedByAStoppedNode() throws Exception {
+        ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
+        Path claimDir = uploadDir.toPath().resolve(UploadDirectoryScanner.CLAIM_DIRECTORY);
+        Files.createDirectories(claimDir);
+        Path stale = claimDir.resolve(UUID.randomUUID() + "-stale.csv");
+        Files.write(stale, Collections.singletonList("2022-10-29 13:37    ABC123  0101    SESTO   CUSTOMS"));
+        Files.setLastModifiedTime(stale, FileTime.from(Instant.now().minus(CLAIM_TIMEOUT).minusSeconds(1)));
+        Path recent = claimDir.resolve(UUID.randomUUID() + "-recent.csv");
+        Files.write(recent, Collections.singletonList("2022-10-29 13:37    ABC123  0101    SESTO   CUSTOMS"));
+
+        start(appEventsMock, 1);
+
+        await(() -> !Files.exists(stale) && uploadedFiles().length == 0 && claimedFiles().length == 1);
+        verify(appEventsMock, timeout(5000)).receivedHandlingEventRegistrationAttempts(anyList());
+        assertThat(receivedAttempts(appEventsMock)).hasSize(1);
+        assertThat(Files.exists(recent)).isTrue();
+
+        // The other claim is released once it has been left untouched for the claim timeout
+        awaitImported();
+        assertThat(receivedAttempts(appEventsMock)).hasSize(2);
+    }
+
+    @Test
+    void shouldParseFilesInParallelAndReportQueueDepth() throws Exception {
+        CountDownLatch parsing = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ApplicationEvents appEventsMock = mock(ApplicationEvents.class);
+        doAnswer(invocation -> {
+            parsing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(appEventsMock).receivedHandlingEventRegistrationAttempts(anyList());
+        UploadDirectoryScanner scanner = start(appEventsMock, 2);
+
+        for (int i = 0; i < 5; i++) {
+            writeValidFile("file" + i + ".csv", 1);
+        }
+
+        assertThat(parsing.await(5, TimeUnit.SECONDS)).isTrue();
+        await(() -> scanner.queueDepth() == 3);
+        assertThat(scanner.filesInProgress()).isEqualTo(2);
+        release.countDown();
+
+        awaitImported();
+        await(() -> scanner.queueDepth() == 0 && scanner.filesInProgress() == 0);
+        assertThat(scanner.lineCount()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldParseEachFileOnceWhenNodesShareTheUploadDirectory() throws Exception {
+        ApplicationEvents node1 = mock(ApplicationEvents.class);
+        ApplicationEvents node2 = mock(ApplicationEvents.class);
+        start(node1, 2);
+        start(node2, 2);
+
+        for (int i = 0; i < 20; i++) {
+            writeValidFile("file" + i + ".csv", 10);
+        }
+
+        awaitImported();
+        await(() -> receivedAttempts(node1).size() + receivedAttempts(node2).size() >= 200);
+        Thread.sleep(SETTLE_TIME.toMillis());
+        assertThat(receivedAttempts(node1).size() + receivedAttempts(node2).size()).isEqualTo(200);
+    }
+
+    private UploadDirectoryScanner start(ApplicationEvents applicationEvents, int parserThreads) throws Exception {
+        UploadDirectoryScanner scanner = new UploadDirectoryScanner(uploadDir, parseFailureDir, applicationEvents, parserThreads, SETTLE_TIME, CLAIM_TIMEOUT);
+        scanners.add(scanner);
+        scanner.afterPropertiesSet();
+        return scanner;
+    }
+
+    private void writeValidFile(String name, int lines) throws IOException {
+        List<String> content = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            content.add("2022-10-29 13:37    ABC123  0101    SESTO   CUSTOMS");
+        }
+        Files.write(uploadDir.toPath().resolve(name), content);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<HandlingEventRegistrationAttempt> receivedAttempts(ApplicationEvents applicationEvents) {
+        List<HandlingEventRegistrationAttempt> attempts = new ArrayList<>();
+        for (Invocation invocation : mockingDetails(applicationEvents).getInvocations()) {
+            if (invocation.getMethod().getName().equals("receivedHandlingEventRegistrationAttempts")) {
+                attempts.addAll((List<HandlingEventRegistrationAttempt>) invocation.getArgument(0));
+            }
+        }
+        return attempts;
+    }
+
+    private String[] uploadedFiles() {
+        return uploadDir.list((dir, name) -> !name.startsWith("."));
+    }
+
+    private String[] claimedFiles() {
+        return new File(uploadDir, UploadDirectoryScanner.CLAIM_DIRECTORY).list();
+    }
+
+    private void awaitImported() throws InterruptedException {
+        await(() -> uploadedFiles().length == 0 && claimedFiles().length == 0);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("Timed out").isNegative();
+            Thread.sleep(20);
+        }
+    }
+}
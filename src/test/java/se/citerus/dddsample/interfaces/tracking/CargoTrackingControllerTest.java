@@ -15,7 +15,10 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.validation.FieldError;
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
+import se.citerus.dddsample.application.tracking.CargoTrackingViews;
 import se.citerus.dddsample.infrastructure.persistence.inmemory.CargoRepositoryInMem;
+import se.citerus.dddsample.infrastructure.persistence.inmemory.CargoTrackingViewRepositoryInMem;
+import se.citerus.dddsample.infrastructure.persistence.inmemory.HandlingEventProjectionRepositoryInMem;
 import se.citerus.dddsample.infrastructure.persistence.inmemory.HandlingEventRepositoryInMem;
 
 import java.util.Locale;
@@ -41,9 +44,11 @@ public class CargoTrackingControllerTest {
         cargoRepository.setHandlingEventRepository(new HandlingEventRepositoryInMem());
         cargoRepository.init();
 
-        CargoTrackingController controller = new CargoTrackingController(cargoRepository,
-                new HandlingEventRepositoryInMem(),
-                new FakeMessageSource());
+        HandlingEventRepositoryInMem handlingEventRepository = new HandlingEventRepositoryInMem();
+        CargoTrackingViews cargoTrackingViews = new CargoTrackingViews(cargoRepository,
+                new HandlingEventProjectionRepositoryInMem(handlingEventRepository),
+                new CargoTrackingViewRepositoryInMem());
+        CargoTrackingController controller = new CargoTrackingController(cargoTrackingViews, new FakeMessageSource());
 
         InternalResourceViewResolver resolver = new InternalResourceViewResolver();
         resolver.setPrefix("/jsp/");
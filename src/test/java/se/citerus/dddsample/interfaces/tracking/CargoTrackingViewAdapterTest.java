@@ -2,6 +2,8 @@ package se.citerus.dddsample.interfaces.tracking;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.context.support.StaticApplicationContext;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.HandlingEventProjection;
 import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.cargo.RouteSpecification;
 import se.citerus.dddsample.domain.model.cargo.TrackingId;
@@ -10,6 +12,7 @@ import se.citerus.dddsample.domain.model.handling.HandlingHistory;
 
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static se.citerus.dddsample.infrastructure.sampledata.SampleLocations.HANGZHOU;
@@ -34,7 +37,8 @@ public class CargoTrackingViewAdapterTest {
     applicationContext.addMessage("cargo.status.IN_PORT", Locale.GERMAN, "In port {0}");
     applicationContext.refresh();
 
-    CargoTrackingViewAdapter adapter = new CargoTrackingViewAdapter(cargo, applicationContext, Locale.GERMAN, events, TimeZone.getTimeZone("Europe/Stockholm"));
+    CargoTrackingView view = CargoTrackingView.of(cargo, events.stream().map(HandlingEventProjection::of).collect(Collectors.toList()));
+    CargoTrackingViewAdapter adapter = new CargoTrackingViewAdapter(view, applicationContext, Locale.GERMAN, TimeZone.getTimeZone("Europe/Stockholm"));
 
     assertThat(adapter.getTrackingId()).isEqualTo("XYZ");
     assertThat(adapter.getOrigin()).isEqualTo("Hangzhou");
@@ -0,0 +1,79 @@
+package se.citerus.dddsample.interfaces.tracking.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriTemplate;
+import se.citerus.dddsample.Application;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CargoBulkTrackingRestServiceIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void beforeClass() {
+        // The expected date time values in the resonse are formatted in US locale.
+        Locale.setDefault(Locale.US);
+    }
+
+    @Test
+    void shouldTrackAllCargosInRequestOrder() throws Exception {
+        URI uri = new UriTemplate("http://localhost:{port}/dddsample/api/track").expand(port);
+        RequestEntity<Object> request = RequestEntity.post(uri).contentType(MediaType.APPLICATION_JSON)
+                .body(Arrays.asList("JKL567", "MISSING", "", "ABC 123", "ABC123"));
+
+        ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        JsonNode body = objectMapper.readTree(response.getBody());
+        JsonNode results = body.get("results");
+        assertThat(results.size()).isEqualTo(5);
+        assertThat(results.get(0).get("trackingId").asText()).isEqualTo("JKL567");
+        assertThat(results.get(0).get("cargo").get("handlingEvents").size()).isGreaterThan(0);
+        assertThat(results.get(0).get("error").isNull()).isTrue();
+        assertThat(results.get(1).get("trackingId").asText()).isEqualTo("MISSING");
+        assertThat(results.get(1).get("cargo").isNull()).isTrue();
+        assertThat(results.get(1).get("error").asText()).isEqualTo("No cargo found for tracking id");
+        assertThat(results.get(2).get("error").asText()).isEqualTo("Invalid tracking id");
+        assertThat(results.get(3).get("error").asText()).isEqualTo("Invalid tracking id");
+        assertThat(results.get(4).get("trackingId").asText()).isEqualTo("ABC123");
+        assertThat(results.get(4).get("cargo")).isEqualTo(objectMapper.readTree(getClass().getResourceAsStream("/sampleCargoTrackingResponse.json")));
+        assertThat(body.get("status").get("status").asText()).isEqualTo("complete");
+        assertThat(body.get("status").get("tracked").asInt()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldReturnNoResultsForNoTrackingIds() throws Exception {
+        URI uri = new UriTemplate("http://localhost:{port}/dddsample/api/track").expand(port);
+        RequestEntity<Object> request = RequestEntity.post(uri).contentType(MediaType.APPLICATION_JSON).body(new String[0]);
+
+        ResponseEntity<String> response = restTemplate.exchange(request, String.class);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertThat(body.get("results").size()).isEqualTo(0);
+        assertThat(body.get("status").get("status").asText()).isEqualTo("complete");
+        assertThat(body.get("status").get("tracked").asInt()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,93 @@
+package se.citerus.dddsample.interfaces.tracking.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import se.citerus.dddsample.application.tracking.CargoTrackingViews;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class CargoBulkTrackingRestServiceTest {
+
+    private final CargoTrackingViews cargoTrackingViews = mock(CargoTrackingViews.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CargoBulkTrackingRestService service =
+            new CargoBulkTrackingRestService(cargoTrackingViews, mock(MessageSource.class), objectMapper);
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void shouldFailBeforeCommittingWhenFirstBatchCannotBeLookedUp() {
+        when(cargoTrackingViews.find(anyCollection())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThatThrownBy(() -> service.trackCargos(request, response, trackingIds(2)))
+                .isInstanceOf(QueryTimeoutException.class);
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void shouldEndWithIncompleteStatusWhenLaterBatchCannotBeLookedUp() throws Exception {
+        when(cargoTrackingViews.find(anyCollection()))
+                .thenReturn(Map.of())
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        service.trackCargos(request, response, trackingIds(CargoBulkTrackingRestService.BATCH_SIZE + 1));
+
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertThat(body.get("results").size()).isEqualTo(CargoBulkTrackingRestService.BATCH_SIZE);
+        JsonNode status = body.get("status");
+        assertThat(status.get("status").asText()).isEqualTo(CargoBulkTrackingStatusDTO.INCOMPLETE);
+        assertThat(status.get("tracked").asInt()).isEqualTo(CargoBulkTrackingRestService.BATCH_SIZE);
+        assertThat(status.get("error").asText()).isEqualTo("Unexpected error");
+    }
+
+    @Test
+    void shouldEndWithCompleteStatusAfterAllBatches() throws Exception {
+        when(cargoTrackingViews.find(anyCollection())).thenReturn(Map.of());
+
+        service.trackCargos(request, response, trackingIds(CargoBulkTrackingRestService.BATCH_SIZE + 1));
+
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertThat(body.get("results").size()).isEqualTo(CargoBulkTrackingRestService.BATCH_SIZE + 1);
+        JsonNode status = body.get("status");
+        assertThat(status.get("status").asText()).isEqualTo(CargoBulkTrackingStatusDTO.COMPLETE);
+        assertThat(status.get("tracked").asInt()).isEqualTo(CargoBulkTrackingRestService.BATCH_SIZE + 1);
+    }
+
+    @Test
+    void shouldNotLookUpInvalidTrackingIds() throws Exception {
+        service.trackCargos(request, response, Arrays.asList("ABC 123", "ABC/123", null));
+
+        JsonNode results = objectMapper.readTree(response.getContentAsString()).get("results");
+        assertThat(results.size()).isEqualTo(3);
+        for (JsonNode result : results) {
+            assertThat(result.get("cargo").isNull()).isTrue();
+            assertThat(result.get("error").asText()).isEqualTo("Invalid tracking id");
+        }
+        verifyNoInteractions(cargoTrackingViews);
+    }
+
+    private static List<String> trackingIds(int count) {
+        List<String> trackingIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            trackingIds.add(String.format("%08X", i));
+        }
+        return trackingIds;
+    }
+}
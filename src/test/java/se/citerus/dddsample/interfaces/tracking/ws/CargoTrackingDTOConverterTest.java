@@ -12,6 +12,8 @@ import org.junit.jupiter.params.provider.CsvSource;
 import org.springframework.context.MessageSource;
 import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.test.util.ReflectionTestUtils;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.HandlingEventProjection;
 import se.citerus.dddsample.domain.model.cargo.Cargo;
 import se.citerus.dddsample.domain.model.cargo.HandlingActivity;
 import se.citerus.dddsample.domain.model.cargo.RouteSpecification;
@@ -62,7 +64,7 @@ class CargoTrackingDTOConverterTest {
         ReflectionTestUtils.setField(cargo.delivery(), "nextExpectedActivity", handlingActivity);
         ReflectionTestUtils.setField(cargo.delivery(), "eta", Instant.ofEpochMilli(0));
 
-        CargoTrackingDTO result = CargoTrackingDTOConverter.convert(cargo, emptyList(), mockMsgSrc, Locale.ENGLISH);
+        CargoTrackingDTO result = CargoTrackingDTOConverter.convert(CargoTrackingView.of(cargo, emptyList()), mockMsgSrc, Locale.ENGLISH);
 
         assertThat(result).extracting("trackingId", "statusText", "destination", "nextExpectedActivity", "isMisdirected")
                 .contains("TEST123", "TEST-STATUS", "Helsinki", "Next expected activity is to receive cargo in Stockholm", false);
@@ -84,10 +86,10 @@ class CargoTrackingDTOConverterTest {
 
         Voyage voyage = new Voyage(new VoyageNumber("0101"), new Schedule(Collections.singletonList(
                 new CarrierMovement(origin, dest, Instant.now(), Instant.now()))));
-        List<HandlingEvent> events = Arrays.asList(
-                new HandlingEvent(cargo, Instant.now(), Instant.now(), HandlingEvent.Type.RECEIVE, origin),
-                new HandlingEvent(cargo, Instant.now(), Instant.now(), HandlingEvent.Type.LOAD, origin, voyage));
-        CargoTrackingDTO result = CargoTrackingDTOConverter.convert(cargo, events, mockMsgSrc, Locale.ENGLISH);
+        List<HandlingEventProjection> events = Arrays.asList(
+                HandlingEventProjection.of(new HandlingEvent(cargo, Instant.now(), Instant.now(), HandlingEvent.Type.RECEIVE, origin)),
+                HandlingEventProjection.of(new HandlingEvent(cargo, Instant.now(), Instant.now(), HandlingEvent.Type.LOAD, origin, voyage)));
+        CargoTrackingDTO result = CargoTrackingDTOConverter.convert(CargoTrackingView.of(cargo, events), mockMsgSrc, Locale.ENGLISH);
 
         assertThat(result).extracting("trackingId", "statusText", "destination", "nextExpectedActivity", "isMisdirected")
                 .contains("TEST123", "TEST-STATUS", "Helsinki", "Next expected activity is to receive cargo in Stockholm", false);
@@ -108,7 +110,7 @@ class CargoTrackingDTOConverterTest {
         HandlingEvent event = new HandlingEvent(exampleCargo(), date, date,
                 HandlingEvent.Type.valueOf(eventType), exampleLocation, voyage);
 
-        String description = CargoTrackingDTOConverter.convertDescription(event, messageSource, Locale.ENGLISH);
+        String description = CargoTrackingDTOConverter.convertDescription(trackedEvent(event), messageSource, Locale.ENGLISH);
 
         assertThat(description).isNotNull().isEqualTo(expectedOutput);
     }
@@ -121,7 +123,7 @@ class CargoTrackingDTOConverterTest {
         HandlingEvent event = new HandlingEvent(exampleCargo(), date, date,
                 HandlingEvent.Type.valueOf(eventType), exampleLocation);
 
-        String description = CargoTrackingDTOConverter.convertDescription(event, messageSource, Locale.ENGLISH);
+        String description = CargoTrackingDTOConverter.convertDescription(trackedEvent(event), messageSource, Locale.ENGLISH);
 
         assertThat(description).isNotNull().isEqualTo(expectedOutput);
     }
@@ -129,7 +131,7 @@ class CargoTrackingDTOConverterTest {
     @ArgumentsSource(StatusTextArgsProvider.class)
     @ParameterizedTest
     void shouldConvertStatusTextCorrectlyForGivenParams(Cargo cargo, String expectedOutput) throws IOException {
-        String description = CargoTrackingDTOConverter.convertStatusText(cargo, messageSource, Locale.ENGLISH);
+        String description = CargoTrackingDTOConverter.convertStatusText(CargoTrackingView.of(cargo, emptyList()), messageSource, Locale.ENGLISH);
 
         assertThat(description).isNotNull().isEqualTo(expectedOutput);
     }
@@ -140,7 +142,7 @@ class CargoTrackingDTOConverterTest {
         Cargo cargo = exampleCargo();
         ReflectionTestUtils.setField(cargo.delivery(), "nextExpectedActivity", handlingActivity);
 
-        String result = CargoTrackingDTOConverter.convertNextExpectedActivity(cargo);
+        String result = CargoTrackingDTOConverter.convertNextExpectedActivity(CargoTrackingView.of(cargo, emptyList()));
 
         assertThat(result).isEqualTo(expectedOutput);
     }
@@ -201,6 +203,10 @@ class CargoTrackingDTOConverterTest {
         return properties;
     }
 
+    private static CargoTrackingView.Event trackedEvent(HandlingEvent event) {
+        return CargoTrackingView.of(event.cargo(), singletonList(HandlingEventProjection.of(event))).events().get(0);
+    }
+
     private static Cargo exampleCargo() {
         Location origin = new Location(new UnLocode("SESTO"), "Stockholm");
         Location dest = new Location(new UnLocode("FIHEL"), "Helsinki");
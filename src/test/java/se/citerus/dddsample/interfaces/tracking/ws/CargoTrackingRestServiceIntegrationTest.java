@@ -52,6 +52,29 @@ public class CargoTrackingRestServiceIntegrationTest {
         assertThat(response.getBody()).isEqualTo(expected);
     }
 
+    @Test
+    void shouldReturn304ResponseWhenCargoIsUnchanged() throws Exception {
+        URI uri = new UriTemplate("http://localhost:{port}/dddsample/api/track/ABC123").expand(port);
+        ResponseEntity<String> first = restTemplate.exchange(RequestEntity.get(uri).build(), String.class);
+        String eTag = first.getHeaders().getETag();
+        long lastModified = first.getHeaders().getLastModified();
+        assertThat(eTag).isNotNull();
+        assertThat(lastModified).isPositive();
+        assertThat(first.getHeaders().getVary()).containsExactly("Accept-Language");
+
+        ResponseEntity<String> byETag = restTemplate.exchange(RequestEntity.get(uri).ifNoneMatch(eTag).build(), String.class);
+        assertThat(byETag.getStatusCodeValue()).isEqualTo(304);
+        assertThat(byETag.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(byETag.getBody()).isNull();
+
+        ResponseEntity<String> byDate = restTemplate.exchange(RequestEntity.get(uri).ifModifiedSince(lastModified).build(), String.class);
+        assertThat(byDate.getStatusCodeValue()).isEqualTo(304);
+
+        ResponseEntity<String> stale = restTemplate.exchange(RequestEntity.get(uri).ifNoneMatch("\"stale\"").build(), String.class);
+        assertThat(stale.getStatusCodeValue()).isEqualTo(200);
+        assertThat(stale.getBody()).isEqualTo(first.getBody());
+    }
+
     @Test
     void shouldReturnValidationErrorResponseWhenInvalidHandlingReportIsSubmitted() throws Exception {
         URI uri = new UriTemplate("http://localhost:{port}/dddsample/api/track/MISSING").expand(port);
@@ -0,0 +1,57 @@
+package se.citerus.dddsample.interfaces.tracking.ws;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import se.citerus.dddsample.application.tracking.CargoTrackingVersion;
+import se.citerus.dddsample.application.tracking.CargoTrackingView;
+import se.citerus.dddsample.application.tracking.CargoTrackingViews;
+import se.citerus.dddsample.domain.model.cargo.TrackingId;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class CargoTrackingRestServiceTest {
+
+    private final TrackingId trackingId = new TrackingId("ABC123");
+    private final CargoTrackingVersion version = new CargoTrackingVersion(Instant.parse("2022-10-29T13:37:00Z"), 3);
+
+    private final CargoTrackingViews cargoTrackingViews = mock(CargoTrackingViews.class);
+    private final CargoTrackingRestService service = new CargoTrackingRestService(cargoTrackingViews, mock(MessageSource.class));
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/track/ABC123");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void shouldAnswerNotModifiedFromStoredVersionWithoutLoadingView() {
+        when(cargoTrackingViews.findVersion(trackingId)).thenReturn(version);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag());
+
+        assertThat(service.trackCargo(request, response, new ServletWebRequest(request, response), "ABC123")).isNull();
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        verify(cargoTrackingViews, never()).find(trackingId);
+    }
+
+    @Test
+    void shouldAssembleViewOnceWhenNoneIsStored() {
+        CargoTrackingView view = mock(CargoTrackingView.class);
+        when(view.version()).thenReturn(version);
+        when(cargoTrackingViews.find(trackingId)).thenReturn(view);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag());
+
+        assertThat(service.trackCargo(request, response, new ServletWebRequest(request, response), "ABC123")).isNull();
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        verify(cargoTrackingViews, times(1)).find(trackingId);
+    }
+
+    private String eTag() {
+        return "\"" + version.eTag() + "-" + request.getLocale().toLanguageTag() + "\"";
+    }
+}
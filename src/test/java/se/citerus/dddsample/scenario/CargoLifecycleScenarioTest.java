@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import se.citerus.dddsample.application.ApplicationEvents;
 import se.citerus.dddsample.application.BookingService;
 import se.citerus.dddsample.application.CargoInspectionService;
+import se.citerus.dddsample.application.CargoTrackingViewUpdater;
 import se.citerus.dddsample.application.HandlingEventService;
 import se.citerus.dddsample.application.impl.BookingServiceImpl;
 import se.citerus.dddsample.application.impl.CargoInspectionServiceImpl;
@@ -335,10 +336,12 @@ public class CargoLifecycleScenarioTest {
     // Actual factories and application services, wired with stubbed or in-memory infrastructure
     handlingEventFactory = new HandlingEventFactory(cargoRepository, voyageRepository, locationRepository);
 
-    cargoInspectionService = new CargoInspectionServiceImpl(applicationEvents, cargoRepository, handlingEventRepository);
+    // The tracking read model is not part of this scenario
+    CargoTrackingViewUpdater cargoTrackingViewUpdater = cargo -> { };
+    cargoInspectionService = new CargoInspectionServiceImpl(applicationEvents, cargoRepository, handlingEventRepository, cargoTrackingViewUpdater);
     handlingEventService = new HandlingEventServiceImpl(handlingEventRepository, applicationEvents, handlingEventFactory);
     CargoFactory cargoFactory = new CargoFactory(locationRepository, cargoRepository);
-    bookingService = new BookingServiceImpl(cargoRepository, locationRepository, routingService, cargoFactory);
+    bookingService = new BookingServiceImpl(cargoRepository, locationRepository, routingService, cargoFactory, cargoTrackingViewUpdater);
 
     // Circular dependency when doing synchrounous calls
     ((SynchronousApplicationEventsStub) applicationEvents).setCargoInspectionService(cargoInspectionService);